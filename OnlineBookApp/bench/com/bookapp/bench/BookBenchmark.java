@@ -0,0 +1,619 @@
+package com.bookapp.bench;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import com.bookapp.bean.Book;
+import com.bookapp.service.IBook;
+
+/**
+ * {@code BookBenchmark} measures the throughput of the {@link IBook} hot paths
+ * so that performance regressions can be caught before they are released.
+ * 
+ * <p>
+ * For every implementation and catalog size it measures {@code getAllBooks},
+ * each {@code getBookBy*} lookup and {@code sortByAnyField} for every field.
+ * The lookups are run once per hit ratio: a ratio of {@code 0.6} means that
+ * 60% of the looked-up keys exist and the rest end in a not-found exception.
+ * </p>
+ * 
+ * <p>
+ * As in JMH, every pair of implementation and catalog size runs in a JVM of
+ * its own, started from the same {@code java.home} with the same JVM options
+ * and class path. Otherwise the JIT profile of one implementation would carry
+ * over to the next, and call sites shared by all of them would no longer be
+ * optimized for any one.
+ * </p>
+ * 
+ * <p>
+ * Each benchmark runs a number of timed warm-up iterations followed by timed
+ * measurement iterations. The results are written as JSON in the layout used
+ * by JMH ({@code benchmark}, {@code mode}, {@code params} and
+ * {@code primaryMetric} with {@code score}, {@code scoreError} and
+ * {@code rawData}), so existing JMH tooling can compare runs. As in JMH,
+ * {@code scoreError} is the half-width of the 99.9% confidence interval of
+ * the mean, from Student's t-distribution.
+ * </p>
+ * 
+ * <p>
+ * Options, all optional:
+ * </p>
+ * <ul>
+ * <li>{@code --impls} - comma-separated class names, simple names are looked up
+ * in {@code com.bookapp.service} (default: {@code BookImpl,
+ * ColumnarBookImpl, ConcurrentBookImpl})</li>
+ * <li>{@code --sizes} - comma-separated catalog sizes (default:
+ * {@code 1000,10000,100000,1000000,10000000})</li>
+ * <li>{@code --hitRatios} - comma-separated hit ratios (default:
+ * {@code 1.0,0.6,0.0})</li>
+ * <li>{@code --warmup} and {@code --iterations} - number of warm-up and
+ * measurement iterations (default: 3 and 5)</li>
+ * <li>{@code --time} - length of one iteration in milliseconds (default:
+ * 1000)</li>
+ * <li>{@code --out} - the JSON result file (default:
+ * {@code bench-results.json})</li>
+ * <li>{@code --fork} - {@code false} runs every benchmark in this JVM instead
+ * of forking one per implementation and size (default: {@code true})</li>
+ * </ul>
+ * 
+ * <p>
+ * Example usage:
+ * </p>
+ * 
+ * <pre>
+ * java -Xmx8g -cp bin com.bookapp.bench.BookBenchmark --sizes 1000,1000000 --out results.json
+ * </pre>
+ * 
+ * @author MonigaBalasubramanian
+ */
+public class BookBenchmark {
+
+	// Fields accepted by sortByAnyField
+	private static final String[] SORT_FIELDS = { "Title", "ID", "Author", "Category", "Price" };
+
+	// Number of distinct categories in the generated catalog
+	private static final int CATEGORY_COUNT = 200;
+
+	// Average number of books per author in the generated catalog
+	private static final int BOOKS_PER_AUTHOR = 50;
+
+	// Number of precomputed lookup keys, cycled through during a benchmark
+	private static final int KEY_COUNT = 4096;
+
+	// Confidence level of the reported score error, as in JMH
+	private static final double CONFIDENCE = 0.999;
+
+	// Keeps results alive so that the JIT cannot drop the measured calls
+	private static volatile long sink;
+
+	// Options
+	private final Map<String, String> options;
+	private final List<String> impls;
+	private final List<Integer> sizes;
+	private final List<Double> hitRatios;
+	private final int warmupIterations;
+	private final int measurementIterations;
+	private final long iterationNanos;
+	private final boolean fork;
+
+	// Results collected so far, one JSON object each
+	private final List<String> results = new ArrayList<>();
+
+	/**
+	 * A benchmarked operation. It returns a number derived from its result, which
+	 * is fed to the sink.
+	 */
+	@FunctionalInterface
+	private interface Operation {
+
+		/**
+		 * Runs the operation once.
+		 * 
+		 * @param iteration The number of the call, used to pick a lookup key.
+		 * @return A number derived from the result.
+		 */
+		long run(int iteration);
+	}
+
+	/**
+	 * Creates a benchmark run with the given options.
+	 * 
+	 * @param options The options, keyed by name without the leading dashes.
+	 */
+	private BookBenchmark(Map<String, String> options) {
+		this.options = options;
+		impls = List.of(options.getOrDefault("impls", "BookImpl,ColumnarBookImpl,ConcurrentBookImpl").split(","));
+		sizes = new ArrayList<>();
+		for (String size : options.getOrDefault("sizes", "1000,10000,100000,1000000,10000000").split(",")) {
+			sizes.add(Integer.parseInt(size.trim()));
+		}
+		hitRatios = new ArrayList<>();
+		for (String ratio : options.getOrDefault("hitRatios", "1.0,0.6,0.0").split(",")) {
+			hitRatios.add(Double.parseDouble(ratio.trim()));
+		}
+		warmupIterations = Integer.parseInt(options.getOrDefault("warmup", "3"));
+		measurementIterations = Integer.parseInt(options.getOrDefault("iterations", "5"));
+		iterationNanos = Long.parseLong(options.getOrDefault("time", "1000")) * 1_000_000L;
+		fork = Boolean.parseBoolean(options.getOrDefault("fork", "true"));
+	}
+
+	/**
+	 * Runs the benchmarks and writes the JSON results.
+	 * 
+	 * @param args the options described in the class documentation
+	 * @throws Exception If an implementation cannot be created or the results
+	 *                   cannot be written.
+	 */
+	public static void main(String[] args) throws Exception {
+		Map<String, String> options = new LinkedHashMap<>();
+		for (int i = 0; i + 1 < args.length; i += 2) {
+			options.put(args[i].replaceFirst("^--", ""), args[i + 1]);
+		}
+		BookBenchmark benchmark = new BookBenchmark(options);
+		benchmark.runAll();
+		Path out = Paths.get(options.getOrDefault("out", "bench-results.json"));
+		benchmark.write(out);
+		System.out.println("Results written to " + out.toAbsolutePath());
+	}
+
+	/**
+	 * Runs every benchmark for every implementation and catalog size, each pair
+	 * in a forked JVM unless forking is turned off.
+	 * 
+	 * @throws ReflectiveOperationException If an implementation cannot be created.
+	 * @throws IOException                  If a forked JVM cannot be started or
+	 *                                      fails.
+	 * @throws InterruptedException         If interrupted while waiting for a
+	 *                                      forked JVM.
+	 */
+	private void runAll() throws ReflectiveOperationException, IOException, InterruptedException {
+		for (int size : sizes) {
+			if (fork) {
+				for (String impl : impls) {
+					runForked(impl, size);
+				}
+				continue;
+			}
+			List<Book> catalog = generate(size);
+			for (String impl : impls) {
+				IBook books = newInstance(impl);
+				books.addBooks(catalog);
+
+				Map<String, String> params = params(impl, size, null);
+				measure("getAllBooks", params, iteration -> books.getAllBooks().size());
+				for (String field : SORT_FIELDS) {
+					measure("sortByAnyField:" + field, params, iteration -> books.sortByAnyField(field).size());
+				}
+
+				for (double hitRatio : hitRatios) {
+					runLookups(books, size, impl, hitRatio);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Runs the benchmarks of one implementation and catalog size in a new JVM
+	 * and collects its results. The JVM is started from the same
+	 * {@code java.home}, with the JVM options and class path of this one.
+	 * 
+	 * @param impl The name of the implementation.
+	 * @param size The size of the catalog.
+	 * @throws IOException          If the JVM cannot be started, fails, or its
+	 *                              results cannot be read.
+	 * @throws InterruptedException If interrupted while waiting for the JVM.
+	 */
+	private void runForked(String impl, int size) throws IOException, InterruptedException {
+		Path out = Files.createTempFile("bench-", ".json");
+		try {
+			List<String> command = new ArrayList<>();
+			command.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+			command.addAll(ManagementFactory.getRuntimeMXBean().getInputArguments());
+			command.add("-cp");
+			command.add(System.getProperty("java.class.path"));
+			command.add(BookBenchmark.class.getName());
+
+			Map<String, String> forkOptions = new LinkedHashMap<>(options);
+			forkOptions.put("impls", impl);
+			forkOptions.put("sizes", Integer.toString(size));
+			forkOptions.put("fork", "false");
+			forkOptions.put("out", out.toString());
+			for (Map.Entry<String, String> option : forkOptions.entrySet()) {
+				command.add("--" + option.getKey());
+				command.add(option.getValue());
+			}
+
+			Process process = new ProcessBuilder(command).inheritIO().start();
+			int exitCode = process.waitFor();
+			if (exitCode != 0) {
+				throw new IOException("Benchmark of " + impl + " with " + size + " books failed with exit code "
+						+ exitCode);
+			}
+
+			// The fork writes a JSON array; keep the objects between the brackets
+			String json = new String(Files.readAllBytes(out), StandardCharsets.UTF_8).trim();
+			String objects = json.substring(1, json.length() - 1).trim();
+			if (!objects.isEmpty()) {
+				results.add("  " + objects);
+			}
+		} finally {
+			Files.deleteIfExists(out);
+		}
+	}
+
+	/**
+	 * Runs the lookup benchmarks for one hit ratio.
+	 * 
+	 * @param books    The implementation under test, already filled.
+	 * @param size     The size of the catalog.
+	 * @param impl     The name of the implementation.
+	 * @param hitRatio The share of lookups that find a book.
+	 */
+	private void runLookups(IBook books, int size, String impl, double hitRatio) {
+		Random random = new Random(42);
+		int authorCount = Math.max(1, size / BOOKS_PER_AUTHOR);
+		int[] ids = new int[KEY_COUNT];
+		String[] titles = new String[KEY_COUNT];
+		String[] authors = new String[KEY_COUNT];
+		String[] categories = new String[KEY_COUNT];
+		double[] prices = new double[KEY_COUNT];
+		for (int i = 0; i < KEY_COUNT; i++) {
+			boolean hit = random.nextDouble() < hitRatio;
+			int book = random.nextInt(size);
+			ids[i] = hit ? book : size + book;
+			titles[i] = hit ? "Title " + book : "Missing title " + book;
+			authors[i] = hit ? "Author " + random.nextInt(authorCount) : "Missing author " + book;
+			categories[i] = hit ? "Category " + random.nextInt(CATEGORY_COUNT) : "Missing category " + book;
+			prices[i] = hit ? price(book) : 1000 + book;
+		}
+
+		Map<String, String> params = params(impl, size, hitRatio);
+		int mask = KEY_COUNT - 1;
+		measure("getBookById", params, iteration -> {
+			try {
+				return books.getBookById(ids[iteration & mask]).size();
+			} catch (Exception e) {
+				return -1;
+			}
+		});
+		measure("getBookByTitle", params, iteration -> {
+			try {
+				return books.getBookByTitle(titles[iteration & mask]).size();
+			} catch (Exception e) {
+				return -1;
+			}
+		});
+		measure("getBookByAuthor", params, iteration -> {
+			try {
+				return books.getBookByAuthor(authors[iteration & mask]).size();
+			} catch (Exception e) {
+				return -1;
+			}
+		});
+		measure("getBookByCategory", params, iteration -> {
+			try {
+				return books.getBookByCategory(categories[iteration & mask]).size();
+			} catch (Exception e) {
+				return -1;
+			}
+		});
+		measure("getBookByPrice", params, iteration -> {
+			try {
+				return books.getBookByPrice(prices[iteration & mask]).size();
+			} catch (Exception e) {
+				return -1;
+			}
+		});
+	}
+
+	/**
+	 * Measures the throughput of one operation and records the result.
+	 * 
+	 * @param benchmark The name of the benchmark.
+	 * @param params    The parameters of the run.
+	 * @param operation The operation to measure.
+	 */
+	private void measure(String benchmark, Map<String, String> params, Operation operation) {
+		long calls = 0;
+		for (int i = 0; i < warmupIterations; i++) {
+			calls = iterate(operation, calls)[1];
+		}
+		double[] scores = new double[measurementIterations];
+		for (int i = 0; i < measurementIterations; i++) {
+			long[] iteration = iterate(operation, calls);
+			calls = iteration[1];
+			scores[i] = iteration[2] * 1e9 / iteration[0];
+		}
+
+		double mean = 0;
+		for (double score : scores) {
+			mean += score;
+		}
+		mean /= scores.length;
+		double variance = 0;
+		for (double score : scores) {
+			variance += (score - mean) * (score - mean);
+		}
+		double error = scores.length > 1 ? tCritical(CONFIDENCE, scores.length - 1)
+				* Math.sqrt(variance / (scores.length - 1)) / Math.sqrt(scores.length) : Double.NaN;
+
+		System.out.printf(Locale.ROOT, "%-24s %-40s %,16.1f ops/s%n", benchmark, params, mean);
+		results.add(toJson(benchmark, params, mean, error, scores));
+	}
+
+	/**
+	 * Runs an operation repeatedly for one iteration.
+	 * 
+	 * @param operation The operation to run.
+	 * @param calls     The number of calls made so far.
+	 * @return The elapsed nanoseconds, the new number of calls and the number of
+	 *         calls in this iteration.
+	 */
+	private long[] iterate(Operation operation, long calls) {
+		long count = 0;
+		long result = 0;
+		long start = System.nanoTime();
+		long elapsed;
+		do {
+			result += operation.run((int) calls++);
+			count++;
+			elapsed = System.nanoTime() - start;
+		} while (elapsed < iterationNanos);
+		sink += result;
+		return new long[] { elapsed, calls, count };
+	}
+
+	/**
+	 * Returns the critical value of Student's t-distribution for a two-sided
+	 * confidence interval, as JMH uses for its score error.
+	 * 
+	 * @param confidence       The confidence level, such as {@code 0.999}.
+	 * @param degreesOfFreedom The degrees of freedom, at least 1.
+	 * @return The value {@code t} such that the interval {@code [-t, t]} holds
+	 *         the given share of the distribution.
+	 */
+	private static double tCritical(double confidence, int degreesOfFreedom) {
+		double tail = (1 - confidence) / 2;
+		double low = 0;
+		double high = 1;
+		while (tTail(high, degreesOfFreedom) > tail) {
+			low = high;
+			high *= 2;
+		}
+		// The upper tail shrinks as t grows, so bisect for the requested tail
+		for (int i = 0; i < 200 && high - low > 1e-12 * high; i++) {
+			double middle = (low + high) / 2;
+			if (tTail(middle, degreesOfFreedom) > tail) {
+				low = middle;
+			} else {
+				high = middle;
+			}
+		}
+		return (low + high) / 2;
+	}
+
+	/**
+	 * Returns the probability that a variable with Student's t-distribution is
+	 * greater than {@code t}.
+	 * 
+	 * @param t                The value, at least 0.
+	 * @param degreesOfFreedom The degrees of freedom.
+	 * @return The upper tail probability.
+	 */
+	private static double tTail(double t, int degreesOfFreedom) {
+		double v = degreesOfFreedom;
+		return 0.5 * regularizedBeta(v / (v + t * t), v / 2, 0.5);
+	}
+
+	/**
+	 * Returns the regularized incomplete beta function {@code I_x(a, b)},
+	 * evaluated with its continued fraction.
+	 * 
+	 * @param x The upper limit of integration, between 0 and 1.
+	 * @param a The first shape parameter.
+	 * @param b The second shape parameter.
+	 * @return The value of the function.
+	 */
+	private static double regularizedBeta(double x, double a, double b) {
+		if (x <= 0) {
+			return 0;
+		}
+		if (x >= 1) {
+			return 1;
+		}
+		double front = Math.exp(logGamma(a + b) - logGamma(a) - logGamma(b) + a * Math.log(x) + b * Math.log(1 - x));
+		// The continued fraction converges quickly only below this point; use the
+		// symmetry I_x(a, b) = 1 - I_(1-x)(b, a) above it
+		if (x < (a + 1) / (a + b + 2)) {
+			return front * betaFraction(x, a, b) / a;
+		}
+		return 1 - front * betaFraction(1 - x, b, a) / b;
+	}
+
+	/**
+	 * Evaluates the continued fraction of the incomplete beta function with the
+	 * modified Lentz method.
+	 * 
+	 * @param x The upper limit of integration.
+	 * @param a The first shape parameter.
+	 * @param b The second shape parameter.
+	 * @return The value of the continued fraction.
+	 */
+	private static double betaFraction(double x, double a, double b) {
+		double tiny = 1e-300;
+		double c = 1;
+		double d = 1 - (a + b) * x / (a + 1);
+		d = 1 / (Math.abs(d) < tiny ? tiny : d);
+		double result = d;
+		for (int m = 1; m <= 1000; m++) {
+			int m2 = 2 * m;
+			double even = m * (b - m) * x / ((a + m2 - 1) * (a + m2));
+			d = 1 + even * d;
+			d = 1 / (Math.abs(d) < tiny ? tiny : d);
+			c = 1 + even / c;
+			c = Math.abs(c) < tiny ? tiny : c;
+			result *= d * c;
+			double odd = -(a + m) * (a + b + m) * x / ((a + m2) * (a + m2 + 1));
+			d = 1 + odd * d;
+			d = 1 / (Math.abs(d) < tiny ? tiny : d);
+			c = 1 + odd / c;
+			c = Math.abs(c) < tiny ? tiny : c;
+			double delta = d * c;
+			result *= delta;
+			if (Math.abs(delta - 1) < 1e-15) {
+				break;
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Returns the natural logarithm of the gamma function, using the Lanczos
+	 * approximation.
+	 * 
+	 * @param x The argument, greater than 0.
+	 * @return The value of {@code ln(gamma(x))}.
+	 */
+	private static double logGamma(double x) {
+		double[] coefficients = { 76.18009172947146, -86.50532032941677, 24.01409824083091, -1.231739572450155,
+				0.1208650973866179e-2, -0.5395239384953e-5 };
+		double y = x;
+		double tmp = x + 5.5;
+		tmp -= (x + 0.5) * Math.log(tmp);
+		double series = 1.000000000190015;
+		for (double coefficient : coefficients) {
+			series += coefficient / ++y;
+		}
+		return -tmp + Math.log(2.5066282746310005 * series / x);
+	}
+
+	/**
+	 * Generates a reproducible catalog of the given size.
+	 * 
+	 * @param size The number of books.
+	 * @return The books, in insertion order.
+	 */
+	private static List<Book> generate(int size) {
+		Random random = new Random(7);
+		int authorCount = Math.max(1, size / BOOKS_PER_AUTHOR);
+		List<Book> catalog = new ArrayList<>(size);
+		for (int i = 0; i < size; i++) {
+			catalog.add(new Book(i, "Title " + i, "Author " + random.nextInt(authorCount),
+					"Category " + random.nextInt(CATEGORY_COUNT), price(i)));
+		}
+		return catalog;
+	}
+
+	/**
+	 * Returns the price of the book generated at the given position. Prices stay
+	 * under 1000 so that {@link IBook#getBookByPrice(double)} can find them.
+	 * 
+	 * @param book The position of the book.
+	 * @return The price of the book.
+	 */
+	private static double price(int book) {
+		return (book * 37 % 99_900) / 100.0;
+	}
+
+	/**
+	 * Creates an implementation by class name.
+	 * 
+	 * @param impl The class name; simple names are looked up in
+	 *             {@code com.bookapp.service}.
+	 * @return A new, empty instance.
+	 * @throws ReflectiveOperationException If the class cannot be instantiated.
+	 */
+	private static IBook newInstance(String impl) throws ReflectiveOperationException {
+		String className = impl.contains(".") ? impl : "com.bookapp.service." + impl.trim();
+		return (IBook) Class.forName(className).getDeclaredConstructor().newInstance();
+	}
+
+	/**
+	 * Builds the parameter map of a run.
+	 * 
+	 * @param impl     The name of the implementation.
+	 * @param size     The size of the catalog.
+	 * @param hitRatio The hit ratio, or {@code null} if not applicable.
+	 * @return The parameters, in a stable order.
+	 */
+	private static Map<String, String> params(String impl, int size, Double hitRatio) {
+		Map<String, String> params = new LinkedHashMap<>();
+		params.put("impl", impl);
+		params.put("size", Integer.toString(size));
+		if (hitRatio != null) {
+			params.put("hitRatio", hitRatio.toString());
+		}
+		return params;
+	}
+
+	/**
+	 * Formats one result as a JMH-style JSON object.
+	 * 
+	 * @param benchmark The name of the benchmark.
+	 * @param params    The parameters of the run.
+	 * @param score     The mean throughput.
+	 * @param error     The error margin of the mean.
+	 * @param scores    The throughput of each measurement iteration.
+	 * @return The JSON object.
+	 */
+	private String toJson(String benchmark, Map<String, String> params, double score, double error,
+			double[] scores) {
+		StringBuilder json = new StringBuilder();
+		json.append("  {\n    \"benchmark\" : \"com.bookapp.bench.BookBenchmark.").append(benchmark).append("\",\n");
+		json.append("    \"mode\" : \"thrpt\",\n");
+		json.append("    \"warmupIterations\" : ").append(warmupIterations).append(",\n");
+		json.append("    \"measurementIterations\" : ").append(measurementIterations).append(",\n");
+		json.append("    \"params\" : {");
+		String separator = "";
+		for (Map.Entry<String, String> param : params.entrySet()) {
+			json.append(separator).append("\n      \"").append(param.getKey()).append("\" : \"")
+					.append(param.getValue()).append('"');
+			separator = ",";
+		}
+		json.append("\n    },\n");
+		json.append("    \"primaryMetric\" : {\n");
+		json.append("      \"score\" : ").append(number(score)).append(",\n");
+		json.append("      \"scoreError\" : ").append(Double.isNaN(error) ? "\"NaN\"" : number(error)).append(",\n");
+		json.append("      \"scoreUnit\" : \"ops/s\",\n");
+		json.append("      \"rawData\" : [\n        [");
+		for (int i = 0; i < scores.length; i++) {
+			json.append(i == 0 ? "" : ", ").append(number(scores[i]));
+		}
+		json.append("]\n      ]\n    }\n  }");
+		return json.toString();
+	}
+
+	/**
+	 * Formats a number for JSON output.
+	 * 
+	 * @param value The number.
+	 * @return The number as text.
+	 */
+	private static String number(double value) {
+		return String.format(Locale.ROOT, "%.3f", value);
+	}
+
+	/**
+	 * Writes all results as a JSON array.
+	 * 
+	 * @param out The file to write.
+	 * @throws IOException If the file cannot be written.
+	 */
+	private void write(Path out) throws IOException {
+		try (Writer writer = Files.newBufferedWriter(out, StandardCharsets.UTF_8)) {
+			writer.write("[\n");
+			writer.write(String.join(",\n", results));
+			writer.write("\n]\n");
+		}
+	}
+}
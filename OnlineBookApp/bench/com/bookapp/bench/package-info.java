@@ -0,0 +1,26 @@
+/**
+ * Contains the performance benchmarks of the Book application.
+ * 
+ * <p>
+ * This package is kept in its own source folder, {@code bench}, next to
+ * {@code src}, so that it is not part of the application itself. It includes:
+ * </p>
+ * <ul>
+ * <li>{@link com.bookapp.bench.BookBenchmark} - Measures the throughput of the
+ * {@link com.bookapp.service.IBook} hot paths across implementations, catalog
+ * sizes and hit ratios, and writes the results as JMH-style JSON.</li>
+ * </ul>
+ * 
+ * <p>
+ * Example:
+ * </p>
+ * 
+ * <pre>
+ * javac -d bin $(find src bench -name "*.java")
+ * java -Xmx8g -cp bin com.bookapp.bench.BookBenchmark --out results.json
+ * </pre>
+ * 
+ * @see com.bookapp.service.IBook
+ * @author MonigaBalasubramanian
+ */
+package com.bookapp.bench;
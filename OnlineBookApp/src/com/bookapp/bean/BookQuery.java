@@ -0,0 +1,246 @@
+package com.bookapp.bean;
+
+/**
+ * Represents a compound query over a book catalog. A query combines any number
+ * of criteria, a sort field and a limit, and is answered in one call by
+ * {@code IBook.query(BookQuery)}.
+ * 
+ * <p>
+ * Every criterion is optional; criteria that are not set match every book. A
+ * book must match all criteria that are set. Author and category are compared
+ * ignoring case, and the title prefix matches the start of the title ignoring
+ * case. Both price bounds are inclusive.
+ * </p>
+ * 
+ * <p>
+ * Example usage:
+ * </p>
+ * 
+ * <pre>
+ * BookQuery query = new BookQuery();
+ * query.setCategory("Education");
+ * query.setMaxPrice(500);
+ * query.setSortField("Price");
+ * query.setLimit(10);
+ * List&lt;Book&gt; books = bookInstance.query(query);
+ * </pre>
+ * 
+ * @author MonigaBalasubramanian
+ * @see Book
+ */
+public class BookQuery {
+
+	/**
+	 * The author to match, or {@code null} for any author.
+	 */
+	private String author;
+
+	/**
+	 * The category to match, or {@code null} for any category.
+	 */
+	private String category;
+
+	/**
+	 * The lowest price to include.
+	 */
+	private double minPrice = Double.NEGATIVE_INFINITY;
+
+	/**
+	 * The highest price to include.
+	 */
+	private double maxPrice = Double.POSITIVE_INFINITY;
+
+	/**
+	 * The start of the title to match, or {@code null} for any title.
+	 */
+	private String titlePrefix;
+
+	/**
+	 * The field by which the results are sorted.
+	 */
+	private String sortField = "Title";
+
+	/**
+	 * Whether the results are sorted in ascending order.
+	 */
+	private boolean ascending = true;
+
+	/**
+	 * The maximum number of results.
+	 */
+	private int limit = Integer.MAX_VALUE;
+
+	/**
+	 * Default constructor that creates a query matching every book, sorted by
+	 * title in ascending order and without a limit.
+	 */
+	public BookQuery() {
+		super();
+	}
+
+	/**
+	 * This method gets the author to match.
+	 * 
+	 * @return the author, or {@code null} for any author
+	 */
+	public String getAuthor() {
+		return author;
+	}
+
+	/**
+	 * This method sets the author to match.
+	 * 
+	 * @param author the author, or {@code null} for any author
+	 */
+	public void setAuthor(String author) {
+		this.author = author;
+	}
+
+	/**
+	 * This method gets the category to match.
+	 * 
+	 * @return the category, or {@code null} for any category
+	 */
+	public String getCategory() {
+		return category;
+	}
+
+	/**
+	 * This method sets the category to match.
+	 * 
+	 * @param category the category, or {@code null} for any category
+	 */
+	public void setCategory(String category) {
+		this.category = category;
+	}
+
+	/**
+	 * This method gets the lowest price to include.
+	 * 
+	 * @return the lowest price, negative infinity if there is no lower bound
+	 */
+	public double getMinPrice() {
+		return minPrice;
+	}
+
+	/**
+	 * This method sets the lowest price to include.
+	 * 
+	 * @param minPrice the lowest price, inclusive
+	 */
+	public void setMinPrice(double minPrice) {
+		this.minPrice = minPrice;
+	}
+
+	/**
+	 * This method gets the highest price to include.
+	 * 
+	 * @return the highest price, positive infinity if there is no upper bound
+	 */
+	public double getMaxPrice() {
+		return maxPrice;
+	}
+
+	/**
+	 * This method sets the highest price to include.
+	 * 
+	 * @param maxPrice the highest price, inclusive
+	 */
+	public void setMaxPrice(double maxPrice) {
+		this.maxPrice = maxPrice;
+	}
+
+	/**
+	 * This method tells whether the query restricts the price.
+	 * 
+	 * @return {@code true} if a lower or an upper price bound is set
+	 */
+	public boolean hasPriceRange() {
+		return minPrice > Double.NEGATIVE_INFINITY || maxPrice < Double.POSITIVE_INFINITY;
+	}
+
+	/**
+	 * This method gets the start of the title to match.
+	 * 
+	 * @return the title prefix, or {@code null} for any title
+	 */
+	public String getTitlePrefix() {
+		return titlePrefix;
+	}
+
+	/**
+	 * This method sets the start of the title to match.
+	 * 
+	 * @param titlePrefix the title prefix, or {@code null} for any title
+	 */
+	public void setTitlePrefix(String titlePrefix) {
+		this.titlePrefix = titlePrefix;
+	}
+
+	/**
+	 * This method gets the field by which the results are sorted.
+	 * 
+	 * @return "Title", "ID", "Author", "Category" or "Price"
+	 */
+	public String getSortField() {
+		return sortField;
+	}
+
+	/**
+	 * This method sets the field by which the results are sorted.
+	 * 
+	 * @param sortField "Title", "ID", "Author", "Category" or "Price"
+	 */
+	public void setSortField(String sortField) {
+		this.sortField = sortField;
+	}
+
+	/**
+	 * This method tells whether the results are sorted in ascending order.
+	 * 
+	 * @return {@code true} for ascending order
+	 */
+	public boolean isAscending() {
+		return ascending;
+	}
+
+	/**
+	 * This method sets whether the results are sorted in ascending order.
+	 * 
+	 * @param ascending {@code true} for ascending order
+	 */
+	public void setAscending(boolean ascending) {
+		this.ascending = ascending;
+	}
+
+	/**
+	 * This method gets the maximum number of results.
+	 * 
+	 * @return the limit
+	 */
+	public int getLimit() {
+		return limit;
+	}
+
+	/**
+	 * This method sets the maximum number of results.
+	 * 
+	 * @param limit the limit
+	 */
+	public void setLimit(int limit) {
+		this.limit = limit;
+	}
+
+	/**
+	 * This method returns a string representation of the BookQuery object. The
+	 * String includes every criterion, the sort order and the limit.
+	 * 
+	 * @return a String representation of the query
+	 */
+	@Override
+	public String toString() {
+		return "BookQuery [author=" + author + ", category=" + category + ", minPrice=" + minPrice + ", maxPrice="
+				+ maxPrice + ", titlePrefix=" + titlePrefix + ", sortField=" + sortField + ", ascending=" + ascending
+				+ ", limit=" + limit + "]";
+	}
+}
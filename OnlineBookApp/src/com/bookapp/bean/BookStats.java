@@ -0,0 +1,189 @@
+package com.bookapp.bean;
+
+/**
+ * Represents price statistics for a group of books, such as all books of one
+ * category or of one author: the number of books and the total, lowest,
+ * highest and average price.
+ * 
+ * <p>
+ * The statistics are kept up to date by adding the price of every book of the
+ * group with {@link #add(double)}, so they never need to be computed from the
+ * whole catalog again.
+ * </p>
+ * 
+ * <p>
+ * Example usage:
+ * </p>
+ * 
+ * <pre>
+ * BookStats stats = bookInstance.getCategoryStats("Education");
+ * System.out.println(stats.getCount() + " books, average " + stats.getAveragePrice());
+ * </pre>
+ * 
+ * @author MonigaBalasubramanian
+ * @see Book
+ */
+public class BookStats {
+
+	/**
+	 * The name of the group, such as a category or an author.
+	 */
+	private String name;
+
+	/**
+	 * The number of books in the group.
+	 */
+	private int count;
+
+	/**
+	 * The sum of the prices of the books in the group.
+	 */
+	private double totalPrice;
+
+	/**
+	 * The lowest price in the group.
+	 */
+	private double minPrice = Double.NaN;
+
+	/**
+	 * The highest price in the group.
+	 */
+	private double maxPrice = Double.NaN;
+
+	/**
+	 * Default constructor that creates the statistics of an empty, unnamed group.
+	 */
+	public BookStats() {
+		super();
+	}
+
+	/**
+	 * Constructs the statistics of an empty group with the given name.
+	 * 
+	 * @param name the name of the group
+	 */
+	public BookStats(String name) {
+		super();
+		this.name = name;
+	}
+
+	/**
+	 * Constructs a copy of other statistics. Adding to the copy does not change
+	 * the original.
+	 * 
+	 * @param source the statistics to copy
+	 */
+	public BookStats(BookStats source) {
+		super();
+		this.name = source.name;
+		this.count = source.count;
+		this.totalPrice = source.totalPrice;
+		this.minPrice = source.minPrice;
+		this.maxPrice = source.maxPrice;
+	}
+
+	/**
+	 * This method adds the price of one more book to the statistics.
+	 * 
+	 * @param price the price of the book
+	 */
+	public void add(double price) {
+		if (count == 0) {
+			minPrice = price;
+			maxPrice = price;
+		} else {
+			minPrice = Math.min(minPrice, price);
+			maxPrice = Math.max(maxPrice, price);
+		}
+		totalPrice += price;
+		count++;
+	}
+
+	/**
+	 * This method adds the statistics of another part of the same group, such as
+	 * the books of the group held by another shard.
+	 * 
+	 * @param other the statistics to add
+	 */
+	public void merge(BookStats other) {
+		if (other.count == 0) {
+			return;
+		}
+		if (count == 0) {
+			minPrice = other.minPrice;
+			maxPrice = other.maxPrice;
+		} else {
+			minPrice = Math.min(minPrice, other.minPrice);
+			maxPrice = Math.max(maxPrice, other.maxPrice);
+		}
+		totalPrice += other.totalPrice;
+		count += other.count;
+	}
+
+	/**
+	 * This method gets the name of the group.
+	 * 
+	 * @return the group name
+	 */
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * This method gets the number of books in the group.
+	 * 
+	 * @return the number of books
+	 */
+	public int getCount() {
+		return count;
+	}
+
+	/**
+	 * This method gets the sum of the prices of the books in the group.
+	 * 
+	 * @return the total price
+	 */
+	public double getTotalPrice() {
+		return totalPrice;
+	}
+
+	/**
+	 * This method gets the lowest price in the group.
+	 * 
+	 * @return the lowest price, or {@code NaN} if the group is empty
+	 */
+	public double getMinPrice() {
+		return minPrice;
+	}
+
+	/**
+	 * This method gets the highest price in the group.
+	 * 
+	 * @return the highest price, or {@code NaN} if the group is empty
+	 */
+	public double getMaxPrice() {
+		return maxPrice;
+	}
+
+	/**
+	 * This method gets the average price of the books in the group.
+	 * 
+	 * @return the average price, or {@code NaN} if the group is empty
+	 */
+	public double getAveragePrice() {
+		return count == 0 ? Double.NaN : totalPrice / count;
+	}
+
+	/**
+	 * This method returns a string representation of the BookStats object. The
+	 * String includes the group name, the number of books and the lowest,
+	 * average and highest price.
+	 * 
+	 * @return a String representation of the statistics
+	 */
+	@Override
+	public String toString() {
+		return "BookStats [name=" + name + ", count=" + count + ", minPrice=" + minPrice + ", averagePrice="
+				+ getAveragePrice() + ", maxPrice=" + maxPrice + "]";
+	}
+}
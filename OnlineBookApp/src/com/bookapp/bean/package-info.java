@@ -8,6 +8,11 @@
  * <ul>
  * <li>{@link com.bookapp.bean.Book} - A POJO class representing a book with
  * attributes such as ID, title, author, category, and price.</li>
+ * <li>{@link com.bookapp.bean.BookQuery} - A criteria object for compound
+ * queries, combining author, category, price range, title prefix, sort field
+ * and limit.</li>
+ * <li>{@link com.bookapp.bean.BookStats} - Running price statistics (count,
+ * lowest, average and highest price) of a category or an author.</li>
  * </ul>
  * 
  * <p>
@@ -25,6 +30,8 @@
  * </pre>
  * 
  * @see com.bookapp.bean.Book
+ * @see com.bookapp.bean.BookQuery
+ * @see com.bookapp.bean.BookStats
  * @author MonigaBalasubramanian
  */
 package com.bookapp.bean;
@@ -6,11 +6,13 @@ package com.bookapp.exceptions;
  * specific error handling for scenarios where an author cannot be located.
  * 
  * <p>
- * This class includes two constructors:
+ * This class includes three constructors:
  * </p>
  * <ul>
  * <li>A default constructor with no arguments</li>
  * <li>A constructor that accepts a message string to describe the error</li>
+ * <li>A constructor that also allows the stack trace to be left out, for cheap
+ * signalling of frequent misses</li>
  * </ul>
  * 
  * <p>
@@ -52,4 +54,20 @@ public class AuthorNotFoundException extends Exception {
 	public AuthorNotFoundException(String message) {
 		super(message);
 	}
+
+	/**
+	 * Constructs a new {@code AuthorNotFoundException} with the specified detail
+	 * message, optionally without a stack trace. Filling in the stack trace is
+	 * the most expensive part of creating an exception, so services that report
+	 * frequent misses through this exception can skip it. Suppressed exceptions
+	 * are disabled when the stack trace is not writable.
+	 * 
+	 * @param message            the detail message, which is saved for later
+	 *                           retrieval by the {@link #getMessage()} method
+	 * @param writableStackTrace {@code false} to create the exception without a
+	 *                           stack trace
+	 */
+	public AuthorNotFoundException(String message, boolean writableStackTrace) {
+		super(message, null, writableStackTrace, writableStackTrace);
+	}
 }
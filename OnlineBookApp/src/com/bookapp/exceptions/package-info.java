@@ -33,6 +33,8 @@
  * message.</li>
  * <li>A parameterized constructor that allows for specifying a detail message
  * to describe the error.</li>
+ * <li>A constructor that also allows the stack trace to be left out, so that
+ * frequent misses in the service layer are cheap to report.</li>
  * </ul>
  * 
  * @see java.lang.Exception
@@ -0,0 +1,668 @@
+package com.bookapp.server;
+
+import java.io.BufferedWriter;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.lang.reflect.Method;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import com.bookapp.bean.Book;
+import com.bookapp.bean.BookQuery;
+import com.bookapp.bean.BookStats;
+import com.bookapp.exceptions.AuthorNotFoundException;
+import com.bookapp.exceptions.CategoryNotFoundException;
+import com.bookapp.exceptions.IdNotFoundException;
+import com.bookapp.exceptions.PriceNotAvailableException;
+import com.bookapp.exceptions.TitleNotFoundException;
+import com.bookapp.service.IBook;
+import com.bookapp.service.StripedBookImpl;
+import com.bookapp.util.BookFileLoader;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * {@code BookServer} serves an {@link IBook} catalog over HTTP, with JSON
+ * responses. It is built on the HTTP server of the JDK and handles every
+ * request on its own virtual thread, so any number of clients can use the
+ * catalog at once. On a JDK without virtual threads (before 21), requests run
+ * on a cached pool of platform threads instead. The catalog must therefore be thread-safe, such as a
+ * {@link StripedBookImpl} or a {@link com.bookapp.service.ConcurrentBookImpl}.
+ * 
+ * <p>
+ * The following requests are served. Parameters in braces are path segments,
+ * the others are query parameters. Lists of books are JSON arrays of book
+ * objects, and statistics are objects with the fields of
+ * {@link com.bookapp.bean.BookStats}.
+ * </p>
+ * 
+ * <ul>
+ * <li>{@code POST /books} - adds the book object or array of book objects in
+ * the request body.</li>
+ * <li>{@code GET /books} - lists all books, sorted by title.</li>
+ * <li>{@code GET /books?id=|title=|author=|category=|price=} - finds the books
+ * with the given value; the list is empty if there are none.</li>
+ * <li>{@code GET /books?sort=&order=asc|desc&offset=&limit=} - sorts the books
+ * by a field, by title if none is given, optionally returning one page.</li>
+ * <li>{@code GET /books/id|title|author|category|price/{value}} - gets the
+ * books with the given value; responds 404 if there are none.</li>
+ * <li>{@code GET /books/price-range?min=&max=} - books within a price
+ * range.</li>
+ * <li>{@code GET /books/cheapest?category=&limit=} - the cheapest books of a
+ * category.</li>
+ * <li>{@code GET /books/most-expensive?limit=} - the most expensive
+ * books.</li>
+ * <li>{@code GET /books/query?author=&category=&minPrice=&maxPrice=&titlePrefix=&sort=&order=&limit=}
+ * - a compound query.</li>
+ * <li>{@code GET /books/search?q=&limit=} - full-text search.</li>
+ * <li>{@code GET /books/autocomplete?prefix=&limit=} - suggestions for a
+ * partially typed query.</li>
+ * <li>{@code GET /stats/categories} and {@code GET /stats/categories/{name}}
+ * - price statistics of every category or of one.</li>
+ * <li>{@code GET /stats/authors} and {@code GET /stats/authors/{name}} - price
+ * statistics of every author or of one.</li>
+ * </ul>
+ * 
+ * <p>
+ * Errors are sent as an object with an {@code error} field: 400 for missing or
+ * invalid parameters, 404 for unknown paths and for lookups that find nothing,
+ * 405 for unsupported methods, and 413 for request bodies larger than
+ * {@value #MAX_BODY_SIZE} bytes.
+ * </p>
+ * 
+ * <p>
+ * Small responses are built in memory and sent with their length. Lists of
+ * more than a few hundred books are streamed with {@link JsonWriter} as they
+ * are written, so listing a large catalog does not build the whole response
+ * in memory. Unless the {@code sun.net.httpserver.nodelay} system property is
+ * already set, the server sets it to {@code true} so that small responses are
+ * not held back by Nagle's algorithm.
+ * </p>
+ * 
+ * @author MonigaBalasubramanian
+ * @see IBook
+ */
+public class BookServer {
+
+	// Port used by main when none is given
+	private static final int DEFAULT_PORT = 8080;
+
+	// Number of pending connections the operating system may queue
+	private static final int BACKLOG = 1024;
+
+	// Lists with more books than this are streamed
+	private static final int STREAM_THRESHOLD = 256;
+
+	// Number of books returned by the limited operations when no limit is given
+	private static final int DEFAULT_LIMIT = 10;
+
+	// Largest request body accepted by POST /books, in bytes
+	private static final int MAX_BODY_SIZE = 8 * 1024 * 1024;
+
+	// System property that turns off Nagle's algorithm in the JDK HTTP server
+	private static final String NO_DELAY_PROPERTY = "sun.net.httpserver.nodelay";
+
+	// Content type of every response
+	private static final String JSON = "application/json; charset=utf-8";
+
+	// The catalog being served
+	private final IBook books;
+
+	// The HTTP server
+	private final HttpServer server;
+
+	// Runs each request on a new virtual thread, or on a pooled platform thread
+	// where virtual threads are not available
+	private final ExecutorService executor;
+
+	/**
+	 * Writes the body of a response.
+	 */
+	@FunctionalInterface
+	private interface Body {
+
+		/**
+		 * Writes the body.
+		 * 
+		 * @param json The writer to write the body to.
+		 * @throws IOException If the body cannot be written.
+		 */
+		void write(JsonWriter json) throws IOException;
+	}
+
+	/**
+	 * Creates a server for the given catalog. The server does not accept
+	 * requests until it is started.
+	 * 
+	 * @param books   The catalog to serve. Must be thread-safe.
+	 * @param address The address and port to listen on.
+	 * @throws IOException If the address cannot be bound.
+	 */
+	public BookServer(IBook books, InetSocketAddress address) throws IOException {
+		super();
+		// Without this, a response sent as headers and body in two packets waits
+		// for a delayed acknowledgement, which limits each connection to about 25
+		// requests per second. The JDK reads it when the first server is created.
+		if (System.getProperty(NO_DELAY_PROPERTY) == null) {
+			System.setProperty(NO_DELAY_PROPERTY, "true");
+		}
+		this.books = books;
+		this.server = HttpServer.create(address, BACKLOG);
+		this.executor = newRequestExecutor();
+		server.setExecutor(executor);
+		server.createContext("/books", this::handleBooks);
+		server.createContext("/stats", this::handleStats);
+	}
+
+	/**
+	 * Creates the executor that runs the requests: one virtual thread per request
+	 * on JDK 21 and later, a cached pool of platform threads otherwise. The
+	 * virtual thread factory is looked up by reflection, so the server also
+	 * compiles and runs on JDK 17.
+	 * 
+	 * @return The executor.
+	 */
+	private static ExecutorService newRequestExecutor() {
+		try {
+			Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+			return (ExecutorService) factory.invoke(null);
+		} catch (ReflectiveOperationException e) {
+			// Missing before JDK 21, or a disabled preview feature on JDK 19 and 20
+			return Executors.newCachedThreadPool();
+		}
+	}
+
+	/**
+	 * Starts accepting requests.
+	 */
+	public void start() {
+		server.start();
+	}
+
+	/**
+	 * Stops the server. Requests that are being handled may finish, up to the
+	 * given delay.
+	 * 
+	 * @param delaySeconds The longest time to wait for running requests, in
+	 *                     seconds.
+	 */
+	public void stop(int delaySeconds) {
+		server.stop(delaySeconds);
+		executor.shutdown();
+	}
+
+	/**
+	 * Returns the address the server listens on. If the server was created with
+	 * port 0, this gives the port that was chosen.
+	 * 
+	 * @return The address of the server.
+	 */
+	public InetSocketAddress getAddress() {
+		return server.getAddress();
+	}
+
+	/**
+	 * Starts a server for a new {@link StripedBookImpl} catalog.
+	 * 
+	 * @param args The port to listen on, 8080 if not given, and optionally a CSV
+	 *             file with a header line whose books are loaded first.
+	 * @throws IOException If the port cannot be bound or the file cannot be
+	 *                     loaded.
+	 */
+	public static void main(String[] args) throws IOException {
+		int port = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+		IBook books = new StripedBookImpl();
+		if (args.length > 1) {
+			long count = new BookFileLoader(',', true).load(Paths.get(args[1]), books);
+			System.out.println("Loaded " + count + " books from " + args[1]);
+		}
+		BookServer bookServer = new BookServer(books, new InetSocketAddress(port));
+		bookServer.start();
+		System.out.println("Serving books on http://localhost:" + bookServer.getAddress().getPort() + "/books");
+	}
+
+	/**
+	 * Handles the requests under {@code /books}.
+	 * 
+	 * @param exchange The request and its response.
+	 * @throws IOException If the response cannot be sent.
+	 */
+	private void handleBooks(HttpExchange exchange) throws IOException {
+		try {
+			List<String> path = path(exchange);
+			Map<String, String> params = params(exchange);
+			String method = exchange.getRequestMethod();
+
+			if (path.isEmpty() && "POST".equals(method)) {
+				addBooks(exchange);
+			} else if (!"GET".equals(method)) {
+				sendError(exchange, 405, "Method not allowed: " + method);
+			} else if (path.isEmpty()) {
+				sendBooks(exchange, listBooks(params));
+			} else if (path.size() == 2) {
+				sendBooks(exchange, getBooksBy(path.get(0), path.get(1)));
+			} else if (path.size() == 1) {
+				sendBooks(exchange, getBooks(path.get(0), params));
+			} else {
+				sendError(exchange, 404, "Unknown resource: " + exchange.getRequestURI().getPath());
+			}
+		} catch (IdNotFoundException | TitleNotFoundException | AuthorNotFoundException | CategoryNotFoundException
+				| PriceNotAvailableException e) {
+			sendError(exchange, 404, e.getMessage());
+		} catch (IllegalArgumentException e) {
+			sendError(exchange, 400, e.getMessage());
+		} catch (RuntimeException e) {
+			sendServerError(exchange, e);
+		} finally {
+			exchange.close();
+		}
+	}
+
+	/**
+	 * Handles the requests under {@code /stats}.
+	 * 
+	 * @param exchange The request and its response.
+	 * @throws IOException If the response cannot be sent.
+	 */
+	private void handleStats(HttpExchange exchange) throws IOException {
+		try {
+			List<String> path = path(exchange);
+			String method = exchange.getRequestMethod();
+
+			if (!"GET".equals(method)) {
+				sendError(exchange, 405, "Method not allowed: " + method);
+			} else if (path.equals(List.of("categories"))) {
+				send(exchange, 200, json -> json.statsList(books.getAllCategoryStats()));
+			} else if (path.equals(List.of("authors"))) {
+				send(exchange, 200, json -> json.statsList(books.getAllAuthorStats()));
+			} else if (path.size() == 2 && path.get(0).equals("categories")) {
+				BookStats stats = books.getCategoryStats(path.get(1));
+				send(exchange, 200, json -> json.stats(stats));
+			} else if (path.size() == 2 && path.get(0).equals("authors")) {
+				BookStats stats = books.getAuthorStats(path.get(1));
+				send(exchange, 200, json -> json.stats(stats));
+			} else {
+				sendError(exchange, 404, "Unknown resource: " + exchange.getRequestURI().getPath());
+			}
+		} catch (CategoryNotFoundException | AuthorNotFoundException e) {
+			sendError(exchange, 404, e.getMessage());
+		} catch (IllegalArgumentException e) {
+			sendError(exchange, 400, e.getMessage());
+		} catch (RuntimeException e) {
+			sendServerError(exchange, e);
+		} finally {
+			exchange.close();
+		}
+	}
+
+	/**
+	 * Adds the books in the body of a request. Bodies larger than
+	 * {@value #MAX_BODY_SIZE} bytes are rejected with 413, by their declared
+	 * length if there is one and otherwise while they are read.
+	 * 
+	 * @param exchange The request and its response.
+	 * @throws IOException If the body cannot be read or the response cannot be
+	 *                     sent.
+	 */
+	private void addBooks(HttpExchange exchange) throws IOException {
+		String length = exchange.getRequestHeaders().getFirst("Content-Length");
+		if (length != null && Long.parseLong(length.trim()) > MAX_BODY_SIZE) {
+			sendError(exchange, 413, "Request body larger than " + MAX_BODY_SIZE + " bytes");
+			return;
+		}
+		byte[] bytes = exchange.getRequestBody().readNBytes(MAX_BODY_SIZE + 1);
+		if (bytes.length > MAX_BODY_SIZE) {
+			sendError(exchange, 413, "Request body larger than " + MAX_BODY_SIZE + " bytes");
+			return;
+		}
+		String body = new String(bytes, StandardCharsets.UTF_8);
+		List<Book> added = new JsonReader(body).readBooks();
+		if (added.size() == 1) {
+			books.addBook(added.get(0));
+		} else {
+			books.addBooks(added);
+		}
+		send(exchange, 201, json -> json.beginObject().name("added").value(added.size()).endObject());
+	}
+
+	/**
+	 * Lists, finds or sorts books for {@code GET /books}.
+	 * 
+	 * @param params The query parameters.
+	 * @return The books to send.
+	 */
+	private List<Book> listBooks(Map<String, String> params) {
+		boolean paged = params.containsKey("order") || params.containsKey("offset") || params.containsKey("limit");
+		if (params.containsKey("sort") && !paged) {
+			return books.sortByAnyField(params.get("sort"));
+		}
+		if (paged) {
+			// Without a limit the page runs to the end, and offset + limit must still
+			// fit in an int for the implementations that add them
+			int offset = intParam(params, "offset", 0);
+			int limit = intParam(params, "limit", Integer.MAX_VALUE - Math.max(0, offset));
+			return books.sortByAnyField(params.getOrDefault("sort", "Title"), isAscending(params), offset, limit);
+		}
+		if (params.containsKey("id")) {
+			return books.findBooksById(intParam(params, "id", 0));
+		}
+		if (params.containsKey("title")) {
+			return books.findBooksByTitle(params.get("title"));
+		}
+		if (params.containsKey("author")) {
+			return books.findBooksByAuthor(params.get("author"));
+		}
+		if (params.containsKey("category")) {
+			return books.findBooksByCategory(params.get("category"));
+		}
+		if (params.containsKey("price")) {
+			return books.findBooksByPrice(doubleParam(params, "price"));
+		}
+		return books.getAllBooks();
+	}
+
+	/**
+	 * Gets the books with one value of a field for
+	 * {@code GET /books/{field}/{value}}.
+	 * 
+	 * @param field The field: id, title, author, category or price.
+	 * @param value The value to look for.
+	 * @return The books to send.
+	 * @throws IdNotFoundException        If no books are found with the given ID.
+	 * @throws TitleNotFoundException     If no books are found with the given
+	 *                                    title.
+	 * @throws AuthorNotFoundException    If no books are found with the given
+	 *                                    author.
+	 * @throws CategoryNotFoundException  If no books are found with the given
+	 *                                    category.
+	 * @throws PriceNotAvailableException If no books are found with the given
+	 *                                    price.
+	 */
+	private List<Book> getBooksBy(String field, String value) throws IdNotFoundException, TitleNotFoundException,
+			AuthorNotFoundException, CategoryNotFoundException, PriceNotAvailableException {
+		switch (field) {
+		case "id":
+			return books.getBookById(parseInt("id", value));
+		case "title":
+			return books.getBookByTitle(value);
+		case "author":
+			return books.getBookByAuthor(value);
+		case "category":
+			return books.getBookByCategory(value);
+		case "price":
+			return books.getBookByPrice(parseDouble("price", value));
+		default:
+			throw new IllegalArgumentException("Invalid field: " + field);
+		}
+	}
+
+	/**
+	 * Answers the operations of {@code GET /books/{operation}}.
+	 * 
+	 * @param operation The operation.
+	 * @param params    The query parameters.
+	 * @return The books to send.
+	 * @throws CategoryNotFoundException  If no books are found in the category
+	 *                                    of {@code cheapest}.
+	 * @throws PriceNotAvailableException If no books are found in the price range
+	 *                                    of {@code price-range}.
+	 */
+	private List<Book> getBooks(String operation, Map<String, String> params)
+			throws CategoryNotFoundException, PriceNotAvailableException {
+		switch (operation) {
+		case "price-range":
+			return books.getBooksByPriceRange(doubleParam(params, "min"), doubleParam(params, "max"));
+		case "cheapest":
+			return books.getCheapestBooksByCategory(required(params, "category"),
+					intParam(params, "limit", DEFAULT_LIMIT));
+		case "most-expensive":
+			return books.getMostExpensiveBooks(intParam(params, "limit", DEFAULT_LIMIT));
+		case "query":
+			return books.query(toQuery(params));
+		case "search":
+			return books.searchBooks(required(params, "q"), intParam(params, "limit", DEFAULT_LIMIT));
+		case "autocomplete":
+			return books.autocomplete(required(params, "prefix"), intParam(params, "limit", DEFAULT_LIMIT));
+		default:
+			throw new IllegalArgumentException("Unknown operation: " + operation);
+		}
+	}
+
+	/**
+	 * Builds a compound query from the query parameters.
+	 * 
+	 * @param params The query parameters.
+	 * @return The query.
+	 */
+	private static BookQuery toQuery(Map<String, String> params) {
+		BookQuery query = new BookQuery();
+		query.setAuthor(params.get("author"));
+		query.setCategory(params.get("category"));
+		query.setTitlePrefix(params.get("titlePrefix"));
+		if (params.containsKey("minPrice")) {
+			query.setMinPrice(doubleParam(params, "minPrice"));
+		}
+		if (params.containsKey("maxPrice")) {
+			query.setMaxPrice(doubleParam(params, "maxPrice"));
+		}
+		if (params.containsKey("sort")) {
+			query.setSortField(params.get("sort"));
+		}
+		query.setAscending(isAscending(params));
+		query.setLimit(intParam(params, "limit", Integer.MAX_VALUE));
+		return query;
+	}
+
+	/**
+	 * Sends a list of books, streaming it if it is large.
+	 * 
+	 * @param exchange The request and its response.
+	 * @param list     The books.
+	 * @throws IOException If the response cannot be sent.
+	 */
+	private static void sendBooks(HttpExchange exchange, List<Book> list) throws IOException {
+		if (list.size() <= STREAM_THRESHOLD) {
+			send(exchange, 200, json -> json.books(list));
+			return;
+		}
+		exchange.getResponseHeaders().set("Content-Type", JSON);
+		// A length of 0 selects chunked encoding, so the list is sent as it is written
+		exchange.sendResponseHeaders(200, 0);
+		try (JsonWriter json = new JsonWriter(new BufferedWriter(
+				new OutputStreamWriter(exchange.getResponseBody(), StandardCharsets.UTF_8), 1 << 16))) {
+			json.books(list);
+		}
+	}
+
+	/**
+	 * Sends a response whose body is built in memory first, so that its length
+	 * is known.
+	 * 
+	 * @param exchange The request and its response.
+	 * @param status   The status code.
+	 * @param body     Writes the body.
+	 * @throws IOException If the response cannot be sent.
+	 */
+	private static void send(HttpExchange exchange, int status, Body body) throws IOException {
+		ByteArrayOutputStream buffer = new ByteArrayOutputStream(512);
+		try (JsonWriter json = new JsonWriter(new OutputStreamWriter(buffer, StandardCharsets.UTF_8))) {
+			body.write(json);
+		}
+		exchange.getResponseHeaders().set("Content-Type", JSON);
+		exchange.sendResponseHeaders(status, buffer.size());
+		try (OutputStream out = exchange.getResponseBody()) {
+			buffer.writeTo(out);
+		}
+	}
+
+	/**
+	 * Sends an error response, unless a response has already been started.
+	 * 
+	 * @param exchange The request and its response.
+	 * @param status   The status code.
+	 * @param message  The error message.
+	 * @throws IOException If the response cannot be sent.
+	 */
+	private static void sendError(HttpExchange exchange, int status, String message) throws IOException {
+		if (exchange.getResponseCode() != -1) {
+			return;
+		}
+		send(exchange, status, json -> json.beginObject().name("error").value(message).endObject());
+	}
+
+	/**
+	 * Sends a generic error response for an unexpected failure. The failure is
+	 * printed on the server only, as its message and type can reveal internals of
+	 * the catalog to clients.
+	 * 
+	 * @param exchange The request and its response.
+	 * @param e        The failure.
+	 * @throws IOException If the response cannot be sent.
+	 */
+	private static void sendServerError(HttpExchange exchange, RuntimeException e) throws IOException {
+		System.err.println("Failed to handle " + exchange.getRequestMethod() + " " + exchange.getRequestURI());
+		e.printStackTrace();
+		sendError(exchange, 500, "Internal server error");
+	}
+
+	/**
+	 * Returns the decoded path segments of a request that follow its context,
+	 * such as {@code ["author", "James"]} for {@code /books/author/James}.
+	 * 
+	 * @param exchange The request.
+	 * @return The path segments, empty for the context itself.
+	 */
+	private static List<String> path(HttpExchange exchange) {
+		String rawPath = exchange.getRequestURI().getRawPath();
+		String rest = rawPath.substring(exchange.getHttpContext().getPath().length());
+		List<String> segments = new ArrayList<>();
+		for (String segment : rest.split("/")) {
+			if (!segment.isEmpty()) {
+				// A plus sign in a path is not a space, unlike in a query
+				segments.add(URLDecoder.decode(segment.replace("+", "%2B"), StandardCharsets.UTF_8));
+			}
+		}
+		return segments;
+	}
+
+	/**
+	 * Returns the decoded query parameters of a request. If a parameter is given
+	 * more than once, the last value is used.
+	 * 
+	 * @param exchange The request.
+	 * @return The parameters by name.
+	 */
+	private static Map<String, String> params(HttpExchange exchange) {
+		Map<String, String> params = new HashMap<>();
+		String query = exchange.getRequestURI().getRawQuery();
+		if (query == null) {
+			return params;
+		}
+		for (String pair : query.split("&")) {
+			if (pair.isEmpty()) {
+				continue;
+			}
+			int equals = pair.indexOf('=');
+			String name = equals < 0 ? pair : pair.substring(0, equals);
+			String value = equals < 0 ? "" : pair.substring(equals + 1);
+			params.put(URLDecoder.decode(name, StandardCharsets.UTF_8),
+					URLDecoder.decode(value, StandardCharsets.UTF_8));
+		}
+		return params;
+	}
+
+	/**
+	 * Returns a parameter that must be given.
+	 * 
+	 * @param params The query parameters.
+	 * @param name   The name of the parameter.
+	 * @return The value.
+	 * @throws IllegalArgumentException If the parameter is missing.
+	 */
+	private static String required(Map<String, String> params, String name) {
+		String value = params.get(name);
+		if (value == null) {
+			throw new IllegalArgumentException("Missing parameter: " + name);
+		}
+		return value;
+	}
+
+	/**
+	 * Returns a whole-number parameter.
+	 * 
+	 * @param params       The query parameters.
+	 * @param name         The name of the parameter.
+	 * @param defaultValue The value to use if the parameter is missing.
+	 * @return The value.
+	 * @throws IllegalArgumentException If the parameter is not a number.
+	 */
+	private static int intParam(Map<String, String> params, String name, int defaultValue) {
+		String value = params.get(name);
+		return value == null ? defaultValue : parseInt(name, value);
+	}
+
+	/**
+	 * Returns a number parameter that must be given.
+	 * 
+	 * @param params The query parameters.
+	 * @param name   The name of the parameter.
+	 * @return The value.
+	 * @throws IllegalArgumentException If the parameter is missing or not a
+	 *                                  number.
+	 */
+	private static double doubleParam(Map<String, String> params, String name) {
+		return parseDouble(name, required(params, name));
+	}
+
+	/**
+	 * Returns whether the {@code order} parameter asks for ascending order, the
+	 * default.
+	 * 
+	 * @param params The query parameters.
+	 * @return {@code false} if the order is {@code desc}, {@code true} otherwise.
+	 */
+	private static boolean isAscending(Map<String, String> params) {
+		return !"desc".equalsIgnoreCase(params.get("order"));
+	}
+
+	/**
+	 * Parses a whole number.
+	 * 
+	 * @param name  The name of the value, for the error message.
+	 * @param value The text to parse.
+	 * @return The number.
+	 * @throws IllegalArgumentException If the text is not a whole number.
+	 */
+	private static int parseInt(String name, String value) {
+		try {
+			return Integer.parseInt(value);
+		} catch (NumberFormatException e) {
+			throw new IllegalArgumentException("Invalid " + name + ": " + value);
+		}
+	}
+
+	/**
+	 * Parses a number.
+	 * 
+	 * @param name  The name of the value, for the error message.
+	 * @param value The text to parse.
+	 * @return The number.
+	 * @throws IllegalArgumentException If the text is not a number.
+	 */
+	private static double parseDouble(String name, String value) {
+		try {
+			return Double.parseDouble(value);
+		} catch (NumberFormatException e) {
+			throw new IllegalArgumentException("Invalid " + name + ": " + value);
+		}
+	}
+}
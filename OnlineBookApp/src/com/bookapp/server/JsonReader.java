@@ -0,0 +1,344 @@
+package com.bookapp.server;
+
+import java.util.ArrayList;
+import java.util.List;
+import com.bookapp.bean.Book;
+
+/**
+ * {@code JsonReader} reads the books sent to {@link BookServer} for adding.
+ * The text is either a single book object or an array of book objects, with
+ * the same field names that {@link JsonWriter} uses:
+ * 
+ * <pre>
+ * {"bookId": 1, "title": "Java", "author": "James", "category": "Education", "price": 450}
+ * </pre>
+ * 
+ * <p>
+ * Missing fields keep the defaults of {@link Book}, and unknown fields are
+ * ignored. Malformed text is reported with an
+ * {@link IllegalArgumentException} that gives the position of the error.
+ * 
+ * @author MonigaBalasubramanian
+ * @see JsonWriter
+ */
+class JsonReader {
+
+	// Deepest nesting of objects and arrays accepted in the value of an unknown
+	// field, so that skipping it cannot overflow the stack
+	private static final int MAX_DEPTH = 64;
+
+	// The text being read
+	private final String text;
+
+	// Position of the next character to read
+	private int position;
+
+	/**
+	 * Creates a reader for the given text.
+	 * 
+	 * @param text The JSON text.
+	 */
+	JsonReader(String text) {
+		super();
+		this.text = text;
+	}
+
+	/**
+	 * Reads the books of the text.
+	 * 
+	 * @return The books, in the order in which they appear.
+	 * @throws IllegalArgumentException If the text is not a book or an array of
+	 *                                  books.
+	 */
+	List<Book> readBooks() {
+		List<Book> books = new ArrayList<>();
+		skipWhitespace();
+		if (peek() == '[') {
+			position++;
+			skipWhitespace();
+			if (peek() == ']') {
+				position++;
+			} else {
+				do {
+					books.add(readBook());
+				} while (separator(']'));
+			}
+		} else {
+			books.add(readBook());
+		}
+		skipWhitespace();
+		if (position < text.length()) {
+			throw error("Unexpected text after the books");
+		}
+		return books;
+	}
+
+	/**
+	 * Reads one book object.
+	 * 
+	 * @return The book.
+	 */
+	private Book readBook() {
+		skipWhitespace();
+		expect('{');
+		Book book = new Book();
+		skipWhitespace();
+		if (peek() == '}') {
+			position++;
+			return book;
+		}
+		do {
+			skipWhitespace();
+			String name = readString();
+			skipWhitespace();
+			expect(':');
+			skipWhitespace();
+			switch (name) {
+			case "bookId":
+				book.setBookId(readInt());
+				break;
+			case "title":
+				book.setTitle(readNullableString());
+				break;
+			case "author":
+				book.setAuthor(readNullableString());
+				break;
+			case "category":
+				book.setCategory(readNullableString());
+				break;
+			case "price":
+				book.setPrice(readNumber());
+				break;
+			default:
+				skipValue(1);
+			}
+		} while (separator('}'));
+		return book;
+	}
+
+	/**
+	 * Reads the comma between two values, or the bracket that ends them.
+	 * 
+	 * @param end The closing bracket.
+	 * @return {@code true} if another value follows, {@code false} at the end.
+	 */
+	private boolean separator(char end) {
+		skipWhitespace();
+		char c = peek();
+		position++;
+		if (c == ',') {
+			return true;
+		}
+		if (c == end) {
+			return false;
+		}
+		position--;
+		throw error("Expected ',' or '" + end + "'");
+	}
+
+	/**
+	 * Reads a string or {@code null}.
+	 * 
+	 * @return The string, or {@code null}.
+	 */
+	private String readNullableString() {
+		if (text.startsWith("null", position)) {
+			position += 4;
+			return null;
+		}
+		return readString();
+	}
+
+	/**
+	 * Reads a quoted string and resolves its escapes.
+	 * 
+	 * @return The string.
+	 */
+	private String readString() {
+		expect('"');
+		StringBuilder value = new StringBuilder();
+		while (true) {
+			char c = next();
+			if (c == '"') {
+				return value.toString();
+			}
+			if (c != '\\') {
+				value.append(c);
+				continue;
+			}
+			char escape = next();
+			switch (escape) {
+			case '"':
+			case '\\':
+			case '/':
+				value.append(escape);
+				break;
+			case 'b':
+				value.append('\b');
+				break;
+			case 'f':
+				value.append('\f');
+				break;
+			case 'n':
+				value.append('\n');
+				break;
+			case 'r':
+				value.append('\r');
+				break;
+			case 't':
+				value.append('\t');
+				break;
+			case 'u':
+				if (position + 4 > text.length()) {
+					throw error("Incomplete escape");
+				}
+				try {
+					value.append((char) Integer.parseInt(text.substring(position, position + 4), 16));
+				} catch (NumberFormatException e) {
+					throw error("Invalid escape");
+				}
+				position += 4;
+				break;
+			default:
+				throw error("Invalid escape");
+			}
+		}
+	}
+
+	/**
+	 * Reads a number.
+	 * 
+	 * @return The number.
+	 */
+	private double readNumber() {
+		int start = position;
+		while (position < text.length() && "+-0123456789.eE".indexOf(text.charAt(position)) >= 0) {
+			position++;
+		}
+		try {
+			return Double.parseDouble(text.substring(start, position));
+		} catch (NumberFormatException e) {
+			position = start;
+			throw error("Expected a number");
+		}
+	}
+
+	/**
+	 * Reads a number that must be a whole number within the range of an
+	 * {@code int}, such as a book ID.
+	 * 
+	 * @return The number.
+	 */
+	private int readInt() {
+		int start = position;
+		double number = readNumber();
+		if (number != Math.rint(number)) {
+			position = start;
+			throw error("Expected a whole number");
+		}
+		if (number < Integer.MIN_VALUE || number > Integer.MAX_VALUE) {
+			position = start;
+			throw error("Number out of range");
+		}
+		return (int) number;
+	}
+
+	/**
+	 * Skips a value of a field that is not a book field.
+	 * 
+	 * @param depth The number of objects and arrays the value is nested in,
+	 *              counted from the field of the book.
+	 * @throws IllegalArgumentException If the value is malformed or nested more
+	 *                                  than {@value #MAX_DEPTH} levels deep.
+	 */
+	private void skipValue(int depth) {
+		char c = peek();
+		if (c == '"') {
+			readString();
+		} else if (c == '{' || c == '[') {
+			if (depth > MAX_DEPTH) {
+				throw error("Value nested too deeply");
+			}
+			char end = c == '{' ? '}' : ']';
+			position++;
+			skipWhitespace();
+			if (peek() == end) {
+				position++;
+				return;
+			}
+			do {
+				skipWhitespace();
+				if (end == '}') {
+					readString();
+					skipWhitespace();
+					expect(':');
+					skipWhitespace();
+				}
+				skipValue(depth + 1);
+			} while (separator(end));
+		} else {
+			// A number, true, false or null
+			int start = position;
+			while (position < text.length() && "{}[],: \t\r\n\"".indexOf(text.charAt(position)) < 0) {
+				position++;
+			}
+			if (position == start) {
+				throw error("Expected a value");
+			}
+		}
+	}
+
+	/**
+	 * Skips spaces, tabs and line breaks.
+	 */
+	private void skipWhitespace() {
+		while (position < text.length() && " \t\r\n".indexOf(text.charAt(position)) >= 0) {
+			position++;
+		}
+	}
+
+	/**
+	 * Reads one character that must be the given one.
+	 * 
+	 * @param expected The expected character.
+	 */
+	private void expect(char expected) {
+		if (peek() != expected) {
+			throw error("Expected '" + expected + "'");
+		}
+		position++;
+	}
+
+	/**
+	 * Returns the next character without reading it.
+	 * 
+	 * @return The next character.
+	 */
+	private char peek() {
+		if (position >= text.length()) {
+			throw error("Unexpected end of text");
+		}
+		return text.charAt(position);
+	}
+
+	/**
+	 * Reads the next character.
+	 * 
+	 * @return The character.
+	 */
+	private char next() {
+		char c = peek();
+		position++;
+		return c;
+	}
+
+	/**
+	 * Creates the exception for malformed text at the current position.
+	 * 
+	 * @param message What was wrong.
+	 * @return The exception to throw.
+	 */
+	private IllegalArgumentException error(String message) {
+		return new IllegalArgumentException(message + " at position " + position);
+	}
+}
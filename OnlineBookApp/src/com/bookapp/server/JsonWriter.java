@@ -0,0 +1,320 @@
+package com.bookapp.server;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+import com.bookapp.bean.Book;
+import com.bookapp.bean.BookStats;
+
+/**
+ * {@code JsonWriter} writes JSON text to a {@link Writer} as it goes, without
+ * building the whole document in memory first. A list of a million books is
+ * written book by book, so the memory used for a response does not depend on
+ * its size.
+ * 
+ * <p>
+ * The writer only checks what it needs to place commas: callers must open and
+ * close arrays and objects in the right order, and give every value inside an
+ * object a name.
+ * 
+ * @author MonigaBalasubramanian
+ * @see BookServer
+ */
+class JsonWriter implements Closeable {
+
+	// Deepest nesting of arrays and objects supported
+	private static final int MAX_DEPTH = 32;
+
+	// Escapes of the control characters
+	private static final String[] CONTROL_ESCAPES = new String[0x20];
+
+	static {
+		for (int c = 0; c < CONTROL_ESCAPES.length; c++) {
+			CONTROL_ESCAPES[c] = String.format("\\u%04x", c);
+		}
+		CONTROL_ESCAPES['\b'] = "\\b";
+		CONTROL_ESCAPES['\t'] = "\\t";
+		CONTROL_ESCAPES['\n'] = "\\n";
+		CONTROL_ESCAPES['\f'] = "\\f";
+		CONTROL_ESCAPES['\r'] = "\\r";
+	}
+
+	// The destination of the JSON text
+	private final Writer out;
+
+	// For each open array or object, whether it already has a value
+	private final boolean[] hasValue = new boolean[MAX_DEPTH];
+
+	// Number of open arrays and objects
+	private int depth;
+
+	// Whether a name has just been written, so the next value needs no comma
+	private boolean afterName;
+
+	/**
+	 * Creates a writer that writes to the given destination.
+	 * 
+	 * @param out The destination of the JSON text. Should be buffered.
+	 */
+	JsonWriter(Writer out) {
+		super();
+		this.out = out;
+	}
+
+	/**
+	 * Opens an array.
+	 * 
+	 * @return This writer.
+	 * @throws IOException If the text cannot be written.
+	 */
+	JsonWriter beginArray() throws IOException {
+		open('[');
+		return this;
+	}
+
+	/**
+	 * Closes the innermost array.
+	 * 
+	 * @return This writer.
+	 * @throws IOException If the text cannot be written.
+	 */
+	JsonWriter endArray() throws IOException {
+		close(']');
+		return this;
+	}
+
+	/**
+	 * Opens an object.
+	 * 
+	 * @return This writer.
+	 * @throws IOException If the text cannot be written.
+	 */
+	JsonWriter beginObject() throws IOException {
+		open('{');
+		return this;
+	}
+
+	/**
+	 * Closes the innermost object.
+	 * 
+	 * @return This writer.
+	 * @throws IOException If the text cannot be written.
+	 */
+	JsonWriter endObject() throws IOException {
+		close('}');
+		return this;
+	}
+
+	/**
+	 * Writes the name of the next value of an object.
+	 * 
+	 * @param name The name.
+	 * @return This writer.
+	 * @throws IOException If the text cannot be written.
+	 */
+	JsonWriter name(String name) throws IOException {
+		separate();
+		string(name);
+		out.write(':');
+		afterName = true;
+		return this;
+	}
+
+	/**
+	 * Writes a string value.
+	 * 
+	 * @param value The value, may be {@code null}.
+	 * @return This writer.
+	 * @throws IOException If the text cannot be written.
+	 */
+	JsonWriter value(String value) throws IOException {
+		separate();
+		if (value == null) {
+			out.write("null");
+		} else {
+			string(value);
+		}
+		return this;
+	}
+
+	/**
+	 * Writes a whole number.
+	 * 
+	 * @param value The value.
+	 * @return This writer.
+	 * @throws IOException If the text cannot be written.
+	 */
+	JsonWriter value(long value) throws IOException {
+		separate();
+		out.write(Long.toString(value));
+		return this;
+	}
+
+	/**
+	 * Writes a number. JSON has no form for {@code NaN} and the infinities, so
+	 * they are written as {@code null}.
+	 * 
+	 * @param value The value.
+	 * @return This writer.
+	 * @throws IOException If the text cannot be written.
+	 */
+	JsonWriter value(double value) throws IOException {
+		separate();
+		out.write(Double.isFinite(value) ? Double.toString(value) : "null");
+		return this;
+	}
+
+	/**
+	 * Writes a book as an object with the same field names as {@link Book}.
+	 * 
+	 * @param book The book.
+	 * @return This writer.
+	 * @throws IOException If the text cannot be written.
+	 */
+	JsonWriter book(Book book) throws IOException {
+		return beginObject().name("bookId").value(book.getBookId()).name("title").value(book.getTitle())
+				.name("author").value(book.getAuthor()).name("category").value(book.getCategory()).name("price")
+				.value(book.getPrice()).endObject();
+	}
+
+	/**
+	 * Writes a list of books as an array, one book at a time.
+	 * 
+	 * @param books The books.
+	 * @return This writer.
+	 * @throws IOException If the text cannot be written.
+	 */
+	JsonWriter books(List<Book> books) throws IOException {
+		beginArray();
+		for (Book book : books) {
+			book(book);
+		}
+		return endArray();
+	}
+
+	/**
+	 * Writes price statistics as an object with the same field names as
+	 * {@link BookStats}.
+	 * 
+	 * @param stats The statistics.
+	 * @return This writer.
+	 * @throws IOException If the text cannot be written.
+	 */
+	JsonWriter stats(BookStats stats) throws IOException {
+		return beginObject().name("name").value(stats.getName()).name("count").value(stats.getCount())
+				.name("totalPrice").value(stats.getTotalPrice()).name("minPrice").value(stats.getMinPrice())
+				.name("maxPrice").value(stats.getMaxPrice()).name("averagePrice").value(stats.getAveragePrice())
+				.endObject();
+	}
+
+	/**
+	 * Writes a list of price statistics as an array.
+	 * 
+	 * @param statsList The statistics.
+	 * @return This writer.
+	 * @throws IOException If the text cannot be written.
+	 */
+	JsonWriter statsList(List<BookStats> statsList) throws IOException {
+		beginArray();
+		for (BookStats stats : statsList) {
+			stats(stats);
+		}
+		return endArray();
+	}
+
+	/**
+	 * Flushes the text written so far to the destination.
+	 * 
+	 * @throws IOException If the text cannot be written.
+	 */
+	void flush() throws IOException {
+		out.flush();
+	}
+
+	/**
+	 * Closes the destination.
+	 * 
+	 * @throws IOException If the destination cannot be closed.
+	 */
+	@Override
+	public void close() throws IOException {
+		out.close();
+	}
+
+	/**
+	 * Opens an array or object.
+	 * 
+	 * @param bracket The opening bracket.
+	 * @throws IOException If the text cannot be written.
+	 */
+	private void open(char bracket) throws IOException {
+		if (depth == MAX_DEPTH) {
+			throw new IllegalStateException("JSON nested too deeply");
+		}
+		separate();
+		out.write(bracket);
+		hasValue[depth++] = false;
+	}
+
+	/**
+	 * Closes the innermost array or object.
+	 * 
+	 * @param bracket The closing bracket.
+	 * @throws IOException If the text cannot be written.
+	 */
+	private void close(char bracket) throws IOException {
+		depth--;
+		out.write(bracket);
+	}
+
+	/**
+	 * Writes the comma that separates a value from the one before it, if
+	 * needed.
+	 * 
+	 * @throws IOException If the text cannot be written.
+	 */
+	private void separate() throws IOException {
+		if (afterName) {
+			afterName = false;
+			return;
+		}
+		if (depth > 0) {
+			if (hasValue[depth - 1]) {
+				out.write(',');
+			}
+			hasValue[depth - 1] = true;
+		}
+	}
+
+	/**
+	 * Writes a quoted string, escaping the characters JSON requires. Runs of
+	 * characters that need no escape are written in one call.
+	 * 
+	 * @param value The string.
+	 * @throws IOException If the text cannot be written.
+	 */
+	private void string(String value) throws IOException {
+		out.write('"');
+		int start = 0;
+		int length = value.length();
+		for (int i = 0; i < length; i++) {
+			char c = value.charAt(i);
+			String escape;
+			if (c < CONTROL_ESCAPES.length) {
+				escape = CONTROL_ESCAPES[c];
+			} else if (c == '"') {
+				escape = "\\\"";
+			} else if (c == '\\') {
+				escape = "\\\\";
+			} else {
+				continue;
+			}
+			out.write(value, start, i - start);
+			out.write(escape);
+			start = i + 1;
+		}
+		out.write(value, start, length - start);
+		out.write('"');
+	}
+}
@@ -0,0 +1,16 @@
+/**
+ * Provides an embedded HTTP front end for the Book application.
+ * 
+ * <p>
+ * {@link com.bookapp.server.BookServer} serves any thread-safe
+ * {@link com.bookapp.service.IBook} implementation over HTTP with JSON
+ * responses, handling each request on its own virtual thread where the JDK
+ * has them. Unlike the command-line {@link com.bookapp.client.BookClient}, it
+ * can serve many clients at once.
+ * </p>
+ * 
+ * @see com.bookapp.service.IBook
+ * @see com.bookapp.service.StripedBookImpl
+ * @author MonigaBalasubramanian
+ */
+package com.bookapp.server;
@@ -1,15 +1,32 @@
 package com.bookapp.service;
 
+import java.io.IOException;
+import java.nio.file.Path;
+import java.text.CollationKey;
+import java.text.Collator;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
 import com.bookapp.bean.Book;
+import com.bookapp.bean.BookQuery;
+import com.bookapp.bean.BookStats;
 import com.bookapp.exceptions.AuthorNotFoundException;
 import com.bookapp.exceptions.CategoryNotFoundException;
 import com.bookapp.exceptions.IdNotFoundException;
 import com.bookapp.exceptions.PriceNotAvailableException;
 import com.bookapp.exceptions.TitleNotFoundException;
+import com.bookapp.util.BloomFilter;
+import com.bookapp.util.StringPool;
 
 /**
  * {@code BookImpl} is an implementation of the {@link IBook} interface. This
@@ -24,8 +41,61 @@ import com.bookapp.exceptions.TitleNotFoundException;
  * books by different fields.
  * 
  * <p>
+ * Besides the list itself, the class keeps hash indexes on the book ID and on
+ * the case-folded title, author and category. The indexes are updated by
+ * {@link #addBook(Book)}, so the lookup methods only touch the matching books
+ * instead of scanning the whole list. Each bucket is kept sorted by title as
+ * books are added, so lookups return their results without sorting.
+ * 
+ * <p>
+ * For listings the class also keeps an {@link OrderedIndex} per sort field
+ * (title, ID, author, category and price). {@link #getAllBooks()} and
+ * {@link #sortByAnyField(String)} walk the matching index instead of sorting
+ * the whole list on every call. The price index, together with a price index
+ * per category, also answers the price range and cheapest / most expensive
+ * queries. Compound queries are planned over the same indexes by
+ * {@link #query(BookQuery)}.
+ * 
+ * <p>
+ * Titles, authors and categories are sorted with a {@link Collator} for the
+ * locale given at construction, ignoring case. The indexes are keyed by
+ * {@link CollationKey}s, which are built once when a book is added, so sorting
+ * compares precomputed keys instead of folding case on every comparison, and
+ * text in scripts such as Tamil is ordered by the rules of the language.
+ * 
+ * <p>
+ * The words of the titles and authors are kept in a {@link TextIndex}, which
+ * answers {@link #searchBooks(String, int)} and
+ * {@link #autocomplete(String, int)}.
+ * 
+ * <p>
+ * Price statistics per category and per author are kept in a
+ * {@link StatsIndex} and updated on every add, so the statistics methods do
+ * not read the books at all.
+ * 
+ * <p>
+ * The catalog can be saved to and restored from a binary {@link BookSnapshot}
+ * file, so it survives a restart without being entered again.
+ * 
+ * <p>
+ * Authors and categories repeat across many books, so each added book is given
+ * the instance of its author and category held in a {@link StringPool}, and
+ * the books share one copy of each value.
+ * 
+ * <p>
+ * Optionally, a {@link BloomFilter} over the case-folded titles, authors and
+ * categories is checked before any index is probed, so a lookup of a title,
+ * author or category that is not in the catalog returns without folding the
+ * key into a new string or probing the hash indexes. The filter is enabled by
+ * {@link #BookImpl(Locale, long, double)}, which sizes it from the expected
+ * number of books and a target false-positive rate.
+ * 
+ * <p>
  * Exception handling is integrated into the methods to provide meaningful
- * messages when books are not found based on the search criteria.
+ * messages when books are not found based on the search criteria. The
+ * exceptions are created without a stack trace, so misses stay cheap; callers
+ * that expect many misses can use the {@code findBooksBy*} methods, which
+ * return an empty list instead.
  * 
  * @author MonigaBalasubramanian
  * @see IBook
@@ -33,17 +103,221 @@ import com.bookapp.exceptions.TitleNotFoundException;
  */
 public class BookImpl implements IBook {
 
+	// Seeds that keep the keys of the filtered fields apart
+	private static final long TITLE_KEY = 1;
+	private static final long AUTHOR_KEY = 2;
+	private static final long CATEGORY_KEY = 3;
+
+	// Orders books by title, used for the lookup buckets; books without a title
+	// come first
+	private static final Comparator<Book> BY_TITLE = Comparator.comparing(Book::getTitle,
+			Comparator.nullsFirst(Comparator.naturalOrder()));
+
 	// List to store books
 	private List<Book> books = new ArrayList<>();
 
+	// Hash indexes on the lookup fields, kept in step with the list
+	private Map<Integer, List<Book>> booksById = new HashMap<>();
+	private Map<String, List<Book>> booksByTitle = new HashMap<>();
+	private Map<String, List<Book>> booksByAuthor = new HashMap<>();
+	private Map<String, List<Book>> booksByCategory = new HashMap<>();
+
+	// Compares titles, authors and categories for sorting; Collator methods are
+	// synchronized, so readers work on a clone instead of sharing this one
+	private Collator collator;
+
+	// Ordered indexes used for listing and sorting; the text fields are keyed
+	// by collation keys, which are built once per book
+	private OrderedIndex<String> titleOrder = new OrderedIndex<>(Book::getTitle);
+	private OrderedIndex<CollationKey> titleSortOrder;
+	private OrderedIndex<Integer> idOrder = new OrderedIndex<>(Book::getBookId);
+	private OrderedIndex<CollationKey> authorOrder;
+	private OrderedIndex<CollationKey> categoryOrder;
+	private OrderedIndex<Double> priceOrder = new OrderedIndex<>(Book::getPrice);
+	private Map<String, OrderedIndex<Double>> priceOrderByCategory = new HashMap<>();
+
+	// Titles ignoring case, used to find the books with a title prefix
+	private OrderedIndex<String> titlePrefixOrder = new OrderedIndex<>(Book::getTitle,
+			String.CASE_INSENSITIVE_ORDER);
+
+	// Inverted index over the words of the titles and authors
+	private TextIndex textIndex = new TextIndex();
+
+	// Running price statistics per category and per author
+	private StatsIndex categoryStats = new StatsIndex();
+	private StatsIndex authorStats = new StatsIndex();
+
+	// Shared instances of the authors and categories
+	private StringPool strings;
+
+	// Filter over the case-folded titles, authors and categories, or null if
+	// misses are not filtered
+	private BloomFilter keyFilter;
+
 	/**
-	 * Adds a new {@link Book} to the list of books.
+	 * Creates an empty {@code BookImpl} that sorts titles, authors and categories
+	 * by the rules of the default locale.
+	 */
+	public BookImpl() {
+		this(Locale.getDefault());
+	}
+
+	/**
+	 * Creates an empty {@code BookImpl} that sorts titles, authors and categories
+	 * by the rules of the given locale.
+	 * 
+	 * @param locale The locale whose collation rules are used for sorting.
+	 */
+	public BookImpl(Locale locale) {
+		this(locale, new StringPool());
+	}
+
+	/**
+	 * Creates an empty {@code BookImpl} that takes the instances of authors and
+	 * categories from the given pool, which may be shared with other instances.
+	 * This is used by {@link StripedBookImpl} so that its shards share one copy of
+	 * each value.
+	 * 
+	 * @param locale  The locale whose collation rules are used for sorting.
+	 * @param strings The pool of authors and categories.
+	 */
+	BookImpl(Locale locale, StringPool strings) {
+		super();
+		this.strings = strings;
+		collator = sortCollator(locale);
+		titleSortOrder = collatedIndex(collator, Book::getTitle);
+		authorOrder = collatedIndex(collator, Book::getAuthor);
+		categoryOrder = collatedIndex(collator, Book::getCategory);
+	}
+
+	/**
+	 * Creates an empty {@code BookImpl} that sorts by the rules of the given
+	 * locale and checks a Bloom filter before looking up a title, author or
+	 * category, so that lookups of values that are not in the catalog are
+	 * answered without probing the indexes.
+	 * 
+	 * @param locale            The locale whose collation rules are used for
+	 *                          sorting.
+	 * @param expectedBooks     The number of books the catalog is expected to
+	 *                          hold. More books may be added, at the cost of more
+	 *                          false positives.
+	 * @param falsePositiveRate The share of misses that may still probe the
+	 *                          indexes once the expected number of books has been
+	 *                          added, such as {@code 0.01}.
+	 * @throws IllegalArgumentException If the number of books is not positive or
+	 *                                  the rate is not between 0 and 1.
+	 */
+	public BookImpl(Locale locale, long expectedBooks, double falsePositiveRate) {
+		this(locale);
+		// Each book adds up to three keys: its title, author and category
+		keyFilter = new BloomFilter(3 * expectedBooks, falsePositiveRate);
+	}
+
+	/**
+	 * Creates a copy of another {@code BookImpl}. The copy shares the
+	 * {@link Book} objects but has its own list and indexes, so books added to
+	 * the copy are not visible in the source. This is used by
+	 * {@link ConcurrentBookImpl} to build new snapshots.
+	 * 
+	 * @param source The instance to copy.
+	 */
+	BookImpl(BookImpl source) {
+		books = new ArrayList<>(source.books);
+		booksById = copyBuckets(source.booksById);
+		booksByTitle = copyBuckets(source.booksByTitle);
+		booksByAuthor = copyBuckets(source.booksByAuthor);
+		booksByCategory = copyBuckets(source.booksByCategory);
+
+		titleOrder = new OrderedIndex<>(source.titleOrder);
+		collator = (Collator) source.collator.clone();
+		titleSortOrder = new OrderedIndex<>(source.titleSortOrder);
+		idOrder = new OrderedIndex<>(source.idOrder);
+		authorOrder = new OrderedIndex<>(source.authorOrder);
+		categoryOrder = new OrderedIndex<>(source.categoryOrder);
+		priceOrder = new OrderedIndex<>(source.priceOrder);
+		priceOrderByCategory = new HashMap<>(source.priceOrderByCategory);
+		priceOrderByCategory.replaceAll((key, index) -> new OrderedIndex<>(index));
+		titlePrefixOrder = new OrderedIndex<>(source.titlePrefixOrder);
+		textIndex = new TextIndex(source.textIndex);
+		categoryStats = new StatsIndex(source.categoryStats);
+		authorStats = new StatsIndex(source.authorStats);
+		keyFilter = source.keyFilter == null ? null : new BloomFilter(source.keyFilter);
+		// The pool is safe to share, and the copy adds to the same values
+		strings = source.strings;
+	}
+
+	/**
+	 * Adds a new {@link Book} to the list of books and registers it in the lookup
+	 * ordered and text indexes.
 	 * 
 	 * @param book The {@link Book} object to be added to the list.
 	 */
 	@Override
 	public void addBook(Book book) {
 		books.add(book);
+		indexBook(book, books.size() - 1, null);
+	}
+
+	/**
+	 * Adds a batch of {@link Book} objects, in iteration order.
+	 * 
+	 * <p>
+	 * The result is the same as calling {@link #addBook(Book)} for each book, but
+	 * the lookup buckets that must stay sorted by title are sorted once for the
+	 * whole batch instead of once per book.
+	 * 
+	 * @param newBooks The {@link Book} objects to be added.
+	 */
+	@Override
+	public void addBooks(Collection<Book> newBooks) {
+		int doc = books.size();
+		books.addAll(newBooks);
+		Set<List<Book>> unsorted = Collections.newSetFromMap(new IdentityHashMap<>());
+		for (Book book : newBooks) {
+			indexBook(book, doc++, unsorted);
+		}
+		for (List<Book> bucket : unsorted) {
+			bucket.sort(BY_TITLE);
+		}
+	}
+
+	/**
+	 * Registers a book that has already been appended to the list in every index.
+	 * 
+	 * @param book     The book to index.
+	 * @param doc      The position of the book in the list.
+	 * @param unsorted If not {@code null}, books are appended to the lookup
+	 *                 buckets and the buckets are collected here to be sorted by
+	 *                 the caller; otherwise each book is inserted in title order.
+	 */
+	private void indexBook(Book book, int doc, Set<List<Book>> unsorted) {
+		book.setAuthor(strings.intern(book.getAuthor()));
+		book.setCategory(strings.intern(book.getCategory()));
+
+		addByTitle(booksById.computeIfAbsent(book.getBookId(), key -> new ArrayList<>()), book, unsorted);
+		booksByTitle.computeIfAbsent(foldCase(book.getTitle()), key -> new ArrayList<>()).add(book);
+		addByTitle(booksByAuthor.computeIfAbsent(foldCase(book.getAuthor()), key -> new ArrayList<>()), book,
+				unsorted);
+		addByTitle(booksByCategory.computeIfAbsent(foldCase(book.getCategory()), key -> new ArrayList<>()), book,
+				unsorted);
+
+		titleOrder.add(book);
+		titleSortOrder.add(book);
+		idOrder.add(book);
+		authorOrder.add(book);
+		categoryOrder.add(book);
+		priceOrder.add(book);
+		titlePrefixOrder.add(book);
+		priceOrderByCategory.computeIfAbsent(foldCase(book.getCategory()), key -> new OrderedIndex<>(Book::getPrice))
+				.add(book);
+		textIndex.add(doc, book.getTitle(), book.getAuthor());
+		categoryStats.add(book.getCategory(), book.getPrice());
+		authorStats.add(book.getAuthor(), book.getPrice());
+		if (keyFilter != null) {
+			keyFilter.add(keyHash(TITLE_KEY, book.getTitle()));
+			keyFilter.add(keyHash(AUTHOR_KEY, book.getAuthor()));
+			keyFilter.add(keyHash(CATEGORY_KEY, book.getCategory()));
+		}
 	}
 
 	/**
@@ -53,7 +327,7 @@ public class BookImpl implements IBook {
 	 */
 	@Override
 	public List<Book> getAllBooks() {
-		return books.stream().sorted((o1, o2) -> o1.getTitle().compareTo(o2.getTitle())).collect(Collectors.toList());
+		return titleOrder.toList(books.size());
 	}
 
 	/**
@@ -67,14 +341,24 @@ public class BookImpl implements IBook {
 	 */
 	@Override
 	public List<Book> getBookById(int bookId) throws IdNotFoundException {
-		List<Book> booksById = books.stream().filter(book -> book.getBookId() == bookId)
-				.sorted((o1, o2) -> o1.getTitle().compareTo(o2.getTitle())).collect(Collectors.toList());
+		List<Book> booksById = findBooksById(bookId);
 		if (booksById.isEmpty()) {
-			throw new IdNotFoundException("Id not found: " + bookId);
+			throw new IdNotFoundException("Id not found: " + bookId, false);
 		}
 		return booksById;
 	}
 
+	/**
+	 * Finds the {@link Book} objects with the specified book ID, sorted by title.
+	 * 
+	 * @param bookId The ID of the book to search for.
+	 * @return A list of books with the specified ID, empty if there are none.
+	 */
+	@Override
+	public List<Book> findBooksById(int bookId) {
+		return copyOf(booksById.get(bookId));
+	}
+
 	/**
 	 * Retrieves a list of {@link Book} objects that match the specified title.
 	 * Throws a {@link TitleNotFoundException} if no books are found with the given
@@ -86,14 +370,28 @@ public class BookImpl implements IBook {
 	 */
 	@Override
 	public List<Book> getBookByTitle(String title) throws TitleNotFoundException {
-		List<Book> booksByTitle = books.stream().filter(book -> book.getTitle().equalsIgnoreCase(title))
-				.sorted((o1, o2) -> o1.getTitle().compareToIgnoreCase(o2.getTitle())).collect(Collectors.toList());
+		List<Book> booksByTitle = findBooksByTitle(title);
 		if (booksByTitle.isEmpty()) {
-			throw new TitleNotFoundException("Title not found: " + title);
+			throw new TitleNotFoundException("Title not found: " + title, false);
 		}
 		return booksByTitle;
 	}
 
+	/**
+	 * Finds the {@link Book} objects with the specified title.
+	 * 
+	 * @param title The title of the book to search for.
+	 * @return A list of books with the specified title, empty if there are none.
+	 */
+	@Override
+	public List<Book> findBooksByTitle(String title) {
+		// Every match has the same title ignoring case, so insertion order is kept
+		if (!mightContain(TITLE_KEY, title)) {
+			return new ArrayList<>();
+		}
+		return copyOf(booksByTitle.get(foldCase(title)));
+	}
+
 	/**
 	 * Retrieves a list of {@link Book} objects that match the specified author.
 	 * Throws an {@link AuthorNotFoundException} if no books are found with the
@@ -105,14 +403,27 @@ public class BookImpl implements IBook {
 	 */
 	@Override
 	public List<Book> getBookByAuthor(String author) throws AuthorNotFoundException {
-		List<Book> booksByAuthor = books.stream().filter(book -> book.getAuthor().equalsIgnoreCase(author))
-				.sorted((o1, o2) -> o1.getTitle().compareTo(o2.getTitle())).collect(Collectors.toList());
+		List<Book> booksByAuthor = findBooksByAuthor(author);
 		if (booksByAuthor.isEmpty()) {
-			throw new AuthorNotFoundException("Author not found: " + author);
+			throw new AuthorNotFoundException("Author not found: " + author, false);
 		}
 		return booksByAuthor;
 	}
 
+	/**
+	 * Finds the {@link Book} objects with the specified author, sorted by title.
+	 * 
+	 * @param author The author of the book to search for.
+	 * @return A list of books with the specified author, empty if there are none.
+	 */
+	@Override
+	public List<Book> findBooksByAuthor(String author) {
+		if (!mightContain(AUTHOR_KEY, author)) {
+			return new ArrayList<>();
+		}
+		return copyOf(booksByAuthor.get(foldCase(author)));
+	}
+
 	/**
 	 * Retrieves a list of {@link Book} objects that match the specified category.
 	 * Throws a {@link CategoryNotFoundException} if no books are found with the
@@ -125,14 +436,27 @@ public class BookImpl implements IBook {
 	 */
 	@Override
 	public List<Book> getBookByCategory(String category) throws CategoryNotFoundException {
-		List<Book> booksByCategory = books.stream().filter(book -> book.getCategory().equalsIgnoreCase(category))
-				.sorted((o1, o2) -> o1.getTitle().compareTo(o2.getTitle())).collect(Collectors.toList());
+		List<Book> booksByCategory = findBooksByCategory(category);
 		if (booksByCategory.isEmpty()) {
-			throw new CategoryNotFoundException("Category not found: " + category);
+			throw new CategoryNotFoundException("Category not found: " + category, false);
 		}
 		return booksByCategory;
 	}
 
+	/**
+	 * Finds the {@link Book} objects in the specified category, sorted by title.
+	 * 
+	 * @param category The category of the book to search for.
+	 * @return A list of books in the specified category, empty if there are none.
+	 */
+	@Override
+	public List<Book> findBooksByCategory(String category) {
+		if (!mightContain(CATEGORY_KEY, category)) {
+			return new ArrayList<>();
+		}
+		return copyOf(booksByCategory.get(foldCase(category)));
+	}
+
 	/**
 	 * Retrieves a list of {@link Book} objects that match the specified price.
 	 * Throws a {@link PriceNotAvailableException} if no books are found with the
@@ -145,14 +469,289 @@ public class BookImpl implements IBook {
 	 */
 	@Override
 	public List<Book> getBookByPrice(double price) throws PriceNotAvailableException {
-		List<Book> booksByPrice = books.stream().filter(book -> book.getPrice() < 1000 && book.getPrice() == price)
-				.sorted((o1, o2) -> o1.getTitle().compareTo(o2.getTitle())).collect(Collectors.toList());
+		List<Book> booksByPrice = findBooksByPrice(price);
+		if (booksByPrice.isEmpty()) {
+			throw new PriceNotAvailableException("Books are not available to this price.", false);
+		}
+		return booksByPrice;
+	}
+
+	/**
+	 * Finds the {@link Book} objects with the specified price, sorted by title.
+	 * Like {@link #getBookByPrice(double)}, only prices below 1000 are matched.
+	 * 
+	 * @param price The price of the book to search for.
+	 * @return A list of books with the specified price, empty if there are none.
+	 */
+	@Override
+	public List<Book> findBooksByPrice(double price) {
+		List<Book> booksByPrice = new ArrayList<>();
+		if (price < 1000) {
+			booksByPrice.addAll(priceOrder.get(price));
+			booksByPrice.sort(BY_TITLE);
+		}
+		return booksByPrice;
+	}
+
+	/**
+	 * Retrieves a list of {@link Book} objects whose price lies within the given
+	 * range, cheapest first. Throws a {@link PriceNotAvailableException} if no
+	 * books are found in that range.
+	 * 
+	 * @param minPrice The lowest price to include.
+	 * @param maxPrice The highest price to include.
+	 * @return A list of books in the given price range, sorted by price.
+	 * @throws PriceNotAvailableException If no books are found in the given price
+	 *                                    range.
+	 */
+	@Override
+	public List<Book> getBooksByPriceRange(double minPrice, double maxPrice) throws PriceNotAvailableException {
+		List<Book> booksByPrice = priceOrder.range(minPrice, maxPrice);
 		if (booksByPrice.isEmpty()) {
-			throw new PriceNotAvailableException("Books are not available to this price.");
+			throw new PriceNotAvailableException("Books are not available between " + minPrice + " and " + maxPrice,
+					false);
 		}
 		return booksByPrice;
 	}
 
+	/**
+	 * Retrieves the cheapest {@link Book} objects in the specified category.
+	 * Throws a {@link CategoryNotFoundException} if no books are found with the
+	 * given category.
+	 * 
+	 * @param category The category of the books to search for.
+	 * @param limit    The maximum number of books to return.
+	 * @return A list of at most {@code limit} books, sorted by price.
+	 * @throws CategoryNotFoundException If no books are found with the given
+	 *                                   category.
+	 */
+	@Override
+	public List<Book> getCheapestBooksByCategory(String category, int limit) throws CategoryNotFoundException {
+		OrderedIndex<Double> categoryPrices = mightContain(CATEGORY_KEY, category)
+				? priceOrderByCategory.get(foldCase(category))
+				: null;
+		if (categoryPrices == null) {
+			throw new CategoryNotFoundException("Category not found: " + category, false);
+		}
+		return categoryPrices.first(limit, false);
+	}
+
+	/**
+	 * Retrieves the most expensive {@link Book} objects, sorted by descending
+	 * price.
+	 * 
+	 * @param limit The maximum number of books to return.
+	 * @return A list of at most {@code limit} books.
+	 */
+	@Override
+	public List<Book> getMostExpensiveBooks(int limit) {
+		return priceOrder.first(limit, true);
+	}
+
+	/**
+	 * Answers a compound query with a small cost-based planner.
+	 * 
+	 * <p>
+	 * Each index that can answer one criterion is a possible access path: the
+	 * author bucket, the category bucket or the category's price index, the price
+	 * index of the whole catalog, and the title index for a title prefix. The
+	 * planner counts the books each path would read, giving up on a path as soon
+	 * as it is no cheaper than the best one so far, and then reads only the
+	 * cheapest path. The other criteria are checked in one pass over those books,
+	 * which are then sorted and cut to the limit.
+	 * 
+	 * <p>
+	 * When the criteria are not selective, walking the ordered index of the sort
+	 * field and stopping after {@code limit} matches is cheaper, since nothing has
+	 * to be sorted. The cost of that walk is estimated from the selectivity of
+	 * the best path, and the cheaper of the two plans is used.
+	 * 
+	 * @param query The criteria, sort order and limit.
+	 * @return A list of at most {@code query.getLimit()} matching books, possibly
+	 *         empty.
+	 */
+	@Override
+	public List<Book> query(BookQuery query) {
+		String field = query.getSortField() == null ? "Title" : query.getSortField();
+		OrderedIndex<?> sortIndex = sortIndex(field);
+		if (sortIndex == null) {
+			System.out.println("Invalid field: " + field);
+			return new ArrayList<>();
+		}
+		if (query.getAuthor() != null && !mightContain(AUTHOR_KEY, query.getAuthor())
+				|| query.getCategory() != null && !mightContain(CATEGORY_KEY, query.getCategory())) {
+			return new ArrayList<>();
+		}
+		int limit = Math.max(0, query.getLimit());
+		boolean descending = !query.isAscending();
+		String author = foldCase(query.getAuthor());
+		String category = foldCase(query.getCategory());
+		String prefix = query.getTitlePrefix() == null || query.getTitlePrefix().isEmpty() ? null
+				: query.getTitlePrefix();
+		boolean priced = query.hasPriceRange();
+		double minPrice = query.getMinPrice();
+		double maxPrice = query.getMaxPrice();
+
+		// Find the access path that reads the fewest books
+		Supplier<List<Book>> path = null;
+		String pathOrder = null;
+		int cost = books.size();
+		if (author != null) {
+			List<Book> bucket = booksByAuthor.getOrDefault(author, Collections.emptyList());
+			if (bucket.size() < cost) {
+				path = () -> bucket;
+				pathOrder = null;
+				cost = bucket.size();
+			}
+		}
+		if (category != null && priced) {
+			OrderedIndex<Double> categoryPrices = priceOrderByCategory.get(category);
+			int count = categoryPrices == null ? 0 : categoryPrices.count(minPrice, maxPrice, cost);
+			if (count < cost) {
+				path = () -> categoryPrices.range(minPrice, maxPrice);
+				pathOrder = "Price";
+				cost = count;
+			}
+		} else if (category != null) {
+			List<Book> bucket = booksByCategory.getOrDefault(category, Collections.emptyList());
+			if (bucket.size() < cost) {
+				path = () -> bucket;
+				pathOrder = null;
+				cost = bucket.size();
+			}
+		}
+		if (priced) {
+			int count = priceOrder.count(minPrice, maxPrice, cost);
+			if (count < cost) {
+				path = () -> priceOrder.range(minPrice, maxPrice);
+				pathOrder = "Price";
+				cost = count;
+			}
+		}
+		if (prefix != null) {
+			String end = prefix + Character.MAX_VALUE;
+			int count = titlePrefixOrder.count(prefix, end, cost);
+			if (count < cost) {
+				path = () -> titlePrefixOrder.range(prefix, end);
+				pathOrder = null;
+				cost = count;
+			}
+		}
+		if (cost == 0 || limit == 0) {
+			return new ArrayList<>();
+		}
+
+		Predicate<Book> filter = book -> (!priced || book.getPrice() >= minPrice && book.getPrice() <= maxPrice)
+				&& (author == null || author.equals(foldCase(book.getAuthor())))
+				&& (category == null || category.equals(foldCase(book.getCategory())))
+				&& (prefix == null || book.getTitle() != null
+						&& book.getTitle().regionMatches(true, 0, prefix, 0, prefix.length()));
+
+		// Walking the sort order reads about limit / selectivity books
+		long walkCost = (long) limit * books.size() / cost;
+		if (path == null || walkCost <= cost) {
+			return sortIndex.filter(filter, limit, descending);
+		}
+
+		List<Book> matches = new ArrayList<>();
+		for (Book book : path.get()) {
+			if (filter.test(book)) {
+				matches.add(book);
+			}
+		}
+		if (descending || !field.equals(pathOrder)) {
+			Comparator<Book> order = sortOrder(field, matches);
+			matches.sort(descending ? order.reversed() : order);
+		}
+		return matches.size() > limit ? new ArrayList<>(matches.subList(0, limit)) : matches;
+	}
+
+	/**
+	 * Retrieves the price statistics of the books in the specified category.
+	 * Throws a {@link CategoryNotFoundException} if no books are found in the
+	 * given category.
+	 * 
+	 * @param category The category to report on.
+	 * @return The statistics of the category.
+	 * @throws CategoryNotFoundException If no books are found in the given
+	 *                                   category.
+	 */
+	@Override
+	public BookStats getCategoryStats(String category) throws CategoryNotFoundException {
+		BookStats stats = mightContain(CATEGORY_KEY, category) ? categoryStats.get(category) : null;
+		if (stats == null) {
+			throw new CategoryNotFoundException("Category not found: " + category, false);
+		}
+		return stats;
+	}
+
+	/**
+	 * Retrieves the price statistics of the books by the specified author.
+	 * Throws an {@link AuthorNotFoundException} if no books are found by the
+	 * given author.
+	 * 
+	 * @param author The author to report on.
+	 * @return The statistics of the author.
+	 * @throws AuthorNotFoundException If no books are found with the given
+	 *                                 author.
+	 */
+	@Override
+	public BookStats getAuthorStats(String author) throws AuthorNotFoundException {
+		BookStats stats = mightContain(AUTHOR_KEY, author) ? authorStats.get(author) : null;
+		if (stats == null) {
+			throw new AuthorNotFoundException("Author not found: " + author, false);
+		}
+		return stats;
+	}
+
+	/**
+	 * Retrieves the price statistics of every category.
+	 * 
+	 * @return A list with the statistics of each category, sorted by name.
+	 */
+	@Override
+	public List<BookStats> getAllCategoryStats() {
+		return categoryStats.list();
+	}
+
+	/**
+	 * Retrieves the price statistics of every author.
+	 * 
+	 * @return A list with the statistics of each author, sorted by name.
+	 */
+	@Override
+	public List<BookStats> getAllAuthorStats() {
+		return authorStats.list();
+	}
+
+	/**
+	 * Searches the titles and authors for the words of a query using the text
+	 * index. Returns an empty list if nothing matches.
+	 * 
+	 * @param query The words to search for.
+	 * @param limit The maximum number of books to return.
+	 * @return A list of at most {@code limit} matching books, most relevant
+	 *         first.
+	 */
+	@Override
+	public List<Book> searchBooks(String query, int limit) {
+		return toBooks(textIndex.search(query, false, limit));
+	}
+
+	/**
+	 * Suggests books for a partially typed query using the text index. The last
+	 * word of the query is matched as a prefix.
+	 * 
+	 * @param prefix The partially typed query.
+	 * @param limit  The maximum number of books to return.
+	 * @return A list of at most {@code limit} matching books, most relevant
+	 *         first.
+	 */
+	@Override
+	public List<Book> autocomplete(String prefix, int limit) {
+		return toBooks(textIndex.search(prefix, true, limit));
+	}
+
 	/**
 	 * Sorts the list of {@link Book} objects based on the specified field.
 	 * 
@@ -168,28 +767,23 @@ public class BookImpl implements IBook {
 		List<Book> sortedByField = new ArrayList<>();
 		switch (field) {
 		case "Title":
-			sortedByField = books.stream().sorted((o1, o2) -> o1.getTitle().compareToIgnoreCase(o2.getTitle()))
-					.collect(Collectors.toList());
+			sortedByField = titleSortOrder.toList(books.size());
 			break;
 
 		case "ID":
-			sortedByField = books.stream().sorted(Comparator.comparingInt(Book::getBookId))
-					.collect(Collectors.toList());
+			sortedByField = idOrder.toList(books.size());
 			break;
 
 		case "Author":
-			sortedByField = books.stream().sorted((o1, o2) -> o1.getAuthor().compareToIgnoreCase(o2.getAuthor()))
-					.collect(Collectors.toList());
+			sortedByField = authorOrder.toList(books.size());
 			break;
 
 		case "Category":
-			sortedByField = books.stream().sorted((o1, o2) -> o1.getCategory().compareToIgnoreCase(o2.getCategory()))
-					.collect(Collectors.toList());
+			sortedByField = categoryOrder.toList(books.size());
 			break;
 
 		case "Price":
-			sortedByField = books.stream().sorted(Comparator.comparingDouble(Book::getPrice))
-					.collect(Collectors.toList());
+			sortedByField = priceOrder.toList(books.size());
 			break;
 
 		default:
@@ -198,4 +792,305 @@ public class BookImpl implements IBook {
 		}
 		return sortedByField;
 	}
+
+	/**
+	 * Returns one page of the books sorted by the specified field by walking the
+	 * matching ordered index, without sorting or copying the rest of the
+	 * catalog.
+	 * 
+	 * <p>
+	 * If an invalid field is provided, it prints an error message.
+	 * 
+	 * @param field     The field by which to sort the books.
+	 * @param ascending {@code true} for ascending order.
+	 * @param offset    The number of books to skip.
+	 * @param limit     The maximum number of books to return.
+	 * @return A list of at most {@code limit} books sorted by the specified field.
+	 */
+	@Override
+	public List<Book> sortByAnyField(String field, boolean ascending, int offset, int limit) {
+		List<Book> sortedByField = new ArrayList<>();
+		switch (field) {
+		case "Title":
+			sortedByField = titleSortOrder.page(offset, limit, !ascending);
+			break;
+
+		case "ID":
+			sortedByField = idOrder.page(offset, limit, !ascending);
+			break;
+
+		case "Author":
+			sortedByField = authorOrder.page(offset, limit, !ascending);
+			break;
+
+		case "Category":
+			sortedByField = categoryOrder.page(offset, limit, !ascending);
+			break;
+
+		case "Price":
+			sortedByField = priceOrder.page(offset, limit, !ascending);
+			break;
+
+		default:
+			System.out.println("Invalid field: " + field);
+			break;
+		}
+		return sortedByField;
+	}
+
+	/**
+	 * Saves all books to a binary snapshot file, in the order in which they were
+	 * added.
+	 * 
+	 * @param file The file to write to. An existing file is replaced.
+	 * @throws IOException If the snapshot cannot be written.
+	 * @see BookSnapshot#write(List, Path)
+	 */
+	public void saveSnapshot(Path file) throws IOException {
+		BookSnapshot.write(books, file);
+	}
+
+	/**
+	 * Loads the books of a binary snapshot file and adds them, in their saved
+	 * order, to this instance.
+	 * 
+	 * @param file The file to read.
+	 * @throws IOException If the snapshot cannot be read or is not valid.
+	 * @see BookSnapshot#read(Path)
+	 */
+	public void loadSnapshot(Path file) throws IOException {
+		addBooks(BookSnapshot.read(file));
+	}
+
+	/**
+	 * Returns the ordered index used to list the books by the given field, as in
+	 * {@link #sortByAnyField(String)}.
+	 * 
+	 * @param field The sort field.
+	 * @return The index, or {@code null} if the field is invalid.
+	 */
+	private OrderedIndex<?> sortIndex(String field) {
+		switch (field) {
+		case "Title":
+			return titleSortOrder;
+		case "ID":
+			return idOrder;
+		case "Author":
+			return authorOrder;
+		case "Category":
+			return categoryOrder;
+		case "Price":
+			return priceOrder;
+		default:
+			return null;
+		}
+	}
+
+	/**
+	 * Returns a comparator that orders the given books by a field in the same way
+	 * as the matching ordered index. For the text fields, the collation key of
+	 * each book is built once up front instead of on every comparison, by a clone
+	 * of the collator so that concurrent sorts do not contend on its lock.
+	 * 
+	 * @param field The sort field, which must be valid.
+	 * @param books The books that will be sorted.
+	 * @return The comparator.
+	 */
+	private Comparator<Book> sortOrder(String field, List<Book> books) {
+		Function<Book, String> text;
+		switch (field) {
+		case "ID":
+			return Comparator.comparingInt(Book::getBookId);
+		case "Price":
+			return Comparator.comparingDouble(Book::getPrice);
+		case "Author":
+			text = Book::getAuthor;
+			break;
+		case "Category":
+			text = Book::getCategory;
+			break;
+		default:
+			text = Book::getTitle;
+			break;
+		}
+		Collator keyCollator = (Collator) collator.clone();
+		Map<Book, CollationKey> keys = new IdentityHashMap<>(books.size());
+		for (Book book : books) {
+			keys.put(book, keyCollator.getCollationKey(text.apply(book)));
+		}
+		// A missing value has no collation key and sorts first, as in the indexes
+		return Comparator.comparing(keys::get, Comparator.nullsFirst(Comparator.naturalOrder()));
+	}
+
+	/**
+	 * Copies a lookup bucket into a new list.
+	 * 
+	 * @param bucket The bucket, or {@code null} if there is no entry.
+	 * @return A new list with the books of the bucket, empty if there are none.
+	 */
+	private static List<Book> copyOf(List<Book> bucket) {
+		return bucket == null ? new ArrayList<>() : new ArrayList<>(bucket);
+	}
+
+	/**
+	 * Maps document numbers of the text index back to books.
+	 * 
+	 * @param docs The document numbers, which are positions in the book list.
+	 * @return A new list with the books in the same order.
+	 */
+	private List<Book> toBooks(int[] docs) {
+		List<Book> matches = new ArrayList<>(docs.length);
+		for (int doc : docs) {
+			matches.add(books.get(doc));
+		}
+		return matches;
+	}
+
+	/**
+	 * Copies a hash index together with its buckets.
+	 * 
+	 * @param <K>     The type of the index key.
+	 * @param buckets The index to copy.
+	 * @return A new index with copies of the buckets.
+	 */
+	private static <K> Map<K, List<Book>> copyBuckets(Map<K, List<Book>> buckets) {
+		Map<K, List<Book>> copy = new HashMap<>(buckets);
+		copy.replaceAll((key, bucket) -> new ArrayList<>(bucket));
+		return copy;
+	}
+
+	/**
+	 * Adds a book to a lookup bucket that is kept sorted by title, either in place
+	 * or by deferring the sort to the caller.
+	 * 
+	 * @param bucket   The bucket, sorted by title.
+	 * @param book     The book to add.
+	 * @param unsorted The buckets waiting to be sorted, or {@code null} to insert
+	 *                 the book in title order right away.
+	 */
+	private static void addByTitle(List<Book> bucket, Book book, Set<List<Book>> unsorted) {
+		if (unsorted == null) {
+			insertByTitle(bucket, book);
+		} else {
+			bucket.add(book);
+			unsorted.add(bucket);
+		}
+	}
+
+	/**
+	 * Inserts a book into an index bucket that is kept sorted by title. Books with
+	 * an equal title are placed after the existing ones, so the bucket keeps the
+	 * order a stable sort by title would give.
+	 * 
+	 * @param bucket The bucket, sorted by title.
+	 * @param book   The book to insert.
+	 */
+	private static void insertByTitle(List<Book> bucket, Book book) {
+		int low = 0;
+		int high = bucket.size();
+		while (low < high) {
+			int mid = (low + high) >>> 1;
+			if (BY_TITLE.compare(bucket.get(mid), book) <= 0) {
+				low = mid + 1;
+			} else {
+				high = mid;
+			}
+		}
+		bucket.add(low, book);
+	}
+
+	/**
+	 * Creates an ordered index keyed by the collation key of a text field. A book
+	 * without a value for the field has a {@code null} key, which the index sorts
+	 * first.
+	 * 
+	 * @param collator The collator that builds the keys.
+	 * @param field    The text field to sort by.
+	 * @return A new, empty index.
+	 */
+	private static OrderedIndex<CollationKey> collatedIndex(Collator collator, Function<Book, String> field) {
+		return new OrderedIndex<>(book -> collator.getCollationKey(field.apply(book)));
+	}
+
+	/**
+	 * Creates the collator used to sort titles, authors and categories. It
+	 * ignores case but not accents, and decomposes characters first so that
+	 * combining marks, such as the vowel signs of Tamil, are ordered correctly.
+	 * 
+	 * @param locale The locale whose collation rules are used.
+	 * @return A new collator.
+	 */
+	static Collator sortCollator(Locale locale) {
+		Collator collator = Collator.getInstance(locale);
+		collator.setStrength(Collator.SECONDARY);
+		collator.setDecomposition(Collator.CANONICAL_DECOMPOSITION);
+		return collator;
+	}
+
+	/**
+	 * Folds the case of a lookup key so that keys which are equal ignoring case map
+	 * to the same index entry.
+	 * 
+	 * @param value The value to fold, may be {@code null}.
+	 * @return The case-folded value, or {@code null} if {@code value} is
+	 *         {@code null}.
+	 */
+	static String foldCase(String value) {
+		return value == null ? null : value.toUpperCase(Locale.ROOT).toLowerCase(Locale.ROOT);
+	}
+
+	/**
+	 * Checks the key filter for a title, author or category.
+	 * 
+	 * @param field The field of the key, such as {@link #TITLE_KEY}.
+	 * @param value The value to look up, may be {@code null}.
+	 * @return {@code false} if no book has the value, {@code true} if a book may
+	 *         have it or no filter is kept.
+	 */
+	private boolean mightContain(long field, String value) {
+		return keyFilter == null || keyFilter.mightContain(keyHash(field, value));
+	}
+
+	/**
+	 * Hashes the case-folded form of a lookup key for the key filter. The hash is
+	 * the same as that of {@code foldCase(value)}, but ASCII text is folded while
+	 * it is hashed, without creating new strings.
+	 * 
+	 * @param field The field of the key, such as {@link #TITLE_KEY}.
+	 * @param value The key, may be {@code null}.
+	 * @return The 64-bit hash of the key.
+	 */
+	static long keyHash(long field, String value) {
+		if (value == null) {
+			return field;
+		}
+		for (int i = 0; i < value.length(); i++) {
+			if (value.charAt(i) >= 0x80) {
+				// Folding other text can change its length, as for the German sharp s (U+00DF), so fold it first
+				return asciiFoldedHash(field, foldCase(value));
+			}
+		}
+		return asciiFoldedHash(field, value);
+	}
+
+	/**
+	 * Hashes a string with FNV-1a, folding the ASCII letters to lower case.
+	 * 
+	 * @param seed  The starting value, which separates the fields.
+	 * @param value The string.
+	 * @return The 64-bit hash.
+	 */
+	private static long asciiFoldedHash(long seed, String value) {
+		long hash = 0xCBF29CE484222325L ^ seed;
+		for (int i = 0; i < value.length(); i++) {
+			char c = value.charAt(i);
+			if (c >= 'A' && c <= 'Z') {
+				c += 'a' - 'A';
+			}
+			hash = (hash ^ c) * 0x100000001B3L;
+		}
+		// FNV mixes the last characters poorly, so finish with a full avalanche
+		hash = (hash ^ (hash >>> 33)) * 0xFF51AFD7ED558CCDL;
+		return hash ^ (hash >>> 33);
+	}
 }
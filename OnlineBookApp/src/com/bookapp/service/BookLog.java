@@ -0,0 +1,500 @@
+package com.bookapp.service;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+import com.bookapp.bean.Book;
+
+/**
+ * {@code BookLog} is an append-only write-ahead log of added books. Every add
+ * is written to the log and forced to disk before it is applied, so the
+ * catalog can be rebuilt after a crash by replaying the log.
+ * 
+ * <p>
+ * The file starts with a magic number and a format version, followed by one
+ * record per book:
+ * </p>
+ * 
+ * <pre>
+ * int    length of the payload
+ * int    CRC-32 of the payload
+ * byte   record type (1 = add)
+ * int    book ID
+ * double price
+ * 3 x    string (title, author, category): int byte length (-1 for null), UTF-8 bytes
+ * </pre>
+ * 
+ * <p>
+ * Appends use group commit. Threads that append while a write is in progress
+ * queue their records and wait; the next thread to write then writes the
+ * whole queue and forces it to disk once. Under concurrent load many adds
+ * therefore share one {@code force} call.
+ * 
+ * <p>
+ * A crash can leave a partly written record at the end of the file. If the
+ * last record is incomplete or fails its checksum, replay stops before it and
+ * the file is cut back to the last complete record before new records are
+ * appended. Records cut off this way were never acknowledged to the caller.
+ * A damaged record that is followed by others cannot come from a crash, so
+ * opening the log fails instead of dropping the acknowledged records after it.
+ * 
+ * @author MonigaBalasubramanian
+ * @see DurableBookImpl
+ */
+class BookLog implements Closeable {
+
+	// Identifies a log file ("BKWL")
+	private static final int MAGIC = 0x424B574C;
+
+	// Version of the file format
+	private static final int VERSION = 1;
+
+	// Size of the file header
+	private static final int HEADER_SIZE = 2 * Integer.BYTES;
+
+	// Record type of an added book
+	private static final byte ADD = 1;
+
+	// Number of books handed to the replay target at a time
+	private static final int REPLAY_BATCH = 4096;
+
+	// The log file
+	private final FileChannel channel;
+
+	// Guards the fields below; writers wait on the condition for their commit
+	private final ReentrantLock lock = new ReentrantLock();
+	private final Condition committed = lock.newCondition();
+
+	// Records appended but not yet written, and a spare buffer to swap in
+	private ByteBuffer pending = ByteBuffer.allocate(64 * 1024);
+	private ByteBuffer spare = ByteBuffer.allocate(64 * 1024);
+
+	// Number of the last append, and of the last append forced to disk
+	private long appended;
+	private long durable;
+
+	// Whether a thread is currently writing and forcing a group
+	private boolean writing;
+
+	// The error of a failed write; the log cannot be used after one
+	private IOException failure;
+
+	/**
+	 * Opens a log file, creating it if it does not exist, and replays the books
+	 * it already holds.
+	 * 
+	 * @param file   The log file.
+	 * @param replay Receives the logged books in batches, in the order in which
+	 *               they were appended.
+	 * @throws IOException If the file cannot be opened or read, is not a book
+	 *                     log, or has a damaged record before its last one.
+	 */
+	BookLog(Path file, Consumer<List<Book>> replay) throws IOException {
+		channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+				StandardOpenOption.WRITE);
+		try {
+			if (channel.size() == 0) {
+				ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).putInt(MAGIC).putInt(VERSION);
+				header.flip();
+				writeFully(header, 0);
+				channel.force(true);
+				channel.position(HEADER_SIZE);
+			} else {
+				long end = replay(file, replay);
+				channel.truncate(end);
+				channel.position(end);
+			}
+		} catch (IOException | RuntimeException e) {
+			channel.close();
+			throw e;
+		}
+	}
+
+	/**
+	 * Appends one book to the log and waits until it is on disk.
+	 * 
+	 * @param book The book to log.
+	 * @throws IOException If the log cannot be written.
+	 */
+	void append(Book book) throws IOException {
+		append(List.of(book));
+	}
+
+	/**
+	 * Appends a batch of books to the log and waits until all of them are on
+	 * disk. The batch is committed as a whole, together with the appends of
+	 * other threads that arrive in the meantime.
+	 * 
+	 * @param books The books to log.
+	 * @throws IOException If the log cannot be written.
+	 */
+	void append(Collection<Book> books) throws IOException {
+		lock.lock();
+		try {
+			checkUsable();
+			// A batch that cannot be encoded must not leave records behind
+			int mark = pending.position();
+			try {
+				for (Book book : books) {
+					encode(book);
+				}
+			} catch (RuntimeException e) {
+				pending.position(mark);
+				throw e;
+			}
+			long ticket = ++appended;
+
+			while (durable < ticket) {
+				checkUsable();
+				if (writing) {
+					// Another thread is writing; our records go out with the next group
+					committed.awaitUninterruptibly();
+				} else {
+					commitPending();
+				}
+			}
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Closes the log file. Appends that are still waiting fail.
+	 * 
+	 * @throws IOException If the file cannot be closed.
+	 */
+	@Override
+	public void close() throws IOException {
+		lock.lock();
+		try {
+			if (failure == null) {
+				failure = new IOException("Book log is closed");
+			}
+			committed.signalAll();
+		} finally {
+			lock.unlock();
+		}
+		channel.close();
+	}
+
+	/**
+	 * Writes every pending record and forces it to disk. The lock is released
+	 * while writing, so other threads can queue the next group. Must be called
+	 * while holding the lock.
+	 */
+	private void commitPending() {
+		ByteBuffer group = pending;
+		pending = spare;
+		long groupEnd = appended;
+		writing = true;
+		lock.unlock();
+		IOException error = null;
+		try {
+			group.flip();
+			while (group.hasRemaining()) {
+				channel.write(group);
+			}
+			channel.force(false);
+		} catch (IOException e) {
+			error = e;
+		} finally {
+			lock.lock();
+			writing = false;
+			group.clear();
+			spare = group;
+			if (error != null) {
+				failure = error;
+			} else {
+				durable = groupEnd;
+			}
+			committed.signalAll();
+		}
+	}
+
+	/**
+	 * Throws the error of an earlier failed write, if there was one. Must be
+	 * called while holding the lock.
+	 * 
+	 * @throws IOException If the log can no longer be written.
+	 */
+	private void checkUsable() throws IOException {
+		if (failure != null) {
+			throw new IOException("Book log is not writable", failure);
+		}
+	}
+
+	/**
+	 * Adds the record of one book to the pending buffer. Must be called while
+	 * holding the lock.
+	 * 
+	 * @param book The book to encode.
+	 */
+	private void encode(Book book) {
+		byte[] title = bytes(book.getTitle());
+		byte[] author = bytes(book.getAuthor());
+		byte[] category = bytes(book.getCategory());
+		int length = 1 + Integer.BYTES + Double.BYTES + 3 * Integer.BYTES + size(title) + size(author)
+				+ size(category);
+		ensureCapacity(2 * Integer.BYTES + length);
+
+		int start = pending.position();
+		pending.position(start + 2 * Integer.BYTES);
+		pending.put(ADD).putInt(book.getBookId()).putDouble(book.getPrice());
+		putString(title);
+		putString(author);
+		putString(category);
+
+		CRC32 crc = new CRC32();
+		crc.update(pending.array(), start + 2 * Integer.BYTES, length);
+		pending.putInt(start, length).putInt(start + Integer.BYTES, (int) crc.getValue());
+	}
+
+	/**
+	 * Grows the pending buffer so that it can hold the given number of bytes
+	 * more.
+	 * 
+	 * @param extra The number of bytes to make room for.
+	 */
+	private void ensureCapacity(int extra) {
+		if (pending.remaining() < extra) {
+			ByteBuffer larger = ByteBuffer.allocate(Math.max(pending.capacity() * 2, pending.position() + extra));
+			pending.flip();
+			larger.put(pending);
+			pending = larger;
+		}
+	}
+
+	/**
+	 * Writes a string to the pending buffer.
+	 * 
+	 * @param bytes The UTF-8 bytes of the string, or {@code null}.
+	 */
+	private void putString(byte[] bytes) {
+		if (bytes == null) {
+			pending.putInt(-1);
+		} else {
+			pending.putInt(bytes.length).put(bytes);
+		}
+	}
+
+	/**
+	 * Writes a buffer to the file at the given position.
+	 * 
+	 * @param buffer   The bytes to write.
+	 * @param position The position in the file.
+	 * @throws IOException If the file cannot be written.
+	 */
+	private void writeFully(ByteBuffer buffer, long position) throws IOException {
+		while (buffer.hasRemaining()) {
+			position += channel.write(buffer, position);
+		}
+	}
+
+	/**
+	 * Reads the records of a log file and hands the books to the target.
+	 * 
+	 * @param file   The log file, used in error messages.
+	 * @param target Receives the books in batches.
+	 * @return The position just after the last complete record.
+	 * @throws IOException If the file cannot be read, is not a book log, or has a
+	 *                     damaged record before its last one.
+	 */
+	private long replay(Path file, Consumer<List<Book>> target) throws IOException {
+		channel.position(0);
+		// The stream is not closed, as that would close the channel
+		DataInputStream in = new DataInputStream(new BufferedInputStream(Channels.newInputStream(channel), 1 << 16));
+		try {
+			if (in.readInt() != MAGIC) {
+				throw new IOException("Not a book log: " + file);
+			}
+			int version = in.readInt();
+			if (version != VERSION) {
+				throw new IOException("Unsupported book log version " + version + ": " + file);
+			}
+		} catch (EOFException e) {
+			throw new IOException("Not a book log: " + file, e);
+		}
+
+		long end = HEADER_SIZE;
+		List<Book> batch = new ArrayList<>();
+		long records = 0;
+		long batchStart = end;
+		CRC32 crc = new CRC32();
+		byte[] payload = new byte[256];
+		long size = channel.size();
+		while (true) {
+			int length;
+			int checksum;
+			try {
+				length = in.readInt();
+				checksum = in.readInt();
+			} catch (EOFException e) {
+				// The end of the file, or a record header that was cut off
+				break;
+			}
+			long recordEnd = end + 2 * Integer.BYTES + length;
+			if (length <= 0) {
+				// A tail that was allocated but never written reads as zeros
+				if (length == 0 && checksum == 0 && isZeroFilled(in)) {
+					break;
+				}
+				throw corrupt(file, end);
+			}
+			if (recordEnd > size) {
+				// The last record was cut off
+				break;
+			}
+			if (payload.length < length) {
+				payload = new byte[Math.max(length, payload.length * 2)];
+			}
+			in.readFully(payload, 0, length);
+			crc.reset();
+			crc.update(payload, 0, length);
+			Book book = (int) crc.getValue() == checksum ? decode(ByteBuffer.wrap(payload, 0, length)) : null;
+			if (book == null) {
+				// Only the last record can have been left partly written by a crash
+				if (recordEnd == size) {
+					break;
+				}
+				throw corrupt(file, end);
+			}
+			batch.add(book);
+			records++;
+			end += 2 * Integer.BYTES + length;
+			if (batch.size() == REPLAY_BATCH) {
+				deliver(file, target, batch, records, batchStart);
+				batch = new ArrayList<>();
+				batchStart = end;
+			}
+		}
+		if (!batch.isEmpty()) {
+			deliver(file, target, batch, records, batchStart);
+		}
+		return end;
+	}
+
+	/**
+	 * Reads the rest of the log and tells whether all of it is zeros.
+	 * 
+	 * @param in The stream positioned in the log.
+	 * @return {@code true} if every remaining byte is zero.
+	 * @throws IOException If the log cannot be read.
+	 */
+	private static boolean isZeroFilled(DataInputStream in) throws IOException {
+		int b;
+		while ((b = in.read()) == 0) {
+			// Skip the zeros
+		}
+		return b < 0;
+	}
+
+	/**
+	 * Creates the error for a damaged record that is not at the end of the log.
+	 * 
+	 * @param file     The log file.
+	 * @param position The byte offset of the record in the file.
+	 * @return The error.
+	 */
+	private static IOException corrupt(Path file, long position) {
+		return new IOException("Corrupt book log record at byte " + position + ": " + file);
+	}
+
+	/**
+	 * Hands a batch of replayed books to the target. A book the target rejects
+	 * would fail every later open as well, so the error names the records of the
+	 * batch and where they start in the file.
+	 * 
+	 * @param file     The log file, used in error messages.
+	 * @param target   Receives the books.
+	 * @param batch    The books to hand over.
+	 * @param records  The number of records read so far, the batch included.
+	 * @param position The file position of the first record of the batch.
+	 * @throws IOException If the target rejects a book of the batch.
+	 */
+	private static void deliver(Path file, Consumer<List<Book>> target, List<Book> batch, long records,
+			long position) throws IOException {
+		try {
+			target.accept(batch);
+		} catch (RuntimeException e) {
+			long first = records - batch.size() + 1;
+			String which = first == records ? "record " + first : "records " + first + " to " + records;
+			throw new IOException("Cannot replay " + which + " at byte " + position + " of book log " + file + ": "
+					+ e, e);
+		}
+	}
+
+	/**
+	 * Decodes the payload of one record.
+	 * 
+	 * @param payload The payload, with a valid checksum.
+	 * @return The logged book, or {@code null} if the record is not a valid add.
+	 */
+	private static Book decode(ByteBuffer payload) {
+		try {
+			if (payload.get() != ADD) {
+				return null;
+			}
+			int bookId = payload.getInt();
+			double price = payload.getDouble();
+			String title = getString(payload);
+			String author = getString(payload);
+			String category = getString(payload);
+			return new Book(bookId, title, author, category, price);
+		} catch (RuntimeException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * Reads a string from a record payload.
+	 * 
+	 * @param payload The payload.
+	 * @return The string, or {@code null} if a null string was logged.
+	 */
+	private static String getString(ByteBuffer payload) {
+		int length = payload.getInt();
+		if (length < 0) {
+			return null;
+		}
+		String value = new String(payload.array(), payload.arrayOffset() + payload.position(), length,
+				StandardCharsets.UTF_8);
+		payload.position(payload.position() + length);
+		return value;
+	}
+
+	/**
+	 * Encodes a string as UTF-8.
+	 * 
+	 * @param value The string, may be {@code null}.
+	 * @return The bytes, or {@code null} if the string is {@code null}.
+	 */
+	private static byte[] bytes(String value) {
+		return value == null ? null : value.getBytes(StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Returns the number of bytes the bytes of a string take in a record,
+	 * without the length field.
+	 * 
+	 * @param bytes The UTF-8 bytes, or {@code null}.
+	 * @return The size.
+	 */
+	private static int size(byte[] bytes) {
+		return bytes == null ? 0 : bytes.length;
+	}
+}
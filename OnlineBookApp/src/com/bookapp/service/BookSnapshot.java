@@ -0,0 +1,226 @@
+package com.bookapp.service;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import com.bookapp.bean.Book;
+
+/**
+ * {@code BookSnapshot} saves a list of {@link Book} objects to a compact binary
+ * file and loads it back, so that an in-memory catalog does not have to be
+ * entered again after a restart.
+ * 
+ * <p>
+ * The file is read and written through a memory-mapped {@link FileChannel}.
+ * It starts with a header, followed by a string table and one fixed-width
+ * column per field:
+ * </p>
+ * 
+ * <pre>
+ * int    magic number
+ * int    format version
+ * int    number of books (n)
+ * int    number of distinct strings (s)
+ * s x    string: int byte length (-1 for null), UTF-8 bytes
+ * n x    int book ID
+ * n x    int title string number
+ * n x    int author string number
+ * n x    int category string number
+ * n x    double price
+ * </pre>
+ * 
+ * <p>
+ * Each distinct string is stored once, so repeated authors and categories cost
+ * four bytes per book. Loading decodes the string table once and then reads
+ * the columns with bulk copies, without parsing any text per field.
+ * 
+ * @author MonigaBalasubramanian
+ * @see BookImpl#saveSnapshot(Path)
+ * @see BookImpl#loadSnapshot(Path)
+ */
+public class BookSnapshot {
+
+	// Identifies a snapshot file ("BKSN")
+	private static final int MAGIC = 0x424B534E;
+
+	// Version of the file format
+	private static final int VERSION = 1;
+
+	/**
+	 * This class only provides static methods.
+	 */
+	private BookSnapshot() {
+		super();
+	}
+
+	/**
+	 * Writes the given books to a snapshot file, replacing the file if it already
+	 * exists. The books are stored in list order.
+	 * 
+	 * <p>
+	 * The snapshot is first written to a temporary file in the same directory and
+	 * forced to disk, and then moved over the target in one atomic step. A crash
+	 * while writing therefore leaves the previous snapshot in place.
+	 * </p>
+	 * 
+	 * @param books The books to write.
+	 * @param file  The file to write to.
+	 * @throws IOException If the file cannot be written, or if the snapshot would
+	 *                     be larger than 2 GB.
+	 */
+	public static void write(List<Book> books, Path file) throws IOException {
+		int count = books.size();
+		int[] titleRefs = new int[count];
+		int[] authorRefs = new int[count];
+		int[] categoryRefs = new int[count];
+
+		// Build the string table, storing every distinct string once
+		List<byte[]> strings = new ArrayList<>();
+		Map<String, Integer> stringRefs = new HashMap<>();
+		long size = 4L * Integer.BYTES;
+		for (int i = 0; i < count; i++) {
+			Book book = books.get(i);
+			titleRefs[i] = intern(book.getTitle(), strings, stringRefs);
+			authorRefs[i] = intern(book.getAuthor(), strings, stringRefs);
+			categoryRefs[i] = intern(book.getCategory(), strings, stringRefs);
+		}
+		for (byte[] bytes : strings) {
+			size += Integer.BYTES + (bytes == null ? 0 : bytes.length);
+		}
+		size += (long) count * (4 * Integer.BYTES + Double.BYTES);
+		if (size > Integer.MAX_VALUE) {
+			throw new IOException("Snapshot too large: " + size + " bytes");
+		}
+
+		Path target = file.toAbsolutePath();
+		Path temp = Files.createTempFile(target.getParent(), target.getFileName() + ".", ".tmp");
+		try {
+			try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+				MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+				buffer.putInt(MAGIC).putInt(VERSION).putInt(count).putInt(strings.size());
+				for (byte[] bytes : strings) {
+					if (bytes == null) {
+						buffer.putInt(-1);
+					} else {
+						buffer.putInt(bytes.length).put(bytes);
+					}
+				}
+				for (Book book : books) {
+					buffer.putInt(book.getBookId());
+				}
+				buffer.asIntBuffer().put(titleRefs);
+				buffer.position(buffer.position() + count * Integer.BYTES);
+				buffer.asIntBuffer().put(authorRefs);
+				buffer.position(buffer.position() + count * Integer.BYTES);
+				buffer.asIntBuffer().put(categoryRefs);
+				buffer.position(buffer.position() + count * Integer.BYTES);
+				for (Book book : books) {
+					buffer.putDouble(book.getPrice());
+				}
+				buffer.force();
+				channel.force(true);
+			}
+			Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+		} catch (IOException | RuntimeException e) {
+			Files.deleteIfExists(temp);
+			throw e;
+		}
+	}
+
+	/**
+	 * Reads the books stored in a snapshot file, in the order in which they were
+	 * written.
+	 * 
+	 * @param file The file to read.
+	 * @return A new list with the books of the snapshot.
+	 * @throws IOException If the file cannot be read or is not a valid snapshot.
+	 */
+	public static List<Book> read(Path file) throws IOException {
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			if (channel.size() > Integer.MAX_VALUE) {
+				throw new IOException("Snapshot too large: " + file);
+			}
+			MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+			if (buffer.remaining() < 4 * Integer.BYTES || buffer.getInt() != MAGIC) {
+				throw new IOException("Not a book snapshot: " + file);
+			}
+			int version = buffer.getInt();
+			if (version != VERSION) {
+				throw new IOException("Unsupported snapshot version " + version + ": " + file);
+			}
+			int count = buffer.getInt();
+			int stringCount = buffer.getInt();
+
+			// Check the counts against the file size before allocating anything,
+			// so that a damaged header cannot ask for huge arrays
+			long minimumSize = 4L * Integer.BYTES + (long) stringCount * Integer.BYTES
+					+ (long) count * (4 * Integer.BYTES + Double.BYTES);
+			if (count < 0 || stringCount < 0 || minimumSize > channel.size()) {
+				throw new IOException("Corrupt book snapshot: " + file);
+			}
+
+			try {
+				String[] strings = new String[stringCount];
+				for (int i = 0; i < stringCount; i++) {
+					int length = buffer.getInt();
+					if (length < -1 || length > buffer.remaining()) {
+						throw new IOException("Corrupt book snapshot: " + file);
+					}
+					if (length >= 0) {
+						byte[] bytes = new byte[length];
+						buffer.get(bytes);
+						strings[i] = new String(bytes, StandardCharsets.UTF_8);
+					}
+				}
+
+				int[] ids = new int[count];
+				int[] titleRefs = new int[count];
+				int[] authorRefs = new int[count];
+				int[] categoryRefs = new int[count];
+				double[] prices = new double[count];
+				for (int[] column : new int[][] { ids, titleRefs, authorRefs, categoryRefs }) {
+					buffer.asIntBuffer().get(column);
+					buffer.position(buffer.position() + count * Integer.BYTES);
+				}
+				buffer.asDoubleBuffer().get(prices);
+
+				List<Book> books = new ArrayList<>(count);
+				for (int i = 0; i < count; i++) {
+					books.add(new Book(ids[i], strings[titleRefs[i]], strings[authorRefs[i]],
+							strings[categoryRefs[i]], prices[i]));
+				}
+				return books;
+			} catch (RuntimeException e) {
+				throw new IOException("Corrupt book snapshot: " + file, e);
+			}
+		}
+	}
+
+	/**
+	 * Returns the number of a string in the string table, adding the string if
+	 * it is not there yet.
+	 * 
+	 * @param value      The string, may be {@code null}.
+	 * @param strings    The encoded strings, indexed by number.
+	 * @param stringRefs The numbers, keyed by string.
+	 * @return The number of the string.
+	 */
+	private static int intern(String value, List<byte[]> strings, Map<String, Integer> stringRefs) {
+		Integer ref = stringRefs.get(value);
+		if (ref == null) {
+			ref = strings.size();
+			strings.add(value == null ? null : value.getBytes(StandardCharsets.UTF_8));
+			stringRefs.put(value, ref);
+		}
+		return ref;
+	}
+}
@@ -0,0 +1,958 @@
+package com.bookapp.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+import com.bookapp.bean.Book;
+import com.bookapp.bean.BookQuery;
+import com.bookapp.bean.BookStats;
+import com.bookapp.exceptions.AuthorNotFoundException;
+import com.bookapp.exceptions.CategoryNotFoundException;
+import com.bookapp.exceptions.IdNotFoundException;
+import com.bookapp.exceptions.PriceNotAvailableException;
+import com.bookapp.exceptions.TitleNotFoundException;
+
+/**
+ * {@code CachingBookImpl} is a decorator that puts a bounded result cache in
+ * front of any {@link IBook} implementation. Repeated queries are answered
+ * from the cache instead of running the delegate's filter and sort again.
+ * 
+ * <p>
+ * Results are keyed by method name and arguments. Author, category and title
+ * arguments are case-folded first, since the lookups ignore case, so
+ * "Fiction" and "FICTION" share one entry. When the cache is full, the least
+ * recently used entry is evicted.
+ * 
+ * <p>
+ * Invalidation is precise: every entry records which new books could change
+ * its result, and {@link #addBook(Book)} only drops those entries. Adding a
+ * book by one author, for example, leaves the cached lookups of every other
+ * author in place. Listings such as {@link #getAllBooks()} are affected by
+ * every book and are always dropped. Lookups of one ID, price, title, author or
+ * category are indexed by their case-folded key, so an add finds them with one
+ * lookup per field; only queries, searches and listings are tested one by one,
+ * against keys folded once per batch.
+ * 
+ * <p>
+ * The cache is thread-safe. It is safe to share when the delegate is, as with
+ * {@link ConcurrentBookImpl}. A result computed while a book was being added is
+ * returned but not cached, so the cache never holds a stale result. The cache
+ * keeps hit, miss, eviction and invalidation counters.
+ * 
+ * <p>
+ * Every call returns a new list, so callers may change it without affecting
+ * the cache. The {@link Book} objects themselves are shared, as they are with
+ * the delegate.
+ * 
+ * @author MonigaBalasubramanian
+ * @see IBook
+ */
+public class CachingBookImpl implements IBook {
+
+	// Number of results cached when no capacity is given
+	private static final int DEFAULT_CAPACITY = 1024;
+
+	// The implementation whose results are cached
+	private final IBook delegate;
+
+	// Cached results in access order, least recently used first
+	private final LinkedHashMap<List<Object>, Entry> entries;
+
+	// Keys of the cached lookups, by the field value that could change them
+	private final Map<List<Object>, Set<List<Object>>> lookups = new HashMap<>();
+
+	// Cached results that are not lookups, tested against every added book
+	private final Map<List<Object>, Entry> scanned = new HashMap<>();
+
+	// Number of adds so far, used to detect results computed during an add
+	private long version;
+
+	// Cache counters
+	private long hitCount;
+	private long missCount;
+	private long evictionCount;
+	private long invalidationCount;
+
+	/**
+	 * Creates a cache of {@value #DEFAULT_CAPACITY} results in front of the given
+	 * implementation.
+	 * 
+	 * @param delegate The implementation whose results are cached.
+	 */
+	public CachingBookImpl(IBook delegate) {
+		this(delegate, DEFAULT_CAPACITY);
+	}
+
+	/**
+	 * Creates a cache of the given number of results in front of the given
+	 * implementation.
+	 * 
+	 * @param delegate The implementation whose results are cached.
+	 * @param capacity The maximum number of results to cache.
+	 */
+	public CachingBookImpl(IBook delegate, int capacity) {
+		super();
+		if (capacity <= 0) {
+			throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+		}
+		this.delegate = delegate;
+		this.entries = new LinkedHashMap<List<Object>, Entry>(16, 0.75f, true) {
+
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<List<Object>, Entry> eldest) {
+				if (size() > capacity) {
+					evictionCount++;
+					forget(eldest.getKey(), eldest.getValue());
+					return true;
+				}
+				return false;
+			}
+		};
+	}
+
+	/**
+	 * Adds a new {@link Book} to the delegate and drops the cached results that
+	 * the book could change.
+	 * 
+	 * @param book The {@link Book} object to be added.
+	 */
+	@Override
+	public void addBook(Book book) {
+		addBooks(Arrays.asList(book));
+	}
+
+	/**
+	 * Adds a batch of {@link Book} objects to the delegate and drops the cached
+	 * results that any of the books could change.
+	 * 
+	 * @param books The {@link Book} objects to be added.
+	 */
+	@Override
+	public void addBooks(Collection<Book> books) {
+		synchronized (entries) {
+			version++;
+		}
+		try {
+			delegate.addBooks(books);
+		} finally {
+			synchronized (entries) {
+				version++;
+				invalidate(books);
+			}
+		}
+	}
+
+	/**
+	 * Retrieves a list of all {@link Book} objects, sorted by their title.
+	 * 
+	 * @return A list of all books, sorted by title.
+	 */
+	@Override
+	public List<Book> getAllBooks() {
+		return cached(key("getAllBooks"), delegate::getAllBooks, ArrayList::new, result -> added -> true);
+	}
+
+	/**
+	 * Retrieves a list of {@link Book} objects that match the specified book ID.
+	 * 
+	 * @param bookId The ID of the book to search for.
+	 * @return A list of books with the specified ID.
+	 * @throws IdNotFoundException If no books are found with the given ID.
+	 */
+	@Override
+	public List<Book> getBookById(int bookId) throws IdNotFoundException {
+		List<Book> booksById = findBooksById(bookId);
+		if (booksById.isEmpty()) {
+			throw new IdNotFoundException("Id not found: " + bookId, false);
+		}
+		return booksById;
+	}
+
+	/**
+	 * Retrieves a list of {@link Book} objects that match the specified title.
+	 * 
+	 * @param title The title of the book to search for.
+	 * @return A list of books with the specified title.
+	 * @throws TitleNotFoundException If no books are found with the given title.
+	 */
+	@Override
+	public List<Book> getBookByTitle(String title) throws TitleNotFoundException {
+		List<Book> booksByTitle = findBooksByTitle(title);
+		if (booksByTitle.isEmpty()) {
+			throw new TitleNotFoundException("Title not found: " + title, false);
+		}
+		return booksByTitle;
+	}
+
+	/**
+	 * Retrieves a list of {@link Book} objects that match the specified author.
+	 * 
+	 * @param author The author of the book to search for.
+	 * @return A list of books with the specified author.
+	 * @throws AuthorNotFoundException If no books are found with the given author.
+	 */
+	@Override
+	public List<Book> getBookByAuthor(String author) throws AuthorNotFoundException {
+		List<Book> booksByAuthor = findBooksByAuthor(author);
+		if (booksByAuthor.isEmpty()) {
+			throw new AuthorNotFoundException("Author not found: " + author, false);
+		}
+		return booksByAuthor;
+	}
+
+	/**
+	 * Retrieves a list of {@link Book} objects that match the specified category.
+	 * 
+	 * @param category The category of the book to search for.
+	 * @return A list of books with the specified category.
+	 * @throws CategoryNotFoundException If no books are found with the given
+	 *                                   category.
+	 */
+	@Override
+	public List<Book> getBookByCategory(String category) throws CategoryNotFoundException {
+		List<Book> booksByCategory = findBooksByCategory(category);
+		if (booksByCategory.isEmpty()) {
+			throw new CategoryNotFoundException("Category not found: " + category, false);
+		}
+		return booksByCategory;
+	}
+
+	/**
+	 * Retrieves a list of {@link Book} objects that match the specified price.
+	 * 
+	 * @param price The price of the book to search for.
+	 * @return A list of books with the specified price.
+	 * @throws PriceNotAvailableException If no books are found with the given
+	 *                                    price.
+	 */
+	@Override
+	public List<Book> getBookByPrice(double price) throws PriceNotAvailableException {
+		List<Book> booksByPrice = findBooksByPrice(price);
+		if (booksByPrice.isEmpty()) {
+			throw new PriceNotAvailableException("Books are not available to this price.", false);
+		}
+		return booksByPrice;
+	}
+
+	/**
+	 * Finds the {@link Book} objects with the specified book ID.
+	 * 
+	 * @param bookId The ID of the book to search for.
+	 * @return A list of books with the specified ID, empty if there are none.
+	 */
+	@Override
+	public List<Book> findBooksById(int bookId) {
+		return cached(key("findBooksById", bookId), () -> delegate.findBooksById(bookId), ArrayList::new,
+				Arrays.asList(key("bookId", bookId)));
+	}
+
+	/**
+	 * Finds the {@link Book} objects with the specified title.
+	 * 
+	 * @param title The title of the book to search for.
+	 * @return A list of books with the specified title, empty if there are none.
+	 */
+	@Override
+	public List<Book> findBooksByTitle(String title) {
+		return cached(key("findBooksByTitle", BookImpl.foldCase(title)), () -> delegate.findBooksByTitle(title),
+				ArrayList::new, new CaseKey(title).lookups("title"));
+	}
+
+	/**
+	 * Finds the {@link Book} objects with the specified author.
+	 * 
+	 * @param author The author of the book to search for.
+	 * @return A list of books with the specified author, empty if there are none.
+	 */
+	@Override
+	public List<Book> findBooksByAuthor(String author) {
+		return cached(key("findBooksByAuthor", BookImpl.foldCase(author)), () -> delegate.findBooksByAuthor(author),
+				ArrayList::new, new CaseKey(author).lookups("author"));
+	}
+
+	/**
+	 * Finds the {@link Book} objects in the specified category.
+	 * 
+	 * @param category The category of the book to search for.
+	 * @return A list of books in the specified category, empty if there are none.
+	 */
+	@Override
+	public List<Book> findBooksByCategory(String category) {
+		return cached(key("findBooksByCategory", BookImpl.foldCase(category)),
+				() -> delegate.findBooksByCategory(category), ArrayList::new, new CaseKey(category).lookups("category"));
+	}
+
+	/**
+	 * Finds the {@link Book} objects with the specified price.
+	 * 
+	 * @param price The price of the book to search for.
+	 * @return A list of books with the specified price, empty if there are none.
+	 */
+	@Override
+	public List<Book> findBooksByPrice(double price) {
+		return cached(key("findBooksByPrice", price), () -> delegate.findBooksByPrice(price), ArrayList::new,
+				Arrays.asList(priceKey(price)));
+	}
+
+	/**
+	 * Retrieves a list of {@link Book} objects whose price lies within the given
+	 * range, cheapest first.
+	 * 
+	 * @param minPrice The lowest price to include.
+	 * @param maxPrice The highest price to include.
+	 * @return A list of books in the given price range, sorted by price.
+	 * @throws PriceNotAvailableException If no books are found in the given price
+	 *                                    range.
+	 */
+	@Override
+	public List<Book> getBooksByPriceRange(double minPrice, double maxPrice) throws PriceNotAvailableException {
+		List<Book> booksByPrice = cached(key("getBooksByPriceRange", minPrice, maxPrice), () -> {
+			try {
+				return delegate.getBooksByPriceRange(minPrice, maxPrice);
+			} catch (PriceNotAvailableException e) {
+				return null;
+			}
+		}, ArrayList::new, result -> added -> added.book.getPrice() >= minPrice && added.book.getPrice() <= maxPrice);
+		if (booksByPrice == null) {
+			throw new PriceNotAvailableException("Books are not available between " + minPrice + " and " + maxPrice,
+					false);
+		}
+		return booksByPrice;
+	}
+
+	/**
+	 * Retrieves the cheapest {@link Book} objects in the specified category.
+	 * 
+	 * @param category The category of the books to search for.
+	 * @param limit    The maximum number of books to return.
+	 * @return A list of at most {@code limit} books, sorted by price.
+	 * @throws CategoryNotFoundException If no books are found with the given
+	 *                                   category.
+	 */
+	@Override
+	public List<Book> getCheapestBooksByCategory(String category, int limit) throws CategoryNotFoundException {
+		List<Book> cheapest = cached(key("getCheapestBooksByCategory", BookImpl.foldCase(category), limit), () -> {
+			try {
+				return delegate.getCheapestBooksByCategory(category, limit);
+			} catch (CategoryNotFoundException e) {
+				return null;
+			}
+		}, ArrayList::new, new CaseKey(category).lookups("category"));
+		if (cheapest == null) {
+			throw new CategoryNotFoundException("Category not found: " + category, false);
+		}
+		return cheapest;
+	}
+
+	/**
+	 * Retrieves the most expensive {@link Book} objects, sorted by descending
+	 * price. A cached result is only dropped by a book that would enter it.
+	 * 
+	 * @param limit The maximum number of books to return.
+	 * @return A list of at most {@code limit} books.
+	 */
+	@Override
+	public List<Book> getMostExpensiveBooks(int limit) {
+		return cached(key("getMostExpensiveBooks", limit), () -> delegate.getMostExpensiveBooks(limit),
+				ArrayList::new, result -> added -> result.size() < limit
+						|| !result.isEmpty() && added.book.getPrice() >= result.get(result.size() - 1).getPrice());
+	}
+
+	/**
+	 * Answers a compound query. A cached result is only dropped by a book that
+	 * matches the criteria of the query.
+	 * 
+	 * @param query The criteria, sort order and limit.
+	 * @return A list of at most {@code query.getLimit()} matching books, possibly
+	 *         empty.
+	 */
+	@Override
+	public List<Book> query(BookQuery query) {
+		String author = query.getAuthor();
+		String category = query.getCategory();
+		String prefix = query.getTitlePrefix();
+		double minPrice = query.getMinPrice();
+		double maxPrice = query.getMaxPrice();
+		List<Object> key = key("query", BookImpl.foldCase(author), BookImpl.foldCase(category), minPrice, maxPrice,
+				prefix, query.getSortField(), query.isAscending(), query.getLimit());
+
+		// Copy the query so that later changes by the caller do not matter
+		BookQuery copy = new BookQuery();
+		copy.setAuthor(author);
+		copy.setCategory(category);
+		copy.setMinPrice(minPrice);
+		copy.setMaxPrice(maxPrice);
+		copy.setTitlePrefix(prefix);
+		copy.setSortField(query.getSortField());
+		copy.setAscending(query.isAscending());
+		copy.setLimit(query.getLimit());
+		CaseKey authorKey = author == null ? null : new CaseKey(author);
+		CaseKey categoryKey = category == null ? null : new CaseKey(category);
+		return cached(key, () -> delegate.query(copy), ArrayList::new,
+				result -> added -> added.book.getPrice() >= minPrice && added.book.getPrice() <= maxPrice
+						&& (authorKey == null || authorKey.matches(added.author))
+						&& (categoryKey == null || categoryKey.matches(added.category))
+						&& (prefix == null || added.book.getTitle() != null
+								&& added.book.getTitle().regionMatches(true, 0, prefix, 0, prefix.length())));
+	}
+
+	/**
+	 * Retrieves the price statistics of the books in the specified category.
+	 * 
+	 * @param category The category to report on.
+	 * @return The statistics of the category.
+	 * @throws CategoryNotFoundException If no books are found in the given
+	 *                                   category.
+	 */
+	@Override
+	public BookStats getCategoryStats(String category) throws CategoryNotFoundException {
+		BookStats stats = cached(key("getCategoryStats", BookImpl.foldCase(category)), () -> {
+			try {
+				return delegate.getCategoryStats(category);
+			} catch (CategoryNotFoundException e) {
+				return null;
+			}
+		}, BookStats::new, new CaseKey(category).lookups("category"));
+		if (stats == null) {
+			throw new CategoryNotFoundException("Category not found: " + category, false);
+		}
+		return stats;
+	}
+
+	/**
+	 * Retrieves the price statistics of the books by the specified author.
+	 * 
+	 * @param author The author to report on.
+	 * @return The statistics of the author.
+	 * @throws AuthorNotFoundException If no books are found with the given
+	 *                                 author.
+	 */
+	@Override
+	public BookStats getAuthorStats(String author) throws AuthorNotFoundException {
+		BookStats stats = cached(key("getAuthorStats", BookImpl.foldCase(author)), () -> {
+			try {
+				return delegate.getAuthorStats(author);
+			} catch (AuthorNotFoundException e) {
+				return null;
+			}
+		}, BookStats::new, new CaseKey(author).lookups("author"));
+		if (stats == null) {
+			throw new AuthorNotFoundException("Author not found: " + author, false);
+		}
+		return stats;
+	}
+
+	/**
+	 * Retrieves the price statistics of every category.
+	 * 
+	 * @return A list with the statistics of each category, sorted by name.
+	 */
+	@Override
+	public List<BookStats> getAllCategoryStats() {
+		return cached(key("getAllCategoryStats"), delegate::getAllCategoryStats, CachingBookImpl::copyStats,
+				result -> added -> true);
+	}
+
+	/**
+	 * Retrieves the price statistics of every author.
+	 * 
+	 * @return A list with the statistics of each author, sorted by name.
+	 */
+	@Override
+	public List<BookStats> getAllAuthorStats() {
+		return cached(key("getAllAuthorStats"), delegate::getAllAuthorStats, CachingBookImpl::copyStats,
+				result -> added -> true);
+	}
+
+	/**
+	 * Searches the titles and authors for the words of a query. A cached result
+	 * is only dropped by a book that contains every word of the query.
+	 * 
+	 * @param query The words to search for.
+	 * @param limit The maximum number of books to return.
+	 * @return A list of at most {@code limit} matching books, most relevant
+	 *         first.
+	 */
+	@Override
+	public List<Book> searchBooks(String query, int limit) {
+		List<String> words = TextIndex.tokenize(query);
+		return cached(key("searchBooks", words, limit), () -> delegate.searchBooks(query, limit), ArrayList::new,
+				result -> added -> containsWords(added.words, words, false));
+	}
+
+	/**
+	 * Suggests books for a partially typed query. A cached result is only
+	 * dropped by a book that matches the query.
+	 * 
+	 * @param prefix The partially typed query.
+	 * @param limit  The maximum number of books to return.
+	 * @return A list of at most {@code limit} matching books, most relevant
+	 *         first.
+	 */
+	@Override
+	public List<Book> autocomplete(String prefix, int limit) {
+		List<String> words = TextIndex.tokenize(prefix);
+		return cached(key("autocomplete", words, limit), () -> delegate.autocomplete(prefix, limit), ArrayList::new,
+				result -> added -> containsWords(added.words, words, true));
+	}
+
+	/**
+	 * Sorts the {@link Book} objects based on the specified field.
+	 * 
+	 * @param field The field by which to sort the books.
+	 * @return A list of books sorted by the specified field.
+	 */
+	@Override
+	public List<Book> sortByAnyField(String field) {
+		return cached(key("sortByAnyField", field), () -> delegate.sortByAnyField(field), ArrayList::new,
+				result -> added -> true);
+	}
+
+	/**
+	 * Returns one page of the {@link Book} objects sorted by the specified field.
+	 * 
+	 * @param field     The field by which to sort the books.
+	 * @param ascending {@code true} for ascending order.
+	 * @param offset    The number of books to skip.
+	 * @param limit     The maximum number of books to return.
+	 * @return A list of at most {@code limit} books sorted by the specified field.
+	 */
+	@Override
+	public List<Book> sortByAnyField(String field, boolean ascending, int offset, int limit) {
+		return cached(key("sortByAnyField", field, ascending, offset, limit),
+				() -> delegate.sortByAnyField(field, ascending, offset, limit), ArrayList::new, result -> added -> true);
+	}
+
+	/**
+	 * Returns the number of calls answered from the cache.
+	 * 
+	 * @return The hit count.
+	 */
+	public long getHitCount() {
+		synchronized (entries) {
+			return hitCount;
+		}
+	}
+
+	/**
+	 * Returns the number of calls that had to be passed to the delegate.
+	 * 
+	 * @return The miss count.
+	 */
+	public long getMissCount() {
+		synchronized (entries) {
+			return missCount;
+		}
+	}
+
+	/**
+	 * Returns the number of results dropped because the cache was full.
+	 * 
+	 * @return The eviction count.
+	 */
+	public long getEvictionCount() {
+		synchronized (entries) {
+			return evictionCount;
+		}
+	}
+
+	/**
+	 * Returns the number of results dropped because an added book could change
+	 * them.
+	 * 
+	 * @return The invalidation count.
+	 */
+	public long getInvalidationCount() {
+		synchronized (entries) {
+			return invalidationCount;
+		}
+	}
+
+	/**
+	 * Returns the number of results currently cached.
+	 * 
+	 * @return The number of cache entries.
+	 */
+	public int size() {
+		synchronized (entries) {
+			return entries.size();
+		}
+	}
+
+	/**
+	 * Drops every cached result. The counters are kept.
+	 */
+	public void clear() {
+		synchronized (entries) {
+			entries.clear();
+			lookups.clear();
+			scanned.clear();
+		}
+	}
+
+	/**
+	 * Returns a cached result, or computes it with the delegate and caches it. The
+	 * result is tested against every added book.
+	 * 
+	 * @param <T>        The type of the result.
+	 * @param key        The method name and normalised arguments.
+	 * @param loader     Computes the result with the delegate; may return
+	 *                   {@code null}, which is cached as well.
+	 * @param copier     Copies a result, so that the cached copy is never handed
+	 *                   out.
+	 * @param affectedBy Given the result, builds the test that tells whether a new
+	 *                   book could change it.
+	 * @return A copy of the result, or {@code null} if the loader returned
+	 *         {@code null}.
+	 */
+	private <T> T cached(List<Object> key, Supplier<T> loader, UnaryOperator<T> copier,
+			Function<T, Predicate<AddedBook>> affectedBy) {
+		return load(key, loader, copier, result -> new Entry(result, affectedBy.apply(result), null));
+	}
+
+	/**
+	 * Returns a cached result of a lookup, or computes it with the delegate and
+	 * caches it. The result is only dropped by a book with one of the given field
+	 * values.
+	 * 
+	 * @param <T>       The type of the result.
+	 * @param key       The method name and normalised arguments.
+	 * @param loader    Computes the result with the delegate; may return
+	 *                  {@code null}, which is cached as well.
+	 * @param copier    Copies a result, so that the cached copy is never handed
+	 *                  out.
+	 * @param dependsOn The field values, as built by {@link #key(String, Object...)},
+	 *                  of the books that could change the result.
+	 * @return A copy of the result, or {@code null} if the loader returned
+	 *         {@code null}.
+	 */
+	private <T> T cached(List<Object> key, Supplier<T> loader, UnaryOperator<T> copier,
+			List<List<Object>> dependsOn) {
+		return load(key, loader, copier, result -> new Entry(result, null, dependsOn));
+	}
+
+	/**
+	 * Returns a cached result, or computes it with the delegate and caches it.
+	 * 
+	 * @param <T>     The type of the result.
+	 * @param key     The method name and normalised arguments.
+	 * @param loader  Computes the result with the delegate; may return
+	 *                {@code null}, which is cached as well.
+	 * @param copier  Copies a result, so that the cached copy is never handed out.
+	 * @param factory Builds the cache entry for a result.
+	 * @return A copy of the result, or {@code null} if the loader returned
+	 *         {@code null}.
+	 */
+	@SuppressWarnings("unchecked")
+	private <T> T load(List<Object> key, Supplier<T> loader, UnaryOperator<T> copier, Function<T, Entry> factory) {
+		long loadVersion;
+		synchronized (entries) {
+			Entry entry = entries.get(key);
+			if (entry != null) {
+				hitCount++;
+				return entry.result == null ? null : copier.apply((T) entry.result);
+			}
+			missCount++;
+			loadVersion = version;
+		}
+
+		T result = loader.get();
+		if (result == null) {
+			synchronized (entries) {
+				if (version == loadVersion && (loadVersion & 1) == 0) {
+					store(key, factory.apply(null));
+				}
+			}
+			return null;
+		}
+		T stored = copier.apply(result);
+		synchronized (entries) {
+			// Only cache results that no concurrent add could have changed
+			if (version == loadVersion && (loadVersion & 1) == 0) {
+				store(key, factory.apply(stored));
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Drops the cached results that any of the given books could change. Must be
+	 * called while holding the lock on {@link #entries}.
+	 * 
+	 * @param books The books that were added.
+	 */
+	private void invalidate(Collection<Book> books) {
+		// Fold the keys of each book once, then look up the lookups they change
+		List<AddedBook> added = new ArrayList<>(books.size());
+		Set<List<Object>> stale = new HashSet<>();
+		for (Book book : books) {
+			AddedBook addedBook = new AddedBook(book);
+			added.add(addedBook);
+			for (List<Object> lookup : addedBook.lookups) {
+				Set<List<Object>> keys = lookups.get(lookup);
+				if (keys != null) {
+					stale.addAll(keys);
+				}
+			}
+		}
+		for (Map.Entry<List<Object>, Entry> entry : scanned.entrySet()) {
+			for (AddedBook addedBook : added) {
+				if (entry.getValue().affectedBy.test(addedBook)) {
+					stale.add(entry.getKey());
+					break;
+				}
+			}
+		}
+		for (List<Object> key : stale) {
+			Entry entry = entries.remove(key);
+			if (entry != null) {
+				forget(key, entry);
+				invalidationCount++;
+			}
+		}
+	}
+
+	/**
+	 * Caches an entry and indexes it by what could change it. Must be called while
+	 * holding the lock on {@link #entries}.
+	 * 
+	 * @param key   The method name and normalised arguments.
+	 * @param entry The entry to cache.
+	 */
+	private void store(List<Object> key, Entry entry) {
+		Entry previous = entries.put(key, entry);
+		if (previous != null) {
+			forget(key, previous);
+		}
+		if (entry.dependsOn == null) {
+			scanned.put(key, entry);
+			return;
+		}
+		for (List<Object> lookup : entry.dependsOn) {
+			lookups.computeIfAbsent(lookup, value -> new HashSet<>()).add(key);
+		}
+	}
+
+	/**
+	 * Removes an entry that has left the cache from the indexes. Must be called
+	 * while holding the lock on {@link #entries}.
+	 * 
+	 * @param key   The method name and normalised arguments.
+	 * @param entry The entry that was removed.
+	 */
+	private void forget(List<Object> key, Entry entry) {
+		if (entry.dependsOn == null) {
+			scanned.remove(key);
+			return;
+		}
+		for (List<Object> lookup : entry.dependsOn) {
+			Set<List<Object>> keys = lookups.get(lookup);
+			if (keys != null && keys.remove(key) && keys.isEmpty()) {
+				lookups.remove(lookup);
+			}
+		}
+	}
+
+	/**
+	 * Builds a cache key from a method name and its normalised arguments.
+	 * 
+	 * @param method    The name of the method.
+	 * @param arguments The normalised arguments.
+	 * @return The key.
+	 */
+	private static List<Object> key(String method, Object... arguments) {
+		List<Object> key = new ArrayList<>(arguments.length + 1);
+		key.add(method);
+		key.addAll(Arrays.asList(arguments));
+		return key;
+	}
+
+	/**
+	 * Builds the lookup key of a price. Negative zero is turned into zero, which
+	 * compares equal to it.
+	 * 
+	 * @param price The price.
+	 * @return The key.
+	 */
+	private static List<Object> priceKey(double price) {
+		return key("price", price + 0.0);
+	}
+
+	/**
+	 * Tells whether the words of a book contain every word of a query.
+	 * 
+	 * @param bookWords  The words of the title and author of the book.
+	 * @param words      The words of the query.
+	 * @param prefixLast {@code true} to match the last word as a prefix.
+	 * @return {@code true} if the book matches the query.
+	 */
+	private static boolean containsWords(List<String> bookWords, List<String> words, boolean prefixLast) {
+		if (words.isEmpty()) {
+			return false;
+		}
+		for (int i = 0; i < words.size(); i++) {
+			String word = words.get(i);
+			boolean prefix = prefixLast && i == words.size() - 1;
+			boolean found = false;
+			for (String bookWord : bookWords) {
+				if (prefix ? bookWord.startsWith(word) : bookWord.equals(word)) {
+					found = true;
+					break;
+				}
+			}
+			if (!found) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Copies a list of statistics together with the statistics themselves.
+	 * 
+	 * @param stats The list to copy.
+	 * @return A new list with copies of the statistics.
+	 */
+	private static List<BookStats> copyStats(List<BookStats> stats) {
+		List<BookStats> copy = new ArrayList<>(stats.size());
+		for (BookStats groupStats : stats) {
+			copy.add(new BookStats(groupStats));
+		}
+		return copy;
+	}
+
+	/**
+	 * A cached result together with what tells which new books could change it:
+	 * either a test, or the field values of a lookup.
+	 */
+	private static final class Entry {
+
+		// The cached result, or null if the delegate found nothing
+		private final Object result;
+
+		// Tells whether a new book could change the result, or null for a lookup
+		private final Predicate<AddedBook> affectedBy;
+
+		// Field values of the books that could change a lookup, or null
+		private final List<List<Object>> dependsOn;
+
+		/**
+		 * Creates a cache entry.
+		 * 
+		 * @param result     The cached result.
+		 * @param affectedBy The test for books that could change the result, or
+		 *                   {@code null} for a lookup.
+		 * @param dependsOn  The field values of the books that could change a
+		 *                   lookup, or {@code null}.
+		 */
+		Entry(Object result, Predicate<AddedBook> affectedBy, List<List<Object>> dependsOn) {
+			this.result = result;
+			this.affectedBy = affectedBy;
+			this.dependsOn = dependsOn;
+		}
+	}
+
+	/**
+	 * The keys of a title, author or category under which values that are equal
+	 * ignoring case coincide. Two values match if they are equal in the sense of
+	 * either {@link String#equalsIgnoreCase(String)} or the case folding of
+	 * {@link BookImpl}, so that no delegate can see a match that this key misses.
+	 */
+	private static final class CaseKey {
+
+		// The value folded as by BookImpl, or null
+		private final String folded;
+
+		// The value with every character folded as by equalsIgnoreCase, or null
+		private final String chars;
+
+		/**
+		 * Folds a value.
+		 * 
+		 * @param value The value, may be {@code null}.
+		 */
+		CaseKey(String value) {
+			this.folded = BookImpl.foldCase(value);
+			if (value == null) {
+				this.chars = null;
+				return;
+			}
+			StringBuilder builder = new StringBuilder(value.length());
+			for (int i = 0; i < value.length(); i += Character.charCount(value.codePointAt(i))) {
+				builder.appendCodePoint(Character.toLowerCase(Character.toUpperCase(value.codePointAt(i))));
+			}
+			this.chars = builder.toString();
+		}
+
+		/**
+		 * Tells whether two values are equal ignoring case.
+		 * 
+		 * @param other The key of the other value.
+		 * @return {@code true} if the values match.
+		 */
+		boolean matches(CaseKey other) {
+			return Objects.equals(folded, other.folded) || Objects.equals(chars, other.chars);
+		}
+
+		/**
+		 * Returns the lookup keys of this value in the given field.
+		 * 
+		 * @param field The name of the field.
+		 * @return The lookup keys.
+		 */
+		List<List<Object>> lookups(String field) {
+			return Arrays.asList(key(field, "folded", folded), key(field, "chars", chars));
+		}
+	}
+
+	/**
+	 * An added book with its keys folded once, so that each cache entry can be
+	 * tested against it without folding again.
+	 */
+	private static final class AddedBook {
+
+		// The book that was added
+		private final Book book;
+
+		// The folded author and category
+		private final CaseKey author;
+		private final CaseKey category;
+
+		// The words of the title and author
+		private final List<String> words;
+
+		// The lookup keys under which the book changes cached lookups
+		private final List<List<Object>> lookups = new ArrayList<>();
+
+		/**
+		 * Folds the keys of a book.
+		 * 
+		 * @param book The book that was added.
+		 */
+		AddedBook(Book book) {
+			this.book = book;
+			this.author = new CaseKey(book.getAuthor());
+			this.category = new CaseKey(book.getCategory());
+			this.words = TextIndex.tokenize(book.getTitle());
+			this.words.addAll(TextIndex.tokenize(book.getAuthor()));
+			lookups.add(key("bookId", book.getBookId()));
+			lookups.add(priceKey(book.getPrice()));
+			lookups.addAll(new CaseKey(book.getTitle()).lookups("title"));
+			lookups.addAll(author.lookups("author"));
+			lookups.addAll(category.lookups("category"));
+		}
+	}
+}
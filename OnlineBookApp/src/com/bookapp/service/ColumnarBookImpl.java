@@ -0,0 +1,900 @@
+package com.bookapp.service;
+
+import java.text.CollationKey;
+import java.text.Collator;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.IntPredicate;
+import com.bookapp.bean.Book;
+import com.bookapp.bean.BookQuery;
+import com.bookapp.bean.BookStats;
+import com.bookapp.exceptions.AuthorNotFoundException;
+import com.bookapp.exceptions.CategoryNotFoundException;
+import com.bookapp.exceptions.IdNotFoundException;
+import com.bookapp.exceptions.PriceNotAvailableException;
+import com.bookapp.exceptions.TitleNotFoundException;
+
+/**
+ * {@code ColumnarBookImpl} is an implementation of the {@link IBook} interface
+ * meant for very large catalogs. Instead of keeping one {@link Book} object per
+ * book, it stores every field in its own column.
+ * 
+ * <p>
+ * Book IDs are kept in an {@code int[]} and prices in a {@code double[]}.
+ * Authors and categories repeat across many books, so they are
+ * dictionary-encoded: each distinct value is stored once and the column only
+ * holds its {@code int} code. Titles are kept in a {@code String[]}.
+ * For sorting, the bytes of the {@link CollationKey} of every title are kept
+ * in a {@code byte[]} column and compared as unsigned bytes, and a
+ * {@link CollationKey} is kept for every distinct author and category. All of
+ * them are built once when the value is added.
+ * 
+ * <p>
+ * Filters run as tight loops over the primitive columns, and {@link Book}
+ * objects are only created for the rows that are returned. Every call
+ * therefore returns new {@link Book} instances; changing them does not change
+ * the stored catalog.
+ * 
+ * <p>
+ * The ordering of the results and the exceptions thrown when nothing matches
+ * are the same as in {@link BookImpl}.
+ * 
+ * @author MonigaBalasubramanian
+ * @see IBook
+ * @see BookImpl
+ */
+public class ColumnarBookImpl implements IBook {
+
+	// Initial capacity of the columns
+	private static final int INITIAL_CAPACITY = 16;
+
+	// Orders books by title as BookImpl does, books without a title first
+	private static final Comparator<Book> BY_TITLE = Comparator.comparing(Book::getTitle,
+			Comparator.nullsFirst(Comparator.naturalOrder()));
+
+	// Runs shorter than this are sorted by insertion before merging
+	private static final int INSERTION_SORT_THRESHOLD = 32;
+
+	// Number of books stored
+	private int size;
+
+	// Column storage, one entry per book
+	private int[] ids = new int[INITIAL_CAPACITY];
+	private String[] titles = new String[INITIAL_CAPACITY];
+	private int[] authorCodes = new int[INITIAL_CAPACITY];
+	private int[] categoryCodes = new int[INITIAL_CAPACITY];
+	private double[] prices = new double[INITIAL_CAPACITY];
+
+	// Dictionaries for the author and category columns
+	private List<String> authors = new ArrayList<>();
+	private Map<String, Integer> authorCodeByName = new HashMap<>();
+	private List<String> categories = new ArrayList<>();
+	private Map<String, Integer> categoryCodeByName = new HashMap<>();
+
+	// Inverted index over the words of the titles and authors, keyed by row
+	private TextIndex textIndex = new TextIndex();
+
+	// Compares titles, authors and categories for sorting
+	private final Collator collator;
+
+	// Collation keys of the title column, as bytes so that each row costs a
+	// single array, and of the author and category dictionaries, built once
+	// when a value is added
+	private byte[][] titleKeys = new byte[INITIAL_CAPACITY][];
+	private List<CollationKey> authorKeys = new ArrayList<>();
+	private List<CollationKey> categoryKeys = new ArrayList<>();
+
+	// Running price statistics per category and per author
+	private StatsIndex categoryStats = new StatsIndex();
+	private StatsIndex authorStats = new StatsIndex();
+
+	/**
+	 * Compares two row numbers by the values stored in those rows. It plays the
+	 * part of a {@code Comparator<Integer>} without boxing the row numbers.
+	 */
+	@FunctionalInterface
+	private interface RowOrder {
+
+		/**
+		 * Compares two rows.
+		 * 
+		 * @param row1 The first row number.
+		 * @param row2 The second row number.
+		 * @return A negative number, zero or a positive number as the first row
+		 *         sorts before, together with or after the second.
+		 */
+		int compare(int row1, int row2);
+	}
+
+	/**
+	 * Creates an empty {@code ColumnarBookImpl} that sorts titles, authors and
+	 * categories by the rules of the default locale.
+	 */
+	public ColumnarBookImpl() {
+		this(Locale.getDefault());
+	}
+
+	/**
+	 * Creates an empty {@code ColumnarBookImpl} that sorts titles, authors and
+	 * categories by the rules of the given locale.
+	 * 
+	 * @param locale The locale whose collation rules are used for sorting.
+	 */
+	public ColumnarBookImpl(Locale locale) {
+		super();
+		collator = BookImpl.sortCollator(locale);
+	}
+
+	/**
+	 * Adds a new {@link Book} by appending its fields to the columns. The
+	 * {@link Book} object itself is not kept.
+	 * 
+	 * @param book The {@link Book} object to be added.
+	 */
+	@Override
+	public void addBook(Book book) {
+		if (size == ids.length) {
+			grow(size * 2);
+		}
+		ids[size] = book.getBookId();
+		titles[size] = book.getTitle();
+		titleKeys[size] = titleKey(book.getTitle());
+		authorCodes[size] = encode(book.getAuthor(), authors, authorCodeByName);
+		if (authorKeys.size() < authors.size()) {
+			authorKeys.add(collator.getCollationKey(book.getAuthor()));
+		}
+		categoryCodes[size] = encode(book.getCategory(), categories, categoryCodeByName);
+		if (categoryKeys.size() < categories.size()) {
+			categoryKeys.add(collator.getCollationKey(book.getCategory()));
+		}
+		prices[size] = book.getPrice();
+		textIndex.add(size, book.getTitle(), book.getAuthor());
+		categoryStats.add(book.getCategory(), book.getPrice());
+		authorStats.add(book.getAuthor(), book.getPrice());
+		size++;
+	}
+
+	/**
+	 * Adds a batch of {@link Book} objects. The columns are grown once for the
+	 * whole batch.
+	 * 
+	 * @param books The {@link Book} objects to be added.
+	 */
+	@Override
+	public void addBooks(Collection<Book> books) {
+		if (size + books.size() > ids.length) {
+			grow(Math.max(size * 2, size + books.size()));
+		}
+		for (Book book : books) {
+			addBook(book);
+		}
+	}
+
+	/**
+	 * Retrieves a list of all {@link Book} objects, sorted by their title.
+	 * 
+	 * @return A list of all books, sorted by title.
+	 */
+	@Override
+	public List<Book> getAllBooks() {
+		int[] rows = new int[size];
+		for (int row = 0; row < size; row++) {
+			rows[row] = row;
+		}
+		sortRows(rows, (row1, row2) -> compareNullsFirst(titles[row1], titles[row2]));
+		List<Book> allBooks = materialize(rows);
+		return allBooks;
+	}
+
+	/**
+	 * Retrieves a list of {@link Book} objects that match the specified book ID.
+	 * Throws an {@link IdNotFoundException} if no books are found with the given
+	 * ID.
+	 * 
+	 * @param bookId The ID of the book to search for.
+	 * @return A list of books with the specified ID.
+	 * @throws IdNotFoundException If no books are found with the given ID.
+	 */
+	@Override
+	public List<Book> getBookById(int bookId) throws IdNotFoundException {
+		List<Book> booksById = findBooksById(bookId);
+		if (booksById.isEmpty()) {
+			throw new IdNotFoundException("Id not found: " + bookId, false);
+		}
+		return booksById;
+	}
+
+	/**
+	 * Finds the {@link Book} objects with the specified book ID, sorted by title.
+	 * 
+	 * @param bookId The ID of the book to search for.
+	 * @return A list of books with the specified ID, empty if there are none.
+	 */
+	@Override
+	public List<Book> findBooksById(int bookId) {
+		List<Book> booksById = select(row -> ids[row] == bookId);
+		booksById.sort(BY_TITLE);
+		return booksById;
+	}
+
+	/**
+	 * Retrieves a list of {@link Book} objects that match the specified title.
+	 * Throws a {@link TitleNotFoundException} if no books are found with the given
+	 * title.
+	 * 
+	 * @param title The title of the book to search for.
+	 * @return A list of books with the specified title.
+	 * @throws TitleNotFoundException If no books are found with the given title.
+	 */
+	@Override
+	public List<Book> getBookByTitle(String title) throws TitleNotFoundException {
+		List<Book> booksByTitle = findBooksByTitle(title);
+		if (booksByTitle.isEmpty()) {
+			throw new TitleNotFoundException("Title not found: " + title, false);
+		}
+		return booksByTitle;
+	}
+
+	/**
+	 * Finds the {@link Book} objects with the specified title.
+	 * 
+	 * @param title The title of the book to search for.
+	 * @return A list of books with the specified title, empty if there are none.
+	 */
+	@Override
+	public List<Book> findBooksByTitle(String title) {
+		return select(row -> titles[row] != null && titles[row].equalsIgnoreCase(title));
+	}
+
+	/**
+	 * Retrieves a list of {@link Book} objects that match the specified author.
+	 * Throws an {@link AuthorNotFoundException} if no books are found with the
+	 * given author.
+	 * 
+	 * @param author The author of the book to search for.
+	 * @return A list of books with the specified author.
+	 * @throws AuthorNotFoundException If no books are found with the given author.
+	 */
+	@Override
+	public List<Book> getBookByAuthor(String author) throws AuthorNotFoundException {
+		List<Book> booksByAuthor = findBooksByAuthor(author);
+		if (booksByAuthor.isEmpty()) {
+			throw new AuthorNotFoundException("Author not found: " + author, false);
+		}
+		return booksByAuthor;
+	}
+
+	/**
+	 * Finds the {@link Book} objects with the specified author, sorted by title.
+	 * 
+	 * @param author The author of the book to search for.
+	 * @return A list of books with the specified author, empty if there are none.
+	 */
+	@Override
+	public List<Book> findBooksByAuthor(String author) {
+		boolean[] codes = matchingCodes(authors, author);
+		List<Book> booksByAuthor = select(row -> codes[authorCodes[row]]);
+		booksByAuthor.sort(BY_TITLE);
+		return booksByAuthor;
+	}
+
+	/**
+	 * Retrieves a list of {@link Book} objects that match the specified category.
+	 * Throws a {@link CategoryNotFoundException} if no books are found with the
+	 * given category.
+	 * 
+	 * @param category The category of the book to search for.
+	 * @return A list of books with the specified category.
+	 * @throws CategoryNotFoundException If no books are found with the given
+	 *                                   category.
+	 */
+	@Override
+	public List<Book> getBookByCategory(String category) throws CategoryNotFoundException {
+		List<Book> booksByCategory = findBooksByCategory(category);
+		if (booksByCategory.isEmpty()) {
+			throw new CategoryNotFoundException("Category not found: " + category, false);
+		}
+		return booksByCategory;
+	}
+
+	/**
+	 * Finds the {@link Book} objects in the specified category, sorted by title.
+	 * 
+	 * @param category The category of the book to search for.
+	 * @return A list of books in the specified category, empty if there are none.
+	 */
+	@Override
+	public List<Book> findBooksByCategory(String category) {
+		boolean[] codes = matchingCodes(categories, category);
+		List<Book> booksByCategory = select(row -> codes[categoryCodes[row]]);
+		booksByCategory.sort(BY_TITLE);
+		return booksByCategory;
+	}
+
+	/**
+	 * Retrieves a list of {@link Book} objects that match the specified price.
+	 * Throws a {@link PriceNotAvailableException} if no books are found with the
+	 * given price.
+	 * 
+	 * @param price The price of the book to search for.
+	 * @return A list of books with the specified price.
+	 * @throws PriceNotAvailableException If no books are found within the specified
+	 *                                    price range.
+	 */
+	@Override
+	public List<Book> getBookByPrice(double price) throws PriceNotAvailableException {
+		List<Book> booksByPrice = findBooksByPrice(price);
+		if (booksByPrice.isEmpty()) {
+			throw new PriceNotAvailableException("Books are not available to this price.", false);
+		}
+		return booksByPrice;
+	}
+
+	/**
+	 * Finds the {@link Book} objects with the specified price, sorted by title.
+	 * Like {@link #getBookByPrice(double)}, only prices below 1000 are matched.
+	 * 
+	 * @param price The price of the book to search for.
+	 * @return A list of books with the specified price, empty if there are none.
+	 */
+	@Override
+	public List<Book> findBooksByPrice(double price) {
+		List<Book> booksByPrice = select(row -> prices[row] < 1000 && prices[row] == price);
+		booksByPrice.sort(BY_TITLE);
+		return booksByPrice;
+	}
+
+	/**
+	 * Retrieves a list of {@link Book} objects whose price lies within the given
+	 * range, cheapest first. Throws a {@link PriceNotAvailableException} if no
+	 * books are found in that range.
+	 * 
+	 * @param minPrice The lowest price to include.
+	 * @param maxPrice The highest price to include.
+	 * @return A list of books in the given price range, sorted by price.
+	 * @throws PriceNotAvailableException If no books are found in the given price
+	 *                                    range.
+	 */
+	@Override
+	public List<Book> getBooksByPriceRange(double minPrice, double maxPrice) throws PriceNotAvailableException {
+		List<Book> booksByPrice = select(row -> prices[row] >= minPrice && prices[row] <= maxPrice);
+		if (booksByPrice.isEmpty()) {
+			throw new PriceNotAvailableException("Books are not available between " + minPrice + " and " + maxPrice,
+					false);
+		}
+		booksByPrice.sort(Comparator.comparingDouble(Book::getPrice));
+		return booksByPrice;
+	}
+
+	/**
+	 * Retrieves the cheapest {@link Book} objects in the specified category.
+	 * Throws a {@link CategoryNotFoundException} if no books are found with the
+	 * given category. The category is matched by its dictionary codes and only
+	 * the rows up to the limit are kept in a bounded heap, so the books of the
+	 * category are neither all created nor sorted.
+	 * 
+	 * @param category The category of the books to search for.
+	 * @param limit    The maximum number of books to return.
+	 * @return A list of at most {@code limit} books, sorted by price.
+	 * @throws CategoryNotFoundException If no books are found with the given
+	 *                                   category.
+	 */
+	@Override
+	public List<Book> getCheapestBooksByCategory(String category, int limit) throws CategoryNotFoundException {
+		boolean[] codes = matchingCodes(categories, category);
+		IntPredicate inCategory = row -> codes[categoryCodes[row]];
+		int[] rows = topRows(inCategory, rowOrder("Price"), 0, limit);
+		if (rows.length == 0 && !anyRow(inCategory)) {
+			throw new CategoryNotFoundException("Category not found: " + category, false);
+		}
+		return materialize(rows);
+	}
+
+	/**
+	 * Retrieves the most expensive {@link Book} objects, sorted by descending
+	 * price.
+	 * 
+	 * @param limit The maximum number of books to return.
+	 * @return A list of at most {@code limit} books.
+	 */
+	@Override
+	public List<Book> getMostExpensiveBooks(int limit) {
+		return materialize(topRows(row -> true, reversed(rowOrder("Price")), 0, limit));
+	}
+
+	/**
+	 * Answers a compound query with a single scan over the columns. All criteria
+	 * are checked together for each row, author and category by their dictionary
+	 * codes, and only the rows up to the limit are kept in a bounded heap, so no
+	 * {@link Book} objects are created for rows that are not returned.
+	 * 
+	 * @param query The criteria, sort order and limit.
+	 * @return A list of at most {@code query.getLimit()} matching books, possibly
+	 *         empty.
+	 */
+	@Override
+	public List<Book> query(BookQuery query) {
+		String field = query.getSortField() == null ? "Title" : query.getSortField();
+		RowOrder order = rowOrder(field);
+		if (order == null) {
+			System.out.println("Invalid field: " + field);
+			return new ArrayList<>();
+		}
+		boolean[] authorMatches = query.getAuthor() == null ? null : matchingCodes(authors, query.getAuthor());
+		boolean[] categoryMatches = query.getCategory() == null ? null
+				: matchingCodes(categories, query.getCategory());
+		String prefix = query.getTitlePrefix() == null ? "" : query.getTitlePrefix();
+		double minPrice = query.getMinPrice();
+		double maxPrice = query.getMaxPrice();
+
+		IntPredicate filter = row -> prices[row] >= minPrice && prices[row] <= maxPrice
+				&& (authorMatches == null || authorMatches[authorCodes[row]])
+				&& (categoryMatches == null || categoryMatches[categoryCodes[row]])
+				&& (prefix.isEmpty() || titles[row] != null
+						&& titles[row].regionMatches(true, 0, prefix, 0, prefix.length()));
+		return materialize(topRows(filter, query.isAscending() ? order : reversed(order), 0, query.getLimit()));
+	}
+
+	/**
+	 * Retrieves the price statistics of the books in the specified category.
+	 * Throws a {@link CategoryNotFoundException} if no books are found in the
+	 * given category.
+	 * 
+	 * @param category The category to report on.
+	 * @return The statistics of the category.
+	 * @throws CategoryNotFoundException If no books are found in the given
+	 *                                   category.
+	 */
+	@Override
+	public BookStats getCategoryStats(String category) throws CategoryNotFoundException {
+		BookStats stats = categoryStats.get(category);
+		if (stats == null) {
+			throw new CategoryNotFoundException("Category not found: " + category, false);
+		}
+		return stats;
+	}
+
+	/**
+	 * Retrieves the price statistics of the books by the specified author.
+	 * Throws an {@link AuthorNotFoundException} if no books are found by the
+	 * given author.
+	 * 
+	 * @param author The author to report on.
+	 * @return The statistics of the author.
+	 * @throws AuthorNotFoundException If no books are found with the given
+	 *                                 author.
+	 */
+	@Override
+	public BookStats getAuthorStats(String author) throws AuthorNotFoundException {
+		BookStats stats = authorStats.get(author);
+		if (stats == null) {
+			throw new AuthorNotFoundException("Author not found: " + author, false);
+		}
+		return stats;
+	}
+
+	/**
+	 * Retrieves the price statistics of every category.
+	 * 
+	 * @return A list with the statistics of each category, sorted by name.
+	 */
+	@Override
+	public List<BookStats> getAllCategoryStats() {
+		return categoryStats.list();
+	}
+
+	/**
+	 * Retrieves the price statistics of every author.
+	 * 
+	 * @return A list with the statistics of each author, sorted by name.
+	 */
+	@Override
+	public List<BookStats> getAllAuthorStats() {
+		return authorStats.list();
+	}
+
+	/**
+	 * Searches the titles and authors for the words of a query using the text
+	 * index. Returns an empty list if nothing matches.
+	 * 
+	 * @param query The words to search for.
+	 * @param limit The maximum number of books to return.
+	 * @return A list of at most {@code limit} matching books, most relevant
+	 *         first.
+	 */
+	@Override
+	public List<Book> searchBooks(String query, int limit) {
+		return materialize(textIndex.search(query, false, limit));
+	}
+
+	/**
+	 * Suggests books for a partially typed query using the text index. The last
+	 * word of the query is matched as a prefix.
+	 * 
+	 * @param prefix The partially typed query.
+	 * @param limit  The maximum number of books to return.
+	 * @return A list of at most {@code limit} matching books, most relevant
+	 *         first.
+	 */
+	@Override
+	public List<Book> autocomplete(String prefix, int limit) {
+		return materialize(textIndex.search(prefix, true, limit));
+	}
+
+	/**
+	 * Sorts the list of {@link Book} objects based on the specified field.
+	 * 
+	 * <p>
+	 * The sorting fields can be "Title", "ID", "Author", "Category", or "Price". If
+	 * an invalid field is provided, it prints an error message. Titles, authors
+	 * and categories are compared by their precomputed collation keys.
+	 * 
+	 * @param field The field by which to sort the books.
+	 * @return A list of books sorted by the specified field.
+	 */
+	@Override
+	public List<Book> sortByAnyField(String field) {
+		RowOrder order = rowOrder(field);
+		if (order == null) {
+			System.out.println("Invalid field: " + field);
+			return new ArrayList<>();
+		}
+		// Sort the row numbers, so that only the precomputed keys are compared
+		int[] rows = new int[size];
+		for (int row = 0; row < size; row++) {
+			rows[row] = row;
+		}
+		sortRows(rows, order);
+		return materialize(rows);
+	}
+
+	/**
+	 * Returns one page of the books sorted by the specified field. Only the rows
+	 * up to the end of the page are kept in a bounded heap while the columns are
+	 * scanned, so the cost is O(n log k) for a page ending at position k instead
+	 * of a full sort.
+	 * 
+	 * <p>
+	 * If an invalid field is provided, it prints an error message.
+	 * 
+	 * @param field     The field by which to sort the books.
+	 * @param ascending {@code true} for ascending order.
+	 * @param offset    The number of books to skip.
+	 * @param limit     The maximum number of books to return.
+	 * @return A list of at most {@code limit} books sorted by the specified field.
+	 */
+	@Override
+	public List<Book> sortByAnyField(String field, boolean ascending, int offset, int limit) {
+		RowOrder order = rowOrder(field);
+		if (order == null) {
+			System.out.println("Invalid field: " + field);
+			return new ArrayList<>();
+		}
+		return materialize(topRows(row -> true, ascending ? order : reversed(order), offset, limit));
+	}
+
+	/**
+	 * Grows every column to the given capacity.
+	 * 
+	 * @param capacity The new capacity of the columns.
+	 */
+	private void grow(int capacity) {
+		ids = Arrays.copyOf(ids, capacity);
+		titles = Arrays.copyOf(titles, capacity);
+		titleKeys = Arrays.copyOf(titleKeys, capacity);
+		authorCodes = Arrays.copyOf(authorCodes, capacity);
+		categoryCodes = Arrays.copyOf(categoryCodes, capacity);
+		prices = Arrays.copyOf(prices, capacity);
+	}
+
+	/**
+	 * Returns an order of row numbers by the given field, using the same
+	 * comparisons as {@link #sortByAnyField(String)}. A missing title, author or
+	 * category has no collation key and sorts first, as in {@link BookImpl}.
+	 * 
+	 * @param field The field by which to order the rows.
+	 * @return The order, or {@code null} if the field is invalid.
+	 */
+	private RowOrder rowOrder(String field) {
+		switch (field) {
+		case "Title":
+			// The bytes of collation keys compare as unsigned bytes in the same order
+			// as the keys, and a null array sorts first
+			return (row1, row2) -> Arrays.compareUnsigned(titleKeys[row1], titleKeys[row2]);
+		case "ID":
+			return (row1, row2) -> Integer.compare(ids[row1], ids[row2]);
+		case "Author":
+			return (row1, row2) -> compareNullsFirst(authorKeys.get(authorCodes[row1]),
+					authorKeys.get(authorCodes[row2]));
+		case "Category":
+			return (row1, row2) -> compareNullsFirst(categoryKeys.get(categoryCodes[row1]),
+					categoryKeys.get(categoryCodes[row2]));
+		case "Price":
+			return (row1, row2) -> Double.compare(prices[row1], prices[row2]);
+		default:
+			return null;
+		}
+	}
+
+	/**
+	 * Returns the bytes of the collation key of a title.
+	 * 
+	 * @param title The title, may be {@code null}.
+	 * @return The bytes of the key, or {@code null} for a missing title.
+	 */
+	private byte[] titleKey(String title) {
+		return title == null ? null : collator.getCollationKey(title).toByteArray();
+	}
+
+	/**
+	 * Reverses an order of row numbers.
+	 * 
+	 * @param order The order to reverse.
+	 * @return The reversed order.
+	 */
+	private static RowOrder reversed(RowOrder order) {
+		return (row1, row2) -> order.compare(row2, row1);
+	}
+
+	/**
+	 * Compares two keys, with {@code null} before every other key.
+	 * 
+	 * @param <T>    The type of the keys.
+	 * @param first  The first key, may be {@code null}.
+	 * @param second The second key, may be {@code null}.
+	 * @return A negative number, zero or a positive number as the first key is
+	 *         less than, equal to or greater than the second.
+	 */
+	private static <T extends Comparable<? super T>> int compareNullsFirst(T first, T second) {
+		if (first == null || second == null) {
+			return first == second ? 0 : first == null ? -1 : 1;
+		}
+		return first.compareTo(second);
+	}
+
+	/**
+	 * Sorts row numbers in place with a stable merge sort, so rows that compare
+	 * equal keep their relative order. Short runs are sorted by insertion first.
+	 * 
+	 * @param rows  The row numbers to sort.
+	 * @param order The order of the rows.
+	 */
+	private static void sortRows(int[] rows, RowOrder order) {
+		int length = rows.length;
+		for (int start = 0; start < length; start += INSERTION_SORT_THRESHOLD) {
+			int end = Math.min(start + INSERTION_SORT_THRESHOLD, length);
+			for (int i = start + 1; i < end; i++) {
+				int row = rows[i];
+				int j = i - 1;
+				while (j >= start && order.compare(rows[j], row) > 0) {
+					rows[j + 1] = rows[j];
+					j--;
+				}
+				rows[j + 1] = row;
+			}
+		}
+		int[] source = rows;
+		int[] target = new int[length];
+		for (int width = INSERTION_SORT_THRESHOLD; width < length; width *= 2) {
+			for (int low = 0; low < length; low += 2 * width) {
+				int mid = Math.min(low + width, length);
+				int high = Math.min(low + 2 * width, length);
+				int left = low;
+				int right = mid;
+				for (int i = low; i < high; i++) {
+					// Taking from the left run on ties keeps the sort stable
+					if (left < mid && (right >= high || order.compare(source[left], source[right]) <= 0)) {
+						target[i] = source[left++];
+					} else {
+						target[i] = source[right++];
+					}
+				}
+			}
+			int[] merged = target;
+			target = source;
+			source = merged;
+		}
+		if (source != rows) {
+			System.arraycopy(source, 0, rows, 0, length);
+		}
+	}
+
+	/**
+	 * Selects one page of the rows accepted by a filter, in the given order,
+	 * using a bounded heap. Rows that compare equal are ordered by row number,
+	 * which keeps insertion order as a stable sort would.
+	 * 
+	 * @param filter The filter applied to each row number.
+	 * @param order  The order of the rows.
+	 * @param offset The number of rows to skip.
+	 * @param limit  The maximum number of rows to return.
+	 * @return The row numbers of the page, in order.
+	 */
+	private int[] topRows(IntPredicate filter, RowOrder order, int offset, int limit) {
+		int skip = Math.max(0, offset);
+		int keep = (int) Math.min(size, (long) skip + Math.max(0, limit));
+		if (keep <= skip) {
+			return new int[0];
+		}
+
+		// Binary max-heap of row numbers holding the best rows seen so far, worst
+		// on top
+		RowOrder stable = (row1, row2) -> {
+			int result = order.compare(row1, row2);
+			return result != 0 ? result : Integer.compare(row1, row2);
+		};
+		int[] heap = new int[keep];
+		int count = 0;
+		for (int row = 0; row < size; row++) {
+			if (!filter.test(row)) {
+				continue;
+			}
+			if (count < keep) {
+				heap[count] = row;
+				siftUp(heap, count++, stable);
+			} else if (stable.compare(row, heap[0]) < 0) {
+				heap[0] = row;
+				siftDown(heap, count, stable);
+			}
+		}
+
+		if (count <= skip) {
+			return new int[0];
+		}
+		int[] page = new int[count - skip];
+		for (int i = count - 1; i >= skip; i--) {
+			page[i - skip] = heap[0];
+			heap[0] = heap[i];
+			siftDown(heap, i, stable);
+		}
+		return page;
+	}
+
+	/**
+	 * Moves the row at the given position of a max-heap up until its parent is
+	 * not smaller.
+	 * 
+	 * @param heap     The heap of row numbers.
+	 * @param position The position of the row to move.
+	 * @param order    The order of the rows.
+	 */
+	private static void siftUp(int[] heap, int position, RowOrder order) {
+		int row = heap[position];
+		while (position > 0) {
+			int parent = (position - 1) >>> 1;
+			if (order.compare(heap[parent], row) >= 0) {
+				break;
+			}
+			heap[position] = heap[parent];
+			position = parent;
+		}
+		heap[position] = row;
+	}
+
+	/**
+	 * Moves the row at the top of a max-heap down until no child is larger.
+	 * 
+	 * @param heap  The heap of row numbers.
+	 * @param count The number of rows in the heap.
+	 * @param order The order of the rows.
+	 */
+	private static void siftDown(int[] heap, int count, RowOrder order) {
+		int row = heap[0];
+		int position = 0;
+		while (true) {
+			int child = 2 * position + 1;
+			if (child >= count) {
+				break;
+			}
+			if (child + 1 < count && order.compare(heap[child + 1], heap[child]) > 0) {
+				child++;
+			}
+			if (order.compare(row, heap[child]) >= 0) {
+				break;
+			}
+			heap[position] = heap[child];
+			position = child;
+		}
+		heap[position] = row;
+	}
+
+	/**
+	 * Scans the columns and materialises a {@link Book} for every row accepted by
+	 * the filter, in insertion order.
+	 * 
+	 * @param filter The filter applied to each row number.
+	 * @return A new list with the matching books.
+	 */
+	private List<Book> select(IntPredicate filter) {
+		List<Book> matches = new ArrayList<>();
+		for (int row = 0; row < size; row++) {
+			if (filter.test(row)) {
+				matches.add(materialize(row));
+			}
+		}
+		return matches;
+	}
+
+	/**
+	 * Materialises a {@link Book} for each of the given rows, in the same order.
+	 * 
+	 * @param rows The row numbers.
+	 * @return A new list with the books of those rows.
+	 */
+	private List<Book> materialize(int[] rows) {
+		List<Book> matches = new ArrayList<>(rows.length);
+		for (int row : rows) {
+			matches.add(materialize(row));
+		}
+		return matches;
+	}
+
+	/**
+	 * Creates a {@link Book} from the values stored in the given row.
+	 * 
+	 * @param row The row number.
+	 * @return A new {@link Book} with the values of that row.
+	 */
+	private Book materialize(int row) {
+		return new Book(ids[row], titles[row], authors.get(authorCodes[row]), categories.get(categoryCodes[row]),
+				prices[row]);
+	}
+
+	/**
+	 * Returns the dictionary code of a value, adding the value to the dictionary
+	 * if it is not there yet.
+	 * 
+	 * @param value      The value to encode.
+	 * @param dictionary The distinct values, indexed by code.
+	 * @param codes      The codes, keyed by value.
+	 * @return The code of the value.
+	 */
+	private static int encode(String value, List<String> dictionary, Map<String, Integer> codes) {
+		Integer code = codes.get(value);
+		if (code == null) {
+			code = dictionary.size();
+			dictionary.add(value);
+			codes.put(value, code);
+		}
+		return code;
+	}
+
+	/**
+	 * Marks the dictionary codes whose value is equal to the given value, ignoring
+	 * case. The dictionary is small compared to the column, so this is much
+	 * cheaper than comparing the strings of every row.
+	 * 
+	 * @param dictionary The distinct values, indexed by code.
+	 * @param value      The value to match.
+	 * @return An array with {@code true} at every matching code.
+	 */
+	private static boolean[] matchingCodes(List<String> dictionary, String value) {
+		boolean[] matches = new boolean[dictionary.size()];
+		for (int code = 0; code < matches.length; code++) {
+			String entry = dictionary.get(code);
+			matches[code] = entry != null && entry.equalsIgnoreCase(value);
+		}
+		return matches;
+	}
+
+	/**
+	 * Tells whether a filter accepts any row.
+	 * 
+	 * @param filter The filter applied to each row number.
+	 * @return {@code true} if at least one row is accepted.
+	 */
+	private boolean anyRow(IntPredicate filter) {
+		for (int row = 0; row < size; row++) {
+			if (filter.test(row)) {
+				return true;
+			}
+		}
+		return false;
+	}
+}
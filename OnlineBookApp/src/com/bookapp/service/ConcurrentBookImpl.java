@@ -0,0 +1,396 @@
+package com.bookapp.service;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.locks.ReentrantLock;
+import com.bookapp.bean.Book;
+import com.bookapp.bean.BookQuery;
+import com.bookapp.bean.BookStats;
+import com.bookapp.exceptions.AuthorNotFoundException;
+import com.bookapp.exceptions.CategoryNotFoundException;
+import com.bookapp.exceptions.IdNotFoundException;
+import com.bookapp.exceptions.PriceNotAvailableException;
+import com.bookapp.exceptions.TitleNotFoundException;
+
+/**
+ * {@code ConcurrentBookImpl} is a thread-safe implementation of the
+ * {@link IBook} interface for catalogs that are read far more often than they
+ * are changed. A single instance can be shared by any number of threads.
+ * 
+ * <p>
+ * The books are held in an immutable snapshot, which is a {@link BookImpl}
+ * that is never changed once it has been published. Readers simply use the
+ * current snapshot; they take no lock and never wait for a writer.
+ * 
+ * <p>
+ * {@link #addBook(Book)} copies the current snapshot, adds the book to the
+ * copy and publishes the copy as the new snapshot. Writers are serialised by a
+ * lock, and each write costs a copy of the catalog, so this class suits
+ * workloads with many reads per write.
+ * 
+ * @author MonigaBalasubramanian
+ * @see IBook
+ * @see BookImpl
+ */
+public class ConcurrentBookImpl implements IBook {
+
+	// Current snapshot, replaced as a whole on every write
+	private volatile BookImpl snapshot;
+
+	// Serialises writers
+	private final ReentrantLock writeLock = new ReentrantLock();
+
+	/**
+	 * Creates an empty {@code ConcurrentBookImpl} that sorts titles, authors and
+	 * categories by the rules of the default locale.
+	 */
+	public ConcurrentBookImpl() {
+		this(Locale.getDefault());
+	}
+
+	/**
+	 * Creates an empty {@code ConcurrentBookImpl} that sorts titles, authors and
+	 * categories by the rules of the given locale.
+	 * 
+	 * @param locale The locale whose collation rules are used for sorting.
+	 */
+	public ConcurrentBookImpl(Locale locale) {
+		super();
+		snapshot = new BookImpl(locale);
+	}
+
+	/**
+	 * Adds a new {@link Book} by publishing a new snapshot that contains it.
+	 * Readers see either the old or the new snapshot, never a partial update.
+	 * 
+	 * @param book The {@link Book} object to be added.
+	 */
+	@Override
+	public void addBook(Book book) {
+		writeLock.lock();
+		try {
+			BookImpl next = new BookImpl(snapshot);
+			next.addBook(book);
+			snapshot = next;
+		} finally {
+			writeLock.unlock();
+		}
+	}
+
+	/**
+	 * Adds a batch of {@link Book} objects by publishing a single new snapshot
+	 * that contains all of them, so the catalog is copied once per batch.
+	 * 
+	 * @param books The {@link Book} objects to be added.
+	 */
+	@Override
+	public void addBooks(Collection<Book> books) {
+		writeLock.lock();
+		try {
+			BookImpl next = new BookImpl(snapshot);
+			next.addBooks(books);
+			snapshot = next;
+		} finally {
+			writeLock.unlock();
+		}
+	}
+
+	/**
+	 * Retrieves a list of all {@link Book} objects from the current snapshot,
+	 * sorted by their title.
+	 * 
+	 * @return A list of all books, sorted by title.
+	 */
+	@Override
+	public List<Book> getAllBooks() {
+		return snapshot.getAllBooks();
+	}
+
+	/**
+	 * Retrieves a list of {@link Book} objects from the current snapshot that
+	 * match the specified book ID.
+	 * 
+	 * @param bookId The ID of the book to search for.
+	 * @return A list of books with the specified ID.
+	 * @throws IdNotFoundException If no books are found with the given ID.
+	 */
+	@Override
+	public List<Book> getBookById(int bookId) throws IdNotFoundException {
+		return snapshot.getBookById(bookId);
+	}
+
+	/**
+	 * Retrieves a list of {@link Book} objects from the current snapshot that
+	 * match the specified title.
+	 * 
+	 * @param title The title of the book to search for.
+	 * @return A list of books with the specified title.
+	 * @throws TitleNotFoundException If no books are found with the given title.
+	 */
+	@Override
+	public List<Book> getBookByTitle(String title) throws TitleNotFoundException {
+		return snapshot.getBookByTitle(title);
+	}
+
+	/**
+	 * Retrieves a list of {@link Book} objects from the current snapshot that
+	 * match the specified author.
+	 * 
+	 * @param author The author of the book to search for.
+	 * @return A list of books with the specified author.
+	 * @throws AuthorNotFoundException If no books are found with the given author.
+	 */
+	@Override
+	public List<Book> getBookByAuthor(String author) throws AuthorNotFoundException {
+		return snapshot.getBookByAuthor(author);
+	}
+
+	/**
+	 * Retrieves a list of {@link Book} objects from the current snapshot that
+	 * match the specified category.
+	 * 
+	 * @param category The category of the book to search for.
+	 * @return A list of books with the specified category.
+	 * @throws CategoryNotFoundException If no books are found with the given
+	 *                                   category.
+	 */
+	@Override
+	public List<Book> getBookByCategory(String category) throws CategoryNotFoundException {
+		return snapshot.getBookByCategory(category);
+	}
+
+	/**
+	 * Retrieves a list of {@link Book} objects from the current snapshot that
+	 * match the specified price.
+	 * 
+	 * @param price The price of the book to search for.
+	 * @return A list of books with the specified price.
+	 * @throws PriceNotAvailableException If no books are found with the given
+	 *                                    price.
+	 */
+	@Override
+	public List<Book> getBookByPrice(double price) throws PriceNotAvailableException {
+		return snapshot.getBookByPrice(price);
+	}
+
+	/**
+	 * Finds the {@link Book} objects of the current snapshot
+	 * with the specified book ID.
+	 * 
+	 * @param bookId The ID of the book to search for.
+	 * @return A list of matching books, empty if there are none.
+	 */
+	@Override
+	public List<Book> findBooksById(int bookId) {
+		return snapshot.findBooksById(bookId);
+	}
+
+	/**
+	 * Finds the {@link Book} objects of the current snapshot
+	 * with the specified title.
+	 * 
+	 * @param title The title of the book to search for.
+	 * @return A list of matching books, empty if there are none.
+	 */
+	@Override
+	public List<Book> findBooksByTitle(String title) {
+		return snapshot.findBooksByTitle(title);
+	}
+
+	/**
+	 * Finds the {@link Book} objects of the current snapshot
+	 * with the specified author.
+	 * 
+	 * @param author The author of the book to search for.
+	 * @return A list of matching books, empty if there are none.
+	 */
+	@Override
+	public List<Book> findBooksByAuthor(String author) {
+		return snapshot.findBooksByAuthor(author);
+	}
+
+	/**
+	 * Finds the {@link Book} objects of the current snapshot
+	 * in the specified category.
+	 * 
+	 * @param category The category of the book to search for.
+	 * @return A list of matching books, empty if there are none.
+	 */
+	@Override
+	public List<Book> findBooksByCategory(String category) {
+		return snapshot.findBooksByCategory(category);
+	}
+
+	/**
+	 * Finds the {@link Book} objects of the current snapshot
+	 * with the specified price.
+	 * 
+	 * @param price The price of the book to search for.
+	 * @return A list of matching books, empty if there are none.
+	 */
+	@Override
+	public List<Book> findBooksByPrice(double price) {
+		return snapshot.findBooksByPrice(price);
+	}
+
+	/**
+	 * Retrieves a list of {@link Book} objects from the current snapshot whose
+	 * price lies within the given range, cheapest first.
+	 * 
+	 * @param minPrice The lowest price to include.
+	 * @param maxPrice The highest price to include.
+	 * @return A list of books in the given price range, sorted by price.
+	 * @throws PriceNotAvailableException If no books are found in the given price
+	 *                                    range.
+	 */
+	@Override
+	public List<Book> getBooksByPriceRange(double minPrice, double maxPrice) throws PriceNotAvailableException {
+		return snapshot.getBooksByPriceRange(minPrice, maxPrice);
+	}
+
+	/**
+	 * Retrieves the cheapest {@link Book} objects in the specified category from
+	 * the current snapshot.
+	 * 
+	 * @param category The category of the books to search for.
+	 * @param limit    The maximum number of books to return.
+	 * @return A list of at most {@code limit} books, sorted by price.
+	 * @throws CategoryNotFoundException If no books are found with the given
+	 *                                   category.
+	 */
+	@Override
+	public List<Book> getCheapestBooksByCategory(String category, int limit) throws CategoryNotFoundException {
+		return snapshot.getCheapestBooksByCategory(category, limit);
+	}
+
+	/**
+	 * Retrieves the most expensive {@link Book} objects from the current snapshot,
+	 * sorted by descending price.
+	 * 
+	 * @param limit The maximum number of books to return.
+	 * @return A list of at most {@code limit} books.
+	 */
+	@Override
+	public List<Book> getMostExpensiveBooks(int limit) {
+		return snapshot.getMostExpensiveBooks(limit);
+	}
+
+	/**
+	 * Answers a compound query against the current snapshot.
+	 * 
+	 * @param query The criteria, sort order and limit.
+	 * @return A list of at most {@code query.getLimit()} matching books, possibly
+	 *         empty.
+	 */
+	@Override
+	public List<Book> query(BookQuery query) {
+		return snapshot.query(query);
+	}
+
+	/**
+	 * Retrieves the price statistics of the books in the specified category from
+	 * the current snapshot. Throws a {@link CategoryNotFoundException} if no
+	 * books are found in the given category.
+	 * 
+	 * @param category The category to report on.
+	 * @return The statistics of the category.
+	 * @throws CategoryNotFoundException If no books are found in the given
+	 *                                   category.
+	 */
+	@Override
+	public BookStats getCategoryStats(String category) throws CategoryNotFoundException {
+		return snapshot.getCategoryStats(category);
+	}
+
+	/**
+	 * Retrieves the price statistics of the books by the specified author from
+	 * the current snapshot. Throws an {@link AuthorNotFoundException} if no books
+	 * are found by the given author.
+	 * 
+	 * @param author The author to report on.
+	 * @return The statistics of the author.
+	 * @throws AuthorNotFoundException If no books are found with the given
+	 *                                 author.
+	 */
+	@Override
+	public BookStats getAuthorStats(String author) throws AuthorNotFoundException {
+		return snapshot.getAuthorStats(author);
+	}
+
+	/**
+	 * Retrieves the price statistics of every category from the current
+	 * snapshot.
+	 * 
+	 * @return A list with the statistics of each category, sorted by name.
+	 */
+	@Override
+	public List<BookStats> getAllCategoryStats() {
+		return snapshot.getAllCategoryStats();
+	}
+
+	/**
+	 * Retrieves the price statistics of every author from the current
+	 * snapshot.
+	 * 
+	 * @return A list with the statistics of each author, sorted by name.
+	 */
+	@Override
+	public List<BookStats> getAllAuthorStats() {
+		return snapshot.getAllAuthorStats();
+	}
+
+	/**
+	 * Searches the titles and authors of the current snapshot for the words of a
+	 * query.
+	 * 
+	 * @param query The words to search for.
+	 * @param limit The maximum number of books to return.
+	 * @return A list of at most {@code limit} matching books, most relevant
+	 *         first.
+	 */
+	@Override
+	public List<Book> searchBooks(String query, int limit) {
+		return snapshot.searchBooks(query, limit);
+	}
+
+	/**
+	 * Suggests books from the current snapshot for a partially typed query.
+	 * 
+	 * @param prefix The partially typed query.
+	 * @param limit  The maximum number of books to return.
+	 * @return A list of at most {@code limit} matching books, most relevant
+	 *         first.
+	 */
+	@Override
+	public List<Book> autocomplete(String prefix, int limit) {
+		return snapshot.autocomplete(prefix, limit);
+	}
+
+	/**
+	 * Sorts the {@link Book} objects of the current snapshot based on the
+	 * specified field.
+	 * 
+	 * @param field The field by which to sort the books.
+	 * @return A list of books sorted by the specified field.
+	 */
+	@Override
+	public List<Book> sortByAnyField(String field) {
+		return snapshot.sortByAnyField(field);
+	}
+
+	/**
+	 * Returns one page of the {@link Book} objects of the current snapshot sorted
+	 * by the specified field.
+	 * 
+	 * @param field     The field by which to sort the books.
+	 * @param ascending {@code true} for ascending order.
+	 * @param offset    The number of books to skip.
+	 * @param limit     The maximum number of books to return.
+	 * @return A list of at most {@code limit} books sorted by the specified field.
+	 */
+	@Override
+	public List<Book> sortByAnyField(String field, boolean ascending, int offset, int limit) {
+		return snapshot.sortByAnyField(field, ascending, offset, limit);
+	}
+}
@@ -0,0 +1,430 @@
+package com.bookapp.service;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.List;
+import com.bookapp.bean.Book;
+import com.bookapp.bean.BookQuery;
+import com.bookapp.bean.BookStats;
+import com.bookapp.exceptions.AuthorNotFoundException;
+import com.bookapp.exceptions.CategoryNotFoundException;
+import com.bookapp.exceptions.IdNotFoundException;
+import com.bookapp.exceptions.PriceNotAvailableException;
+import com.bookapp.exceptions.TitleNotFoundException;
+
+/**
+ * {@code DurableBookImpl} is an implementation of the {@link IBook} interface
+ * that keeps its books across restarts. It wraps another implementation, which
+ * holds the books in memory and answers every query, and records every added
+ * book in a write-ahead log file before handing it to that implementation.
+ * 
+ * <p>
+ * When a {@code DurableBookImpl} is created for an existing log file, the
+ * books in the log are added to the wrapped implementation again, so the
+ * catalog is rebuilt as it was before the program stopped or crashed. An add
+ * returns only once its book is on disk.
+ * 
+ * <p>
+ * Adds from different threads that arrive together are written and forced to
+ * disk as one group, so concurrent adds share the cost of reaching the disk.
+ * A single thread adding books one by one pays for one disk force per book;
+ * {@link #addBooks(Collection)} pays for one per batch. A
+ * {@code DurableBookImpl} is as thread-safe as the implementation it wraps:
+ * wrap a {@link StripedBookImpl} or a {@link ConcurrentBookImpl} to share it
+ * between threads.
+ * 
+ * <p>
+ * Example usage:
+ * 
+ * <pre>
+ * try (DurableBookImpl books = new DurableBookImpl(new StripedBookImpl(), Path.of("books.log"))) {
+ * 	books.addBook(new Book(1, "Java", "James", "Education", 450));
+ * }
+ * </pre>
+ * 
+ * @author MonigaBalasubramanian
+ * @see IBook
+ * @see BookLog
+ */
+public class DurableBookImpl implements IBook, Closeable {
+
+	// Holds the books and answers every query
+	private final IBook delegate;
+
+	// Records every add before it is applied
+	private final BookLog log;
+
+	/**
+	 * Creates a {@code DurableBookImpl} that logs to the given file. If the file
+	 * already exists, the books recorded in it are added to {@code delegate}
+	 * first, in the order in which they were logged.
+	 * 
+	 * @param delegate The implementation that holds the books, normally empty.
+	 * @param logFile  The log file, created if it does not exist.
+	 * @throws IOException If the log file cannot be opened or read, is not a book
+	 *                     log, has a damaged record before its last one, or
+	 *                     holds a book that {@code delegate} rejects.
+	 */
+	public DurableBookImpl(IBook delegate, Path logFile) throws IOException {
+		super();
+		this.delegate = delegate;
+		this.log = new BookLog(logFile, delegate::addBooks);
+	}
+
+	/**
+	 * Adds a new {@link Book} once it has been written to the log and forced to
+	 * disk.
+	 * 
+	 * @param book The {@link Book} object to be added.
+	 * @throws IllegalArgumentException If the book is {@code null}. Nothing is
+	 *                                  logged.
+	 * @throws UncheckedIOException     If the log cannot be written. The book is
+	 *                                  not added, though it may be found in the
+	 *                                  log when the log is opened again.
+	 */
+	@Override
+	public void addBook(Book book) {
+		checkBook(book);
+		try {
+			log.append(book);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		delegate.addBook(book);
+	}
+
+	/**
+	 * Adds a batch of {@link Book} objects once all of them have been written to
+	 * the log and forced to disk together.
+	 * 
+	 * @param books The {@link Book} objects to be added.
+	 * @throws IllegalArgumentException If the batch or one of its books is
+	 *                                  {@code null}. Nothing is logged.
+	 * @throws UncheckedIOException     If the log cannot be written. None of the
+	 *                                  books are added, though they may be found
+	 *                                  in the log when the log is opened again.
+	 */
+	@Override
+	public void addBooks(Collection<Book> books) {
+		if (books == null) {
+			throw new IllegalArgumentException("Books must not be null");
+		}
+		for (Book book : books) {
+			checkBook(book);
+		}
+		try {
+			log.append(books);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		delegate.addBooks(books);
+	}
+
+	/**
+	 * Rejects a book that the wrapped implementation could not add. This is
+	 * checked before the book is logged: a logged book that cannot be added would
+	 * be replayed, and fail, every time the log is opened.
+	 * 
+	 * @param book The book to check.
+	 * @throws IllegalArgumentException If the book is {@code null}.
+	 */
+	private static void checkBook(Book book) {
+		if (book == null) {
+			throw new IllegalArgumentException("Book must not be null");
+		}
+	}
+
+	/**
+	 * Closes the log file. Books can no longer be added afterwards, but the
+	 * catalog can still be queried.
+	 * 
+	 * @throws IOException If the log file cannot be closed.
+	 */
+	@Override
+	public void close() throws IOException {
+		log.close();
+	}
+
+	/**
+	 * Retrieves a list of all {@link Book} objects, sorted by their title.
+	 * 
+	 * @return A list of all books, sorted by title.
+	 */
+	@Override
+	public List<Book> getAllBooks() {
+		return delegate.getAllBooks();
+	}
+
+	/**
+	 * Retrieves a list of {@link Book} objects that match the specified book ID.
+	 * 
+	 * @param bookId The ID of the book to search for.
+	 * @return A list of books with the specified ID.
+	 * @throws IdNotFoundException If no books are found with the given ID.
+	 */
+	@Override
+	public List<Book> getBookById(int bookId) throws IdNotFoundException {
+		return delegate.getBookById(bookId);
+	}
+
+	/**
+	 * Retrieves a list of {@link Book} objects that match the specified title.
+	 * 
+	 * @param title The title of the book to search for.
+	 * @return A list of books with the specified title.
+	 * @throws TitleNotFoundException If no books are found with the given title.
+	 */
+	@Override
+	public List<Book> getBookByTitle(String title) throws TitleNotFoundException {
+		return delegate.getBookByTitle(title);
+	}
+
+	/**
+	 * Retrieves a list of {@link Book} objects that match the specified author.
+	 * 
+	 * @param author The author of the book to search for.
+	 * @return A list of books with the specified author.
+	 * @throws AuthorNotFoundException If no books are found with the given author.
+	 */
+	@Override
+	public List<Book> getBookByAuthor(String author) throws AuthorNotFoundException {
+		return delegate.getBookByAuthor(author);
+	}
+
+	/**
+	 * Retrieves a list of {@link Book} objects that match the specified category.
+	 * 
+	 * @param category The category of the book to search for.
+	 * @return A list of books with the specified category.
+	 * @throws CategoryNotFoundException If no books are found with the given
+	 *                                   category.
+	 */
+	@Override
+	public List<Book> getBookByCategory(String category) throws CategoryNotFoundException {
+		return delegate.getBookByCategory(category);
+	}
+
+	/**
+	 * Retrieves a list of {@link Book} objects that match the specified price.
+	 * 
+	 * @param price The price of the book to search for.
+	 * @return A list of books with the specified price.
+	 * @throws PriceNotAvailableException If no books are found with the given
+	 *                                    price.
+	 */
+	@Override
+	public List<Book> getBookByPrice(double price) throws PriceNotAvailableException {
+		return delegate.getBookByPrice(price);
+	}
+
+	/**
+	 * Finds the {@link Book} objects with the specified book ID.
+	 * 
+	 * @param bookId The ID of the book to search for.
+	 * @return A list of matching books, empty if there are none.
+	 */
+	@Override
+	public List<Book> findBooksById(int bookId) {
+		return delegate.findBooksById(bookId);
+	}
+
+	/**
+	 * Finds the {@link Book} objects with the specified title.
+	 * 
+	 * @param title The title of the book to search for.
+	 * @return A list of matching books, empty if there are none.
+	 */
+	@Override
+	public List<Book> findBooksByTitle(String title) {
+		return delegate.findBooksByTitle(title);
+	}
+
+	/**
+	 * Finds the {@link Book} objects with the specified author.
+	 * 
+	 * @param author The author of the book to search for.
+	 * @return A list of matching books, empty if there are none.
+	 */
+	@Override
+	public List<Book> findBooksByAuthor(String author) {
+		return delegate.findBooksByAuthor(author);
+	}
+
+	/**
+	 * Finds the {@link Book} objects in the specified category.
+	 * 
+	 * @param category The category of the book to search for.
+	 * @return A list of matching books, empty if there are none.
+	 */
+	@Override
+	public List<Book> findBooksByCategory(String category) {
+		return delegate.findBooksByCategory(category);
+	}
+
+	/**
+	 * Finds the {@link Book} objects with the specified price.
+	 * 
+	 * @param price The price of the book to search for.
+	 * @return A list of matching books, empty if there are none.
+	 */
+	@Override
+	public List<Book> findBooksByPrice(double price) {
+		return delegate.findBooksByPrice(price);
+	}
+
+	/**
+	 * Retrieves a list of {@link Book} objects whose price lies within the given
+	 * range, cheapest first.
+	 * 
+	 * @param minPrice The lowest price to include.
+	 * @param maxPrice The highest price to include.
+	 * @return A list of books in the given price range, sorted by price.
+	 * @throws PriceNotAvailableException If no books are found in the given price
+	 *                                    range.
+	 */
+	@Override
+	public List<Book> getBooksByPriceRange(double minPrice, double maxPrice) throws PriceNotAvailableException {
+		return delegate.getBooksByPriceRange(minPrice, maxPrice);
+	}
+
+	/**
+	 * Retrieves the cheapest {@link Book} objects in the specified category.
+	 * 
+	 * @param category The category of the books to search for.
+	 * @param limit    The maximum number of books to return.
+	 * @return A list of at most {@code limit} books, sorted by price.
+	 * @throws CategoryNotFoundException If no books are found with the given
+	 *                                   category.
+	 */
+	@Override
+	public List<Book> getCheapestBooksByCategory(String category, int limit) throws CategoryNotFoundException {
+		return delegate.getCheapestBooksByCategory(category, limit);
+	}
+
+	/**
+	 * Retrieves the most expensive {@link Book} objects, sorted by descending
+	 * price.
+	 * 
+	 * @param limit The maximum number of books to return.
+	 * @return A list of at most {@code limit} books.
+	 */
+	@Override
+	public List<Book> getMostExpensiveBooks(int limit) {
+		return delegate.getMostExpensiveBooks(limit);
+	}
+
+	/**
+	 * Answers a compound query.
+	 * 
+	 * @param query The criteria, sort order and limit.
+	 * @return A list of at most {@code query.getLimit()} matching books, possibly
+	 *         empty.
+	 */
+	@Override
+	public List<Book> query(BookQuery query) {
+		return delegate.query(query);
+	}
+
+	/**
+	 * Retrieves the price statistics of the books in the specified category. Throws
+	 * a {@link CategoryNotFoundException} if no books are found in the given
+	 * category.
+	 * 
+	 * @param category The category to report on.
+	 * @return The statistics of the category.
+	 * @throws CategoryNotFoundException If no books are found in the given
+	 *                                   category.
+	 */
+	@Override
+	public BookStats getCategoryStats(String category) throws CategoryNotFoundException {
+		return delegate.getCategoryStats(category);
+	}
+
+	/**
+	 * Retrieves the price statistics of the books by the specified author. Throws
+	 * an {@link AuthorNotFoundException} if no books are found by the given author.
+	 * 
+	 * @param author The author to report on.
+	 * @return The statistics of the author.
+	 * @throws AuthorNotFoundException If no books are found with the given
+	 *                                 author.
+	 */
+	@Override
+	public BookStats getAuthorStats(String author) throws AuthorNotFoundException {
+		return delegate.getAuthorStats(author);
+	}
+
+	/**
+	 * Retrieves the price statistics of every category.
+	 * 
+	 * @return A list with the statistics of each category, sorted by name.
+	 */
+	@Override
+	public List<BookStats> getAllCategoryStats() {
+		return delegate.getAllCategoryStats();
+	}
+
+	/**
+	 * Retrieves the price statistics of every author.
+	 * 
+	 * @return A list with the statistics of each author, sorted by name.
+	 */
+	@Override
+	public List<BookStats> getAllAuthorStats() {
+		return delegate.getAllAuthorStats();
+	}
+
+	/**
+	 * Searches the titles and authors of the catalog for the words of a query.
+	 * 
+	 * @param query The words to search for.
+	 * @param limit The maximum number of books to return.
+	 * @return A list of at most {@code limit} matching books, most relevant
+	 *         first.
+	 */
+	@Override
+	public List<Book> searchBooks(String query, int limit) {
+		return delegate.searchBooks(query, limit);
+	}
+
+	/**
+	 * Suggests books for a partially typed query.
+	 * 
+	 * @param prefix The partially typed query.
+	 * @param limit  The maximum number of books to return.
+	 * @return A list of at most {@code limit} matching books, most relevant
+	 *         first.
+	 */
+	@Override
+	public List<Book> autocomplete(String prefix, int limit) {
+		return delegate.autocomplete(prefix, limit);
+	}
+
+	/**
+	 * Sorts the {@link Book} objects based on the specified field.
+	 * 
+	 * @param field The field by which to sort the books.
+	 * @return A list of books sorted by the specified field.
+	 */
+	@Override
+	public List<Book> sortByAnyField(String field) {
+		return delegate.sortByAnyField(field);
+	}
+
+	/**
+	 * Returns one page of the {@link Book} objects sorted by the specified field.
+	 * 
+	 * @param field     The field by which to sort the books.
+	 * @param ascending {@code true} for ascending order.
+	 * @param offset    The number of books to skip.
+	 * @param limit     The maximum number of books to return.
+	 * @return A list of at most {@code limit} books sorted by the specified field.
+	 */
+	@Override
+	public List<Book> sortByAnyField(String field, boolean ascending, int offset, int limit) {
+		return delegate.sortByAnyField(field, ascending, offset, limit);
+	}
+}
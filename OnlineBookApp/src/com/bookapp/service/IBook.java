@@ -1,7 +1,10 @@
 package com.bookapp.service;
 
+import java.util.Collection;
 import java.util.List;
 import com.bookapp.bean.Book;
+import com.bookapp.bean.BookQuery;
+import com.bookapp.bean.BookStats;
 import com.bookapp.exceptions.AuthorNotFoundException;
 import com.bookapp.exceptions.CategoryNotFoundException;
 import com.bookapp.exceptions.IdNotFoundException;
@@ -17,6 +20,8 @@ import com.bookapp.exceptions.TitleNotFoundException;
  * <p>
  * Each method may throw specific exceptions if the requested operation cannot
  * be performed, such as when books are not found based on the search criteria.
+ * The {@code findBooksBy*} methods are exception-free alternatives to the
+ * {@code getBookBy*} lookups that return an empty list instead.
  * 
  * @author MonigaBalasubramanian
  * @see Book
@@ -39,6 +44,19 @@ public interface IBook {
 	 */
 	void addBook(Book book);
 
+	/**
+	 * Adds several {@link Book} objects to the collection.
+	 * 
+	 * <p>
+	 * The books are added in iteration order, with the same result as calling
+	 * {@link #addBook(Book)} for each of them. Implementations may update their
+	 * internal structures once per batch, which makes this much cheaper for bulk
+	 * loading.
+	 * 
+	 * @param books The {@link Book} objects to be added to the collection.
+	 */
+	void addBooks(Collection<Book> books);
+
 	/**
 	 * Retrieves a list of all {@link Book} objects in the collection.
 	 * 
@@ -116,6 +134,207 @@ public interface IBook {
 	 */
 	List<Book> getBookByPrice(double price) throws PriceNotAvailableException;
 
+	/**
+	 * Finds the {@link Book} objects with the specified book ID.
+	 * 
+	 * <p>
+	 * This works like {@link #getBookById(int)}, but returns an empty list instead
+	 * of throwing an exception when nothing matches, which makes misses cheap.
+	 * 
+	 * @param bookId The ID of the book to search for.
+	 * @return A list of books with the specified ID, possibly empty.
+	 */
+	List<Book> findBooksById(int bookId);
+
+	/**
+	 * Finds the {@link Book} objects with the specified title.
+	 * 
+	 * <p>
+	 * This works like {@link #getBookByTitle(String)}, but returns an empty list
+	 * instead of throwing an exception when nothing matches.
+	 * 
+	 * @param title The title of the book to search for.
+	 * @return A list of books with the specified title, possibly empty.
+	 */
+	List<Book> findBooksByTitle(String title);
+
+	/**
+	 * Finds the {@link Book} objects with the specified author.
+	 * 
+	 * <p>
+	 * This works like {@link #getBookByAuthor(String)}, but returns an empty list
+	 * instead of throwing an exception when nothing matches.
+	 * 
+	 * @param author The author of the book to search for.
+	 * @return A list of books with the specified author, possibly empty.
+	 */
+	List<Book> findBooksByAuthor(String author);
+
+	/**
+	 * Finds the {@link Book} objects in the specified category.
+	 * 
+	 * <p>
+	 * This works like {@link #getBookByCategory(String)}, but returns an empty
+	 * list instead of throwing an exception when nothing matches.
+	 * 
+	 * @param category The category of the book to search for.
+	 * @return A list of books in the specified category, possibly empty.
+	 */
+	List<Book> findBooksByCategory(String category);
+
+	/**
+	 * Finds the {@link Book} objects with the specified price.
+	 * 
+	 * <p>
+	 * This works like {@link #getBookByPrice(double)}, but returns an empty list
+	 * instead of throwing an exception when nothing matches.
+	 * 
+	 * @param price The price of the book to search for.
+	 * @return A list of books with the specified price, possibly empty.
+	 */
+	List<Book> findBooksByPrice(double price);
+
+	/**
+	 * Retrieves a list of {@link Book} objects whose price lies within the given
+	 * range.
+	 * 
+	 * <p>
+	 * Both bounds are inclusive. The books are returned in ascending order of
+	 * price. If no books are found in that range, a
+	 * {@link PriceNotAvailableException} is thrown.
+	 * 
+	 * @param minPrice The lowest price to include.
+	 * @param maxPrice The highest price to include.
+	 * @return A list of books priced between {@code minPrice} and
+	 *         {@code maxPrice}, cheapest first.
+	 * @throws PriceNotAvailableException If no books are found in the given price
+	 *                                    range.
+	 */
+	List<Book> getBooksByPriceRange(double minPrice, double maxPrice) throws PriceNotAvailableException;
+
+	/**
+	 * Retrieves the cheapest {@link Book} objects in the specified category.
+	 * 
+	 * <p>
+	 * At most {@code limit} books are returned, in ascending order of price. If no
+	 * books are found in that category, a {@link CategoryNotFoundException} is
+	 * thrown.
+	 * 
+	 * @param category The category of the books to search for.
+	 * @param limit    The maximum number of books to return.
+	 * @return A list of at most {@code limit} books, cheapest first.
+	 * @throws CategoryNotFoundException If no books are found in the given
+	 *                                   category.
+	 */
+	List<Book> getCheapestBooksByCategory(String category, int limit) throws CategoryNotFoundException;
+
+	/**
+	 * Retrieves the most expensive {@link Book} objects in the collection.
+	 * 
+	 * <p>
+	 * At most {@code limit} books are returned, in descending order of price.
+	 * 
+	 * @param limit The maximum number of books to return.
+	 * @return A list of at most {@code limit} books, most expensive first.
+	 */
+	List<Book> getMostExpensiveBooks(int limit);
+
+	/**
+	 * Retrieves the {@link Book} objects that match every criterion of a compound
+	 * query, sorted by the query's sort field.
+	 * 
+	 * <p>
+	 * The whole query is answered in one call, so callers do not have to combine
+	 * the results of several lookups themselves. Books with the same value in the
+	 * sort field may be returned in any order. If the sort field is invalid, an
+	 * error message is printed and an empty list is returned.
+	 * 
+	 * @param query The criteria, sort order and limit.
+	 * @return A list of at most {@code query.getLimit()} matching books, possibly
+	 *         empty.
+	 * @see BookQuery
+	 */
+	List<Book> query(BookQuery query);
+
+	/**
+	 * Retrieves the price statistics of the books in the specified category.
+	 * 
+	 * <p>
+	 * The statistics are kept up to date as books are added, so this method does
+	 * not depend on the size of the collection. If no books are found in that
+	 * category, a {@link CategoryNotFoundException} is thrown.
+	 * 
+	 * @param category The category to report on.
+	 * @return The number of books and the lowest, average and highest price in
+	 *         the category.
+	 * @throws CategoryNotFoundException If no books are found in the given
+	 *                                   category.
+	 */
+	BookStats getCategoryStats(String category) throws CategoryNotFoundException;
+
+	/**
+	 * Retrieves the price statistics of the books by the specified author.
+	 * 
+	 * <p>
+	 * The statistics are kept up to date as books are added, so this method does
+	 * not depend on the size of the collection. If no books are found by that
+	 * author, an {@link AuthorNotFoundException} is thrown.
+	 * 
+	 * @param author The author to report on.
+	 * @return The number of books and the lowest, average and highest price of
+	 *         the author.
+	 * @throws AuthorNotFoundException If no books are found with the given
+	 *                                 author.
+	 */
+	BookStats getAuthorStats(String author) throws AuthorNotFoundException;
+
+	/**
+	 * Retrieves the price statistics of every category.
+	 * 
+	 * @return A list with the statistics of each category, sorted by category
+	 *         name.
+	 */
+	List<BookStats> getAllCategoryStats();
+
+	/**
+	 * Retrieves the price statistics of every author.
+	 * 
+	 * @return A list with the statistics of each author, sorted by author name.
+	 */
+	List<BookStats> getAllAuthorStats();
+
+	/**
+	 * Searches the titles and authors of the {@link Book} objects for the words
+	 * of a query.
+	 * 
+	 * <p>
+	 * A book matches when every word of the query appears as a whole word in its
+	 * title or author, ignoring case. The books are returned most relevant first,
+	 * where a word found in the title weighs more than one found in the author.
+	 * An empty list is returned if nothing matches.
+	 * 
+	 * @param query The words to search for.
+	 * @param limit The maximum number of books to return.
+	 * @return A list of at most {@code limit} matching books, most relevant
+	 *         first.
+	 */
+	List<Book> searchBooks(String query, int limit);
+
+	/**
+	 * Suggests {@link Book} objects for a partially typed query.
+	 * 
+	 * <p>
+	 * This works like {@link #searchBooks(String, int)}, except that the last
+	 * word of the query only needs to be the beginning of a word in the title or
+	 * author.
+	 * 
+	 * @param prefix The partially typed query.
+	 * @param limit  The maximum number of books to return.
+	 * @return A list of at most {@code limit} matching books, most relevant
+	 *         first.
+	 */
+	List<Book> autocomplete(String prefix, int limit);
+
 	/**
 	 * Sorts the list of {@link Book} objects based on the specified field.
 	 * 
@@ -130,4 +349,24 @@ public interface IBook {
 	 * @return A list of books sorted by the specified field.
 	 */
 	List<Book> sortByAnyField(String field);
+
+	/**
+	 * Returns one page of the {@link Book} objects sorted by the specified field.
+	 * 
+	 * <p>
+	 * This gives the same books as taking {@code limit} elements starting at
+	 * {@code offset} from {@link #sortByAnyField(String)}, or from its reverse
+	 * when {@code ascending} is {@code false}, but implementations only need to
+	 * order the books that end up on the page. Books that compare equal keep the
+	 * order in which they were added, in both directions.
+	 * 
+	 * @param field     The field by which to sort the books. Valid options include
+	 *                  "ID", "Title", "Author", "Category", or "Price".
+	 * @param ascending {@code true} to sort in ascending order, {@code false} for
+	 *                  descending order.
+	 * @param offset    The number of books to skip.
+	 * @param limit     The maximum number of books to return.
+	 * @return A list of at most {@code limit} books sorted by the specified field.
+	 */
+	List<Book> sortByAnyField(String field, boolean ascending, int offset, int limit);
 }
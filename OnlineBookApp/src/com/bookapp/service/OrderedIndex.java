@@ -0,0 +1,228 @@
+package com.bookapp.service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Collections;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import com.bookapp.bean.Book;
+
+/**
+ * {@code OrderedIndex} keeps {@link Book} objects sorted by one key so that a
+ * sorted listing can be produced by walking the index instead of sorting the
+ * whole collection again.
+ * 
+ * <p>
+ * Books with equal keys are kept in the order in which they were added, which
+ * gives the same result as a stable sort of the insertion-ordered list. A
+ * {@code null} key, as for a book without a title, sorts before every other
+ * key.
+ * 
+ * @param <K> The type of the sort key.
+ * @author MonigaBalasubramanian
+ * @see BookImpl
+ */
+class OrderedIndex<K> {
+
+	// Sorted map from key to the books sharing that key, in insertion order
+	private final TreeMap<K, List<Book>> entries;
+
+	// Extracts the sort key from a book
+	private final Function<Book, K> keyExtractor;
+
+	/**
+	 * Creates an index ordered by the natural ordering of the keys.
+	 * 
+	 * @param keyExtractor The function that extracts the sort key from a book.
+	 */
+	@SuppressWarnings("unchecked")
+	OrderedIndex(Function<Book, K> keyExtractor) {
+		this(keyExtractor, (Comparator<? super K>) Comparator.naturalOrder());
+	}
+
+	/**
+	 * Creates an index ordered by the given comparator.
+	 * 
+	 * @param keyExtractor The function that extracts the sort key from a book.
+	 * @param comparator   The comparator used to order the keys.
+	 */
+	OrderedIndex(Function<Book, K> keyExtractor, Comparator<? super K> comparator) {
+		this.entries = new TreeMap<>(Comparator.nullsFirst(comparator));
+		this.keyExtractor = keyExtractor;
+	}
+
+	/**
+	 * Creates a copy of another index. The copy shares the books but not the
+	 * buckets, so adding to one index does not change the other.
+	 * 
+	 * @param source The index to copy.
+	 */
+	OrderedIndex(OrderedIndex<K> source) {
+		this.entries = new TreeMap<>(source.entries);
+		this.entries.replaceAll((key, bucket) -> new ArrayList<>(bucket));
+		this.keyExtractor = source.keyExtractor;
+	}
+
+	/**
+	 * Adds a book to the index.
+	 * 
+	 * @param book The book to add.
+	 */
+	void add(Book book) {
+		entries.computeIfAbsent(keyExtractor.apply(book), key -> new ArrayList<>()).add(book);
+	}
+
+	/**
+	 * Returns all indexed books in key order.
+	 * 
+	 * @param size The number of books in the index, used to size the result.
+	 * @return A new list with the books in key order.
+	 */
+	List<Book> toList(int size) {
+		List<Book> sorted = new ArrayList<>(size);
+		for (List<Book> bucket : entries.values()) {
+			sorted.addAll(bucket);
+		}
+		return sorted;
+	}
+
+	/**
+	 * Returns the books whose key is equal to the given key.
+	 * 
+	 * @param key The key to look up.
+	 * @return The books with that key in insertion order, or an empty list if
+	 *         there are none. The returned list must not be modified.
+	 */
+	List<Book> get(K key) {
+		List<Book> bucket = entries.get(key);
+		return bucket == null ? Collections.emptyList() : bucket;
+	}
+
+	/**
+	 * Returns the books whose key lies between the given bounds, both inclusive, in
+	 * key order.
+	 * 
+	 * @param fromKey The lower bound.
+	 * @param toKey   The upper bound.
+	 * @return A new list with the matching books in key order.
+	 */
+	List<Book> range(K fromKey, K toKey) {
+		List<Book> matches = new ArrayList<>();
+		if (compare(fromKey, toKey) > 0) {
+			return matches;
+		}
+		for (List<Book> bucket : entries.subMap(fromKey, true, toKey, true).values()) {
+			matches.addAll(bucket);
+		}
+		return matches;
+	}
+
+	/**
+	 * Counts the books whose key lies between the given bounds, both inclusive.
+	 * Counting stops as soon as the count reaches {@code bound}, so a caller that
+	 * only needs to know whether a range is smaller than some number does not
+	 * pay for walking a large range.
+	 * 
+	 * @param fromKey The lower bound.
+	 * @param toKey   The upper bound.
+	 * @param bound   The count at which to stop.
+	 * @return The number of matching books, or {@code bound} if there are at
+	 *         least that many.
+	 */
+	int count(K fromKey, K toKey, int bound) {
+		if (compare(fromKey, toKey) > 0) {
+			return 0;
+		}
+		int count = 0;
+		for (List<Book> bucket : entries.subMap(fromKey, true, toKey, true).values()) {
+			count += bucket.size();
+			if (count >= bound) {
+				return bound;
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * Walks the index in ascending or descending key order and returns the first
+	 * {@code limit} books accepted by the filter. The walk stops as soon as
+	 * enough books have been found.
+	 * 
+	 * @param filter     The filter applied to each book.
+	 * @param limit      The maximum number of books to return.
+	 * @param descending {@code true} to start from the largest key.
+	 * @return A new list with at most {@code limit} books in key order.
+	 */
+	List<Book> filter(Predicate<Book> filter, int limit, boolean descending) {
+		List<Book> matches = new ArrayList<>(Math.max(0, Math.min(limit, 64)));
+		NavigableMap<K, List<Book>> view = descending ? entries.descendingMap() : entries;
+		for (List<Book> bucket : view.values()) {
+			for (Book book : bucket) {
+				if (matches.size() >= limit) {
+					return matches;
+				}
+				if (filter.test(book)) {
+					matches.add(book);
+				}
+			}
+		}
+		return matches;
+	}
+
+	/**
+	 * Returns at most {@code limit} books in ascending or descending key order.
+	 * Books with equal keys are returned in insertion order in both directions.
+	 * 
+	 * @param limit      The maximum number of books to return.
+	 * @param descending {@code true} to start from the largest key.
+	 * @return A new list with at most {@code limit} books.
+	 */
+	List<Book> first(int limit, boolean descending) {
+		return page(0, limit, descending);
+	}
+
+	/**
+	 * Returns one page of books in ascending or descending key order. Whole
+	 * buckets before the page are skipped without being copied, so a page costs
+	 * the number of keys before it plus the size of the page.
+	 * 
+	 * @param offset     The number of books to skip.
+	 * @param limit      The maximum number of books to return.
+	 * @param descending {@code true} to start from the largest key.
+	 * @return A new list with at most {@code limit} books.
+	 */
+	List<Book> page(int offset, int limit, boolean descending) {
+		List<Book> matches = new ArrayList<>(Math.max(0, Math.min(limit, 64)));
+		NavigableMap<K, List<Book>> view = descending ? entries.descendingMap() : entries;
+		int skip = Math.max(0, offset);
+		for (List<Book> bucket : view.values()) {
+			if (matches.size() >= limit) {
+				break;
+			}
+			if (skip >= bucket.size()) {
+				skip -= bucket.size();
+				continue;
+			}
+			// Count what is taken rather than adding to skip, which can overflow
+			int take = Math.min(bucket.size() - skip, limit - matches.size());
+			matches.addAll(bucket.subList(skip, skip + take));
+			skip = 0;
+		}
+		return matches;
+	}
+
+	/**
+	 * Compares two keys using the ordering of this index.
+	 * 
+	 * @param first  The first key.
+	 * @param second The second key.
+	 * @return A negative number, zero or a positive number as the first key is
+	 *         less than, equal to or greater than the second.
+	 */
+	private int compare(K first, K second) {
+		return entries.comparator().compare(first, second);
+	}
+}
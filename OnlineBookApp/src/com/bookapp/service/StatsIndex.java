@@ -0,0 +1,81 @@
+package com.bookapp.service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import com.bookapp.bean.BookStats;
+
+/**
+ * {@code StatsIndex} keeps running price statistics per group of books, such
+ * as per category or per author. The statistics of a group are updated as each
+ * book is added, so reading them costs the same whatever the size of the
+ * catalog.
+ * 
+ * <p>
+ * Group names are compared ignoring case, like the lookup indexes of
+ * {@link BookImpl}. A group is named after the spelling of its first book.
+ * 
+ * @author MonigaBalasubramanian
+ * @see BookStats
+ */
+class StatsIndex {
+
+	// Statistics keyed by the case-folded group name
+	private final Map<String, BookStats> stats;
+
+	/**
+	 * Creates an empty index.
+	 */
+	StatsIndex() {
+		this.stats = new HashMap<>();
+	}
+
+	/**
+	 * Creates a copy of another index that can be changed independently.
+	 * 
+	 * @param source The index to copy.
+	 */
+	StatsIndex(StatsIndex source) {
+		this.stats = new HashMap<>(source.stats);
+		this.stats.replaceAll((key, groupStats) -> new BookStats(groupStats));
+	}
+
+	/**
+	 * Adds the price of a book to the statistics of its group.
+	 * 
+	 * @param name  The group of the book, may be {@code null}.
+	 * @param price The price of the book.
+	 */
+	void add(String name, double price) {
+		stats.computeIfAbsent(BookImpl.foldCase(name), key -> new BookStats(name)).add(price);
+	}
+
+	/**
+	 * Returns the statistics of one group.
+	 * 
+	 * @param name The group to look up.
+	 * @return A copy of the statistics of the group, or {@code null} if there is
+	 *         no book in that group.
+	 */
+	BookStats get(String name) {
+		BookStats groupStats = stats.get(BookImpl.foldCase(name));
+		return groupStats == null ? null : new BookStats(groupStats);
+	}
+
+	/**
+	 * Returns the statistics of every group.
+	 * 
+	 * @return A new list with a copy of the statistics of each group, sorted by
+	 *         group name ignoring case.
+	 */
+	List<BookStats> list() {
+		List<BookStats> all = new ArrayList<>(stats.size());
+		for (BookStats groupStats : stats.values()) {
+			all.add(new BookStats(groupStats));
+		}
+		all.sort(Comparator.comparing(BookStats::getName, Comparator.nullsFirst(String.CASE_INSENSITIVE_ORDER)));
+		return all;
+	}
+}
@@ -0,0 +1,721 @@
+package com.bookapp.service;
+
+import java.text.CollationKey;
+import java.text.Collator;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import com.bookapp.bean.Book;
+import com.bookapp.bean.BookQuery;
+import com.bookapp.bean.BookStats;
+import com.bookapp.exceptions.AuthorNotFoundException;
+import com.bookapp.exceptions.CategoryNotFoundException;
+import com.bookapp.exceptions.IdNotFoundException;
+import com.bookapp.exceptions.PriceNotAvailableException;
+import com.bookapp.exceptions.TitleNotFoundException;
+import com.bookapp.util.StringPool;
+
+/**
+ * {@code StripedBookImpl} is a thread-safe implementation of the {@link IBook}
+ * interface for catalogs that many threads write to at the same time, such as
+ * during a bulk import.
+ * 
+ * <p>
+ * The books are partitioned into a fixed number of shards by a hash of their
+ * book ID. Each shard is a {@link BookImpl} with its own indexes and its own
+ * read-write lock, so threads adding books to different shards do not wait
+ * for each other. Books with the same ID always land in the same shard, so
+ * {@link #getBookById(int)} reads a single shard.
+ * 
+ * <p>
+ * Every other read asks each shard in turn and merges the results, which each
+ * shard returns already sorted, with a k-way merge. Listings therefore come
+ * out in the same order as from a single {@link BookImpl}, except that books
+ * that compare equal may come out in a different order. A read sees each shard
+ * at some point in time, but not all shards at the same point.
+ * 
+ * @author MonigaBalasubramanian
+ * @see IBook
+ * @see BookImpl
+ */
+public class StripedBookImpl implements IBook {
+
+	// Orders books by title, as BookImpl lists and looks them up
+	private static final Comparator<Book> BY_TITLE = Comparator.comparing(Book::getTitle,
+			Comparator.nullsFirst(Comparator.naturalOrder()));
+
+	// Fields accepted by sortByAnyField and query
+	private static final List<String> SORT_FIELDS = Arrays.asList("Title", "ID", "Author", "Category", "Price");
+
+	// Orders books by price, cheapest first
+	private static final Comparator<Book> BY_PRICE = Comparator.comparingDouble(Book::getPrice);
+
+	// The shards and the lock of each shard
+	private final BookImpl[] shards;
+	private final ReentrantReadWriteLock[] locks;
+
+	// Builds the keys of titles, authors and categories when merging sorted
+	// results; each merge works on a clone, as Collator methods are synchronized
+	private final Collator collator;
+
+	/**
+	 * Creates an empty {@code StripedBookImpl} with one shard per available
+	 * processor, sorting by the rules of the default locale.
+	 */
+	public StripedBookImpl() {
+		this(Runtime.getRuntime().availableProcessors(), Locale.getDefault());
+	}
+
+	/**
+	 * Creates an empty {@code StripedBookImpl} with the given number of shards.
+	 * 
+	 * @param shardCount The number of shards, which bounds the number of threads
+	 *                   that can add books at the same time.
+	 * @param locale     The locale whose collation rules are used for sorting.
+	 */
+	public StripedBookImpl(int shardCount, Locale locale) {
+		super();
+		if (shardCount <= 0) {
+			throw new IllegalArgumentException("Shard count must be positive: " + shardCount);
+		}
+		shards = new BookImpl[shardCount];
+		locks = new ReentrantReadWriteLock[shardCount];
+		// The shards share one copy of each author and category
+		StringPool strings = new StringPool();
+		for (int i = 0; i < shardCount; i++) {
+			shards[i] = new BookImpl(locale, strings);
+			locks[i] = new ReentrantReadWriteLock();
+		}
+		collator = BookImpl.sortCollator(locale);
+	}
+
+	/**
+	 * Adds a new {@link Book} to the shard of its book ID. Only that shard is
+	 * locked.
+	 * 
+	 * @param book The {@link Book} object to be added.
+	 */
+	@Override
+	public void addBook(Book book) {
+		int shard = shardOf(book.getBookId());
+		Lock lock = locks[shard].writeLock();
+		lock.lock();
+		try {
+			shards[shard].addBook(book);
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Adds a batch of {@link Book} objects. The batch is split by shard first, so
+	 * each shard is locked once and receives its books in one
+	 * {@link BookImpl#addBooks(Collection)} call.
+	 * 
+	 * @param books The {@link Book} objects to be added.
+	 */
+	@Override
+	public void addBooks(Collection<Book> books) {
+		List<List<Book>> parts = new ArrayList<>(shards.length);
+		for (int i = 0; i < shards.length; i++) {
+			parts.add(new ArrayList<>());
+		}
+		for (Book book : books) {
+			parts.get(shardOf(book.getBookId())).add(book);
+		}
+		for (int shard = 0; shard < shards.length; shard++) {
+			if (parts.get(shard).isEmpty()) {
+				continue;
+			}
+			Lock lock = locks[shard].writeLock();
+			lock.lock();
+			try {
+				shards[shard].addBooks(parts.get(shard));
+			} finally {
+				lock.unlock();
+			}
+		}
+	}
+
+	/**
+	 * Retrieves a list of all {@link Book} objects, sorted by their title.
+	 * 
+	 * @return A list of all books, sorted by title.
+	 */
+	@Override
+	public List<Book> getAllBooks() {
+		return merge(readAll(BookImpl::getAllBooks), BY_TITLE, Integer.MAX_VALUE);
+	}
+
+	/**
+	 * Retrieves a list of {@link Book} objects that match the specified book ID.
+	 * Only the shard of that ID is read.
+	 * 
+	 * @param bookId The ID of the book to search for.
+	 * @return A list of books with the specified ID.
+	 * @throws IdNotFoundException If no books are found with the given ID.
+	 */
+	@Override
+	public List<Book> getBookById(int bookId) throws IdNotFoundException {
+		List<Book> booksById = findBooksById(bookId);
+		if (booksById.isEmpty()) {
+			throw new IdNotFoundException("Id not found: " + bookId, false);
+		}
+		return booksById;
+	}
+
+	/**
+	 * Retrieves a list of {@link Book} objects that match the specified title.
+	 * 
+	 * @param title The title of the book to search for.
+	 * @return A list of books with the specified title.
+	 * @throws TitleNotFoundException If no books are found with the given title.
+	 */
+	@Override
+	public List<Book> getBookByTitle(String title) throws TitleNotFoundException {
+		List<Book> booksByTitle = findBooksByTitle(title);
+		if (booksByTitle.isEmpty()) {
+			throw new TitleNotFoundException("Title not found: " + title, false);
+		}
+		return booksByTitle;
+	}
+
+	/**
+	 * Retrieves a list of {@link Book} objects that match the specified author.
+	 * 
+	 * @param author The author of the book to search for.
+	 * @return A list of books with the specified author.
+	 * @throws AuthorNotFoundException If no books are found with the given author.
+	 */
+	@Override
+	public List<Book> getBookByAuthor(String author) throws AuthorNotFoundException {
+		List<Book> booksByAuthor = findBooksByAuthor(author);
+		if (booksByAuthor.isEmpty()) {
+			throw new AuthorNotFoundException("Author not found: " + author, false);
+		}
+		return booksByAuthor;
+	}
+
+	/**
+	 * Retrieves a list of {@link Book} objects that match the specified category.
+	 * 
+	 * @param category The category of the book to search for.
+	 * @return A list of books with the specified category.
+	 * @throws CategoryNotFoundException If no books are found with the given
+	 *                                   category.
+	 */
+	@Override
+	public List<Book> getBookByCategory(String category) throws CategoryNotFoundException {
+		List<Book> booksByCategory = findBooksByCategory(category);
+		if (booksByCategory.isEmpty()) {
+			throw new CategoryNotFoundException("Category not found: " + category, false);
+		}
+		return booksByCategory;
+	}
+
+	/**
+	 * Retrieves a list of {@link Book} objects that match the specified price.
+	 * 
+	 * @param price The price of the book to search for.
+	 * @return A list of books with the specified price.
+	 * @throws PriceNotAvailableException If no books are found with the given
+	 *                                    price.
+	 */
+	@Override
+	public List<Book> getBookByPrice(double price) throws PriceNotAvailableException {
+		List<Book> booksByPrice = findBooksByPrice(price);
+		if (booksByPrice.isEmpty()) {
+			throw new PriceNotAvailableException("Books are not available to this price.", false);
+		}
+		return booksByPrice;
+	}
+
+	/**
+	 * Finds the {@link Book} objects with the specified book ID. Only the shard of
+	 * that ID is read.
+	 * 
+	 * @param bookId The ID of the book to search for.
+	 * @return A list of books with the specified ID, empty if there are none.
+	 */
+	@Override
+	public List<Book> findBooksById(int bookId) {
+		return read(shardOf(bookId), shard -> shard.findBooksById(bookId));
+	}
+
+	/**
+	 * Finds the {@link Book} objects with the specified title.
+	 * 
+	 * @param title The title of the book to search for.
+	 * @return A list of books with the specified title, empty if there are none.
+	 */
+	@Override
+	public List<Book> findBooksByTitle(String title) {
+		return merge(readAll(shard -> shard.findBooksByTitle(title)), BY_TITLE, Integer.MAX_VALUE);
+	}
+
+	/**
+	 * Finds the {@link Book} objects with the specified author, sorted by title.
+	 * 
+	 * @param author The author of the book to search for.
+	 * @return A list of books with the specified author, empty if there are none.
+	 */
+	@Override
+	public List<Book> findBooksByAuthor(String author) {
+		return merge(readAll(shard -> shard.findBooksByAuthor(author)), BY_TITLE, Integer.MAX_VALUE);
+	}
+
+	/**
+	 * Finds the {@link Book} objects in the specified category, sorted by title.
+	 * 
+	 * @param category The category of the book to search for.
+	 * @return A list of books in the specified category, empty if there are none.
+	 */
+	@Override
+	public List<Book> findBooksByCategory(String category) {
+		return merge(readAll(shard -> shard.findBooksByCategory(category)), BY_TITLE, Integer.MAX_VALUE);
+	}
+
+	/**
+	 * Finds the {@link Book} objects with the specified price, sorted by title.
+	 * 
+	 * @param price The price of the book to search for.
+	 * @return A list of books with the specified price, empty if there are none.
+	 */
+	@Override
+	public List<Book> findBooksByPrice(double price) {
+		return merge(readAll(shard -> shard.findBooksByPrice(price)), BY_TITLE, Integer.MAX_VALUE);
+	}
+
+	/**
+	 * Retrieves a list of {@link Book} objects whose price lies within the given
+	 * range, cheapest first.
+	 * 
+	 * @param minPrice The lowest price to include.
+	 * @param maxPrice The highest price to include.
+	 * @return A list of books in the given price range, sorted by price.
+	 * @throws PriceNotAvailableException If no books are found in the given price
+	 *                                    range.
+	 */
+	@Override
+	public List<Book> getBooksByPriceRange(double minPrice, double maxPrice) throws PriceNotAvailableException {
+		List<Book> booksByPrice = merge(readAll(shard -> {
+			try {
+				return shard.getBooksByPriceRange(minPrice, maxPrice);
+			} catch (PriceNotAvailableException e) {
+				return new ArrayList<>();
+			}
+		}), BY_PRICE, Integer.MAX_VALUE);
+		if (booksByPrice.isEmpty()) {
+			throw new PriceNotAvailableException("Books are not available between " + minPrice + " and " + maxPrice,
+					false);
+		}
+		return booksByPrice;
+	}
+
+	/**
+	 * Retrieves the cheapest {@link Book} objects in the specified category. Each
+	 * shard contributes at most {@code limit} books to the merge.
+	 * 
+	 * @param category The category of the books to search for.
+	 * @param limit    The maximum number of books to return.
+	 * @return A list of at most {@code limit} books, sorted by price.
+	 * @throws CategoryNotFoundException If no books are found with the given
+	 *                                   category.
+	 */
+	@Override
+	public List<Book> getCheapestBooksByCategory(String category, int limit) throws CategoryNotFoundException {
+		boolean[] found = new boolean[1];
+		List<Book> cheapest = merge(readAll(shard -> {
+			try {
+				List<Book> shardCheapest = shard.getCheapestBooksByCategory(category, limit);
+				found[0] = true;
+				return shardCheapest;
+			} catch (CategoryNotFoundException e) {
+				return new ArrayList<>();
+			}
+		}), BY_PRICE, limit);
+		if (!found[0]) {
+			throw new CategoryNotFoundException("Category not found: " + category, false);
+		}
+		return cheapest;
+	}
+
+	/**
+	 * Retrieves the most expensive {@link Book} objects, sorted by descending
+	 * price. Each shard contributes at most {@code limit} books to the merge.
+	 * 
+	 * @param limit The maximum number of books to return.
+	 * @return A list of at most {@code limit} books.
+	 */
+	@Override
+	public List<Book> getMostExpensiveBooks(int limit) {
+		return merge(readAll(shard -> shard.getMostExpensiveBooks(limit)), BY_PRICE.reversed(), limit);
+	}
+
+	/**
+	 * Answers a compound query. Each shard plans and answers the query with its
+	 * own indexes and returns at most the query's limit, and the results are
+	 * merged in the query's sort order.
+	 * 
+	 * @param query The criteria, sort order and limit.
+	 * @return A list of at most {@code query.getLimit()} matching books, possibly
+	 *         empty.
+	 */
+	@Override
+	public List<Book> query(BookQuery query) {
+		String field = query.getSortField() == null ? "Title" : query.getSortField();
+		if (!SORT_FIELDS.contains(field)) {
+			System.out.println("Invalid field: " + field);
+			return new ArrayList<>();
+		}
+		List<List<Book>> lists = readAll(shard -> shard.query(query));
+		Comparator<Book> order = fieldOrder(field, lists);
+		return merge(lists, query.isAscending() ? order : order.reversed(), query.getLimit());
+	}
+
+	/**
+	 * Retrieves the price statistics of the books in the specified category,
+	 * combined over all shards.
+	 * 
+	 * @param category The category to report on.
+	 * @return The statistics of the category.
+	 * @throws CategoryNotFoundException If no books are found in the given
+	 *                                   category.
+	 */
+	@Override
+	public BookStats getCategoryStats(String category) throws CategoryNotFoundException {
+		BookStats stats = combine(readAll(shard -> {
+			try {
+				return shard.getCategoryStats(category);
+			} catch (CategoryNotFoundException e) {
+				return null;
+			}
+		}));
+		if (stats == null) {
+			throw new CategoryNotFoundException("Category not found: " + category, false);
+		}
+		return stats;
+	}
+
+	/**
+	 * Retrieves the price statistics of the books by the specified author,
+	 * combined over all shards.
+	 * 
+	 * @param author The author to report on.
+	 * @return The statistics of the author.
+	 * @throws AuthorNotFoundException If no books are found with the given
+	 *                                 author.
+	 */
+	@Override
+	public BookStats getAuthorStats(String author) throws AuthorNotFoundException {
+		BookStats stats = combine(readAll(shard -> {
+			try {
+				return shard.getAuthorStats(author);
+			} catch (AuthorNotFoundException e) {
+				return null;
+			}
+		}));
+		if (stats == null) {
+			throw new AuthorNotFoundException("Author not found: " + author, false);
+		}
+		return stats;
+	}
+
+	/**
+	 * Retrieves the price statistics of every category, combined over all shards.
+	 * 
+	 * @return A list with the statistics of each category, sorted by name.
+	 */
+	@Override
+	public List<BookStats> getAllCategoryStats() {
+		return combineAll(readAll(BookImpl::getAllCategoryStats));
+	}
+
+	/**
+	 * Retrieves the price statistics of every author, combined over all shards.
+	 * 
+	 * @return A list with the statistics of each author, sorted by name.
+	 */
+	@Override
+	public List<BookStats> getAllAuthorStats() {
+		return combineAll(readAll(BookImpl::getAllAuthorStats));
+	}
+
+	/**
+	 * Searches the titles and authors for the words of a query. Each shard
+	 * returns its best {@code limit} books, and the results are merged by their
+	 * relevance score.
+	 * 
+	 * @param query The words to search for.
+	 * @param limit The maximum number of books to return.
+	 * @return A list of at most {@code limit} matching books, most relevant
+	 *         first.
+	 */
+	@Override
+	public List<Book> searchBooks(String query, int limit) {
+		return mergeByScore(readAll(shard -> shard.searchBooks(query, limit)), TextIndex.tokenize(query), false,
+				limit);
+	}
+
+	/**
+	 * Suggests books for a partially typed query. Each shard returns its best
+	 * {@code limit} books, and the results are merged by their relevance score.
+	 * 
+	 * @param prefix The partially typed query.
+	 * @param limit  The maximum number of books to return.
+	 * @return A list of at most {@code limit} matching books, most relevant
+	 *         first.
+	 */
+	@Override
+	public List<Book> autocomplete(String prefix, int limit) {
+		return mergeByScore(readAll(shard -> shard.autocomplete(prefix, limit)), TextIndex.tokenize(prefix), true,
+				limit);
+	}
+
+	/**
+	 * Sorts the {@link Book} objects based on the specified field.
+	 * 
+	 * <p>
+	 * The sorting fields can be "Title", "ID", "Author", "Category", or "Price". If
+	 * an invalid field is provided, it prints an error message.
+	 * 
+	 * @param field The field by which to sort the books.
+	 * @return A list of books sorted by the specified field.
+	 */
+	@Override
+	public List<Book> sortByAnyField(String field) {
+		if (!SORT_FIELDS.contains(field)) {
+			System.out.println("Invalid field: " + field);
+			return new ArrayList<>();
+		}
+		List<List<Book>> lists = readAll(shard -> shard.sortByAnyField(field));
+		return merge(lists, fieldOrder(field, lists), Integer.MAX_VALUE);
+	}
+
+	/**
+	 * Returns one page of the {@link Book} objects sorted by the specified field.
+	 * Each shard returns its first {@code offset + limit} books, which are merged
+	 * before the page is cut out.
+	 * 
+	 * @param field     The field by which to sort the books.
+	 * @param ascending {@code true} for ascending order.
+	 * @param offset    The number of books to skip.
+	 * @param limit     The maximum number of books to return.
+	 * @return A list of at most {@code limit} books sorted by the specified field.
+	 */
+	@Override
+	public List<Book> sortByAnyField(String field, boolean ascending, int offset, int limit) {
+		if (!SORT_FIELDS.contains(field)) {
+			System.out.println("Invalid field: " + field);
+			return new ArrayList<>();
+		}
+		int skip = Math.max(0, offset);
+		int end = (int) Math.min(Integer.MAX_VALUE, (long) skip + Math.max(0, limit));
+		List<List<Book>> lists = readAll(shard -> shard.sortByAnyField(field, ascending, 0, end));
+		Comparator<Book> order = fieldOrder(field, lists);
+		List<Book> merged = merge(lists, ascending ? order : order.reversed(), end);
+		return skip >= merged.size() ? new ArrayList<>() : new ArrayList<>(merged.subList(skip, merged.size()));
+	}
+
+	/**
+	 * Picks the shard of a book ID. The ID is mixed first, so that consecutive
+	 * IDs spread evenly over the shards.
+	 * 
+	 * @param bookId The book ID.
+	 * @return The shard number.
+	 */
+	private int shardOf(int bookId) {
+		int hash = bookId * 0x9E3779B9;
+		return Math.floorMod(hash ^ (hash >>> 16), shards.length);
+	}
+
+	/**
+	 * Reads one shard while holding its read lock.
+	 * 
+	 * @param <T>    The type of the result.
+	 * @param shard  The shard number.
+	 * @param reader The read to perform.
+	 * @return The result of the read.
+	 */
+	private <T> T read(int shard, Function<BookImpl, T> reader) {
+		Lock lock = locks[shard].readLock();
+		lock.lock();
+		try {
+			return reader.apply(shards[shard]);
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Reads every shard in turn, each while holding its read lock.
+	 * 
+	 * @param <T>    The type of the results.
+	 * @param reader The read to perform.
+	 * @return The result of each shard, in shard order.
+	 */
+	private <T> List<T> readAll(Function<BookImpl, T> reader) {
+		List<T> results = new ArrayList<>(shards.length);
+		for (int shard = 0; shard < shards.length; shard++) {
+			results.add(read(shard, reader));
+		}
+		return results;
+	}
+
+	/**
+	 * Returns a comparator that orders the given books by a field in the same way
+	 * as the sort indexes of {@link BookImpl}. For the text fields, the collation
+	 * key of each book is built once up front with a clone of the collator, so the
+	 * merge compares keys instead of calling the collator, and concurrent merges
+	 * do not contend on its lock. A missing value has no key and sorts first.
+	 * 
+	 * @param field The sort field, which must be one of {@link #SORT_FIELDS}.
+	 * @param lists The lists that will be merged.
+	 * @return The comparator.
+	 */
+	private Comparator<Book> fieldOrder(String field, List<List<Book>> lists) {
+		Function<Book, String> text;
+		switch (field) {
+		case "ID":
+			return Comparator.comparingInt(Book::getBookId);
+		case "Price":
+			return BY_PRICE;
+		case "Author":
+			text = Book::getAuthor;
+			break;
+		case "Category":
+			text = Book::getCategory;
+			break;
+		default:
+			text = Book::getTitle;
+			break;
+		}
+		Collator keyCollator = (Collator) collator.clone();
+		Map<Book, CollationKey> keys = new IdentityHashMap<>();
+		for (List<Book> list : lists) {
+			for (Book book : list) {
+				keys.put(book, keyCollator.getCollationKey(text.apply(book)));
+			}
+		}
+		return Comparator.comparing(keys::get, Comparator.nullsFirst(Comparator.naturalOrder()));
+	}
+
+	/**
+	 * Merges lists that are each sorted in the given order into one sorted list.
+	 * Books that compare equal are taken from the lower shard first.
+	 * 
+	 * @param lists The sorted lists, one per shard.
+	 * @param order The order of the lists.
+	 * @param limit The maximum number of books to return.
+	 * @return A new sorted list with at most {@code limit} books.
+	 */
+	private static List<Book> merge(List<List<Book>> lists, Comparator<Book> order, int limit) {
+		int total = 0;
+		for (List<Book> list : lists) {
+			total += list.size();
+		}
+		List<Book> merged = new ArrayList<>(Math.max(0, Math.min(total, limit)));
+		if (limit <= 0) {
+			return merged;
+		}
+
+		// Heap of the next position of every non-empty list, smallest book first
+		PriorityQueue<int[]> heads = new PriorityQueue<>((head1, head2) -> {
+			int result = order.compare(lists.get(head1[0]).get(head1[1]), lists.get(head2[0]).get(head2[1]));
+			return result != 0 ? result : Integer.compare(head1[0], head2[0]);
+		});
+		for (int i = 0; i < lists.size(); i++) {
+			if (!lists.get(i).isEmpty()) {
+				heads.add(new int[] { i, 0 });
+			}
+		}
+		while (!heads.isEmpty() && merged.size() < limit) {
+			int[] head = heads.poll();
+			List<Book> list = lists.get(head[0]);
+			merged.add(list.get(head[1]));
+			if (++head[1] < list.size()) {
+				heads.add(head);
+			}
+		}
+		return merged;
+	}
+
+	/**
+	 * Merges search results by relevance score, highest first. The scores are
+	 * computed the same way as by the text index of each shard.
+	 * 
+	 * @param lists      The results of each shard, most relevant first.
+	 * @param words      The words of the query.
+	 * @param prefixLast {@code true} if the last word was matched as a prefix.
+	 * @param limit      The maximum number of books to return.
+	 * @return A new list with at most {@code limit} books, most relevant first.
+	 */
+	private static List<Book> mergeByScore(List<List<Book>> lists, List<String> words, boolean prefixLast,
+			int limit) {
+		Map<Book, Integer> scores = new IdentityHashMap<>();
+		for (List<Book> list : lists) {
+			for (Book book : list) {
+				scores.put(book, TextIndex.score(book.getTitle(), book.getAuthor(), words, prefixLast));
+			}
+		}
+		return merge(lists, (o1, o2) -> Integer.compare(scores.get(o2), scores.get(o1)), limit);
+	}
+
+	/**
+	 * Combines the statistics of one group from every shard.
+	 * 
+	 * @param parts The statistics of each shard, {@code null} where the shard has
+	 *              no book in the group.
+	 * @return The combined statistics, or {@code null} if no shard has a book in
+	 *         the group.
+	 */
+	private static BookStats combine(List<BookStats> parts) {
+		BookStats combined = null;
+		for (BookStats part : parts) {
+			if (part == null) {
+				continue;
+			}
+			if (combined == null) {
+				combined = new BookStats(part);
+			} else {
+				combined.merge(part);
+			}
+		}
+		return combined;
+	}
+
+	/**
+	 * Combines the statistics of every group from every shard. Groups are matched
+	 * by case-folded name, as within a shard.
+	 * 
+	 * @param parts The statistics of each shard.
+	 * @return A new list with the combined statistics of each group, sorted by
+	 *         name ignoring case.
+	 */
+	private static List<BookStats> combineAll(List<List<BookStats>> parts) {
+		Map<String, BookStats> combined = new LinkedHashMap<>();
+		for (List<BookStats> shardStats : parts) {
+			for (BookStats part : shardStats) {
+				BookStats group = combined.get(BookImpl.foldCase(part.getName()));
+				if (group == null) {
+					combined.put(BookImpl.foldCase(part.getName()), new BookStats(part));
+				} else {
+					group.merge(part);
+				}
+			}
+		}
+		List<BookStats> all = new ArrayList<>(combined.values());
+		all.sort(Comparator.comparing(BookStats::getName, Comparator.nullsFirst(String.CASE_INSENSITIVE_ORDER)));
+		return all;
+	}
+}
@@ -0,0 +1,525 @@
+package com.bookapp.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.TreeMap;
+
+/**
+ * {@code TextIndex} is an inverted index over the words of book titles and
+ * authors. It maps every word to the list of documents that contain it, so a
+ * search only reads the lists of the words being searched for instead of
+ * scanning the whole catalog.
+ * 
+ * <p>
+ * Documents are identified by their insertion position, so the caller decides
+ * how a document number maps back to a book. Words are compared ignoring case.
+ * 
+ * <p>
+ * Search results are ranked by relevance: a word found in the title counts
+ * twice as much as a word found in the author, and repeated words count once
+ * per occurrence. Documents with the same score are returned in insertion
+ * order.
+ * 
+ * @author MonigaBalasubramanian
+ * @see BookImpl
+ */
+class TextIndex {
+
+	// Score of a word found in the title
+	private static final int TITLE_WEIGHT = 2;
+
+	// Score of a word found in the author
+	private static final int AUTHOR_WEIGHT = 1;
+
+	// Postings keyed by word; sorted so that prefix searches can use a range
+	private final TreeMap<String, Posting> postings;
+
+	/**
+	 * Creates an empty index.
+	 */
+	TextIndex() {
+		this.postings = new TreeMap<>();
+	}
+
+	/**
+	 * Creates a copy of another index that can be changed independently.
+	 * 
+	 * @param source The index to copy.
+	 */
+	TextIndex(TextIndex source) {
+		this.postings = new TreeMap<>(source.postings);
+		this.postings.replaceAll((word, posting) -> new Posting(posting));
+	}
+
+	/**
+	 * Adds the words of a title and an author to the index. Documents must be
+	 * added in increasing order.
+	 * 
+	 * @param doc    The document number.
+	 * @param title  The title of the book, may be {@code null}.
+	 * @param author The author of the book, may be {@code null}.
+	 */
+	void add(int doc, String title, String author) {
+		for (String word : tokenize(title)) {
+			postings.computeIfAbsent(word, key -> new Posting()).add(doc, TITLE_WEIGHT);
+		}
+		for (String word : tokenize(author)) {
+			postings.computeIfAbsent(word, key -> new Posting()).add(doc, AUTHOR_WEIGHT);
+		}
+	}
+
+	/**
+	 * Finds the documents that contain every word of the query, ranked by
+	 * relevance.
+	 * 
+	 * @param query      The words to search for.
+	 * @param prefixLast {@code true} to match the last word of the query as a
+	 *                   prefix, as needed for autocompletion.
+	 * @param limit      The maximum number of documents to return.
+	 * @return The matching document numbers, most relevant first.
+	 */
+	int[] search(String query, boolean prefixLast, int limit) {
+		List<String> words = tokenize(query);
+		if (words.isEmpty() || limit <= 0) {
+			return new int[0];
+		}
+
+		// Collect the matches of every whole word and the words of the prefix
+		int whole = prefixLast ? words.size() - 1 : words.size();
+		Posting[] matches = new Posting[whole];
+		for (int i = 0; i < whole; i++) {
+			matches[i] = postings.get(words.get(i));
+			if (matches[i] == null || matches[i].size == 0) {
+				return new int[0];
+			}
+		}
+		Collection<Posting> prefixMatches = null;
+		if (prefixLast) {
+			prefixMatches = matchPrefix(words.get(whole));
+			if (prefixMatches.isEmpty()) {
+				return new int[0];
+			}
+			if (whole == 0) {
+				// A short prefix can match many words, so rank them as they are merged
+				// instead of building their union first
+				return Posting.rankUnion(prefixMatches, limit);
+			}
+		}
+
+		// Intersect the whole words smallest first, then probe the prefix words for
+		// the documents that are left
+		Arrays.sort(matches, (o1, o2) -> Integer.compare(o1.size, o2.size));
+		Posting result = matches[0];
+		for (int i = 1; i < matches.length && result.size > 0; i++) {
+			result = result.intersect(matches[i]);
+		}
+		if (prefixMatches != null && result.size > 0) {
+			result = result.intersectAny(prefixMatches);
+		}
+		return result.rank(limit);
+	}
+
+	/**
+	 * Computes the relevance score that {@link #search(String, boolean, int)}
+	 * gives a book for a query, without using the index. This lets results of
+	 * several indexes be merged in the order one index would have given.
+	 * 
+	 * @param title      The title of the book, may be {@code null}.
+	 * @param author     The author of the book, may be {@code null}.
+	 * @param words      The words of the query, as returned by
+	 *                   {@link #tokenize(String)}.
+	 * @param prefixLast {@code true} to match the last word as a prefix.
+	 * @return The score of the book.
+	 */
+	static int score(String title, String author, List<String> words, boolean prefixLast) {
+		List<String> titleWords = tokenize(title);
+		List<String> authorWords = tokenize(author);
+		int score = 0;
+		for (int i = 0; i < words.size(); i++) {
+			String word = words.get(i);
+			boolean prefix = prefixLast && i == words.size() - 1;
+			for (String titleWord : titleWords) {
+				if (prefix ? titleWord.startsWith(word) : titleWord.equals(word)) {
+					score += TITLE_WEIGHT;
+				}
+			}
+			for (String authorWord : authorWords) {
+				if (prefix ? authorWord.startsWith(word) : authorWord.equals(word)) {
+					score += AUTHOR_WEIGHT;
+				}
+			}
+		}
+		return score;
+	}
+
+	/**
+	 * Returns the postings of every word that starts with the given prefix. The
+	 * postings are a view of the index and are not merged.
+	 * 
+	 * @param prefix The prefix to match.
+	 * @return The postings of the matching words, empty if no word matches.
+	 */
+	private Collection<Posting> matchPrefix(String prefix) {
+		return postings.subMap(prefix, true, prefix + Character.MAX_VALUE, false).values();
+	}
+
+	/**
+	 * Splits a text into lower-case words. Letters, digits and combining marks
+	 * are part of a word, so words in scripts such as Tamil are kept whole; any
+	 * other character separates words.
+	 * 
+	 * @param text The text to split, may be {@code null}.
+	 * @return The words of the text.
+	 */
+	static List<String> tokenize(String text) {
+		List<String> words = new ArrayList<>();
+		if (text == null) {
+			return words;
+		}
+		int start = -1;
+		for (int i = 0; i <= text.length(); i++) {
+			boolean wordChar = i < text.length() && isWordChar(text.charAt(i));
+			if (wordChar && start < 0) {
+				start = i;
+			} else if (!wordChar && start >= 0) {
+				words.add(BookImpl.foldCase(text.substring(start, i)));
+				start = -1;
+			}
+		}
+		return words;
+	}
+
+	/**
+	 * Tells whether a character is part of a word.
+	 * 
+	 * @param ch The character to test.
+	 * @return {@code true} if the character belongs to a word.
+	 */
+	private static boolean isWordChar(char ch) {
+		int type = Character.getType(ch);
+		return Character.isLetterOrDigit(ch) || type == Character.NON_SPACING_MARK
+				|| type == Character.COMBINING_SPACING_MARK;
+	}
+
+	/**
+	 * A sorted list of document numbers, each with a relevance score.
+	 */
+	private static final class Posting {
+
+		// Document numbers in increasing order
+		private int[] docs;
+
+		// Score of each document
+		private int[] scores;
+
+		// Number of documents in the list
+		private int size;
+
+		/**
+		 * Creates an empty posting.
+		 */
+		Posting() {
+			this(4);
+		}
+
+		/**
+		 * Creates an empty posting with the given capacity.
+		 * 
+		 * @param capacity The initial capacity.
+		 */
+		Posting(int capacity) {
+			docs = new int[capacity];
+			scores = new int[capacity];
+		}
+
+		/**
+		 * Creates a copy of another posting.
+		 * 
+		 * @param source The posting to copy.
+		 */
+		Posting(Posting source) {
+			docs = Arrays.copyOf(source.docs, source.size);
+			scores = Arrays.copyOf(source.scores, source.size);
+			size = source.size;
+		}
+
+		/**
+		 * Adds a score to a document, appending the document if it is not the last
+		 * one in the list.
+		 * 
+		 * @param doc   The document number, not less than the last one added.
+		 * @param score The score to add.
+		 */
+		void add(int doc, int score) {
+			if (size > 0 && docs[size - 1] == doc) {
+				scores[size - 1] += score;
+				return;
+			}
+			if (size == docs.length) {
+				docs = Arrays.copyOf(docs, Math.max(4, size * 2));
+				scores = Arrays.copyOf(scores, docs.length);
+			}
+			docs[size] = doc;
+			scores[size] = score;
+			size++;
+		}
+
+		/**
+		 * Keeps the documents that are also in another posting, adding up their
+		 * scores.
+		 * 
+		 * @param other The posting to intersect with.
+		 * @return A new posting with the common documents.
+		 */
+		Posting intersect(Posting other) {
+			Posting common = new Posting(Math.max(1, Math.min(size, other.size)));
+			int i = 0;
+			int j = 0;
+			while (i < size && j < other.size) {
+				if (docs[i] < other.docs[j]) {
+					i++;
+				} else if (docs[i] > other.docs[j]) {
+					j++;
+				} else {
+					common.add(docs[i], scores[i] + other.scores[j]);
+					i++;
+					j++;
+				}
+			}
+			return common;
+		}
+
+		/**
+		 * Keeps the documents that are also in at least one of several postings,
+		 * adding up their scores. Each document of this posting is looked up by
+		 * binary search, so the cost follows the size of this posting rather than
+		 * the total size of the others.
+		 * 
+		 * @param parts The postings to intersect with.
+		 * @return A new posting with the common documents.
+		 */
+		Posting intersectAny(Collection<Posting> parts) {
+			int[] extra = new int[size];
+			for (Posting part : parts) {
+				int from = 0;
+				for (int i = 0; i < size && from < part.size; i++) {
+					int found = Arrays.binarySearch(part.docs, from, part.size, docs[i]);
+					if (found >= 0) {
+						extra[i] += part.scores[found];
+						from = found + 1;
+					} else {
+						from = -found - 1;
+					}
+				}
+			}
+			Posting common = new Posting(Math.max(1, size));
+			for (int i = 0; i < size; i++) {
+				// Every word scores at least one, so no extra score means no match
+				if (extra[i] > 0) {
+					common.add(docs[i], scores[i] + extra[i]);
+				}
+			}
+			return common;
+		}
+
+		/**
+		 * Returns the documents with the highest scores. Documents with equal scores
+		 * are returned in increasing document order.
+		 * 
+		 * @param limit The maximum number of documents to return.
+		 * @return The document numbers, highest score first.
+		 */
+		int[] rank(int limit) {
+			TopDocs top = new TopDocs(Math.min(limit, size));
+			for (int i = 0; i < size; i++) {
+				top.offer(docs[i], scores[i]);
+			}
+			return top.toArray();
+		}
+
+		/**
+		 * Ranks the union of several postings, adding up the scores of documents
+		 * that appear in more than one of them. The postings are merged through a
+		 * heap of cursors, so the union is never built.
+		 * 
+		 * @param parts The postings to merge.
+		 * @param limit The maximum number of documents to return.
+		 * @return The document numbers, highest score first.
+		 */
+		static int[] rankUnion(Collection<Posting> parts, int limit) {
+			Posting[] lists = parts.toArray(new Posting[0]);
+			int total = 0;
+			for (Posting list : lists) {
+				total += list.size;
+			}
+			TopDocs top = new TopDocs(Math.min(limit, total));
+
+			// Min-heap of list numbers ordered by the document under each cursor
+			int[] cursors = new int[lists.length];
+			int[] heap = new int[lists.length];
+			int count = 0;
+			for (int list = 0; list < lists.length; list++) {
+				if (lists[list].size > 0) {
+					heap[count++] = list;
+				}
+			}
+			for (int i = count / 2 - 1; i >= 0; i--) {
+				siftDown(heap, count, i, lists, cursors);
+			}
+			while (count > 0) {
+				int doc = current(lists, cursors, heap[0]);
+				int score = 0;
+				while (count > 0 && current(lists, cursors, heap[0]) == doc) {
+					int list = heap[0];
+					score += lists[list].scores[cursors[list]];
+					if (++cursors[list] == lists[list].size) {
+						heap[0] = heap[--count];
+					}
+					if (count > 0) {
+						siftDown(heap, count, 0, lists, cursors);
+					}
+				}
+				top.offer(doc, score);
+			}
+			return top.toArray();
+		}
+
+		/**
+		 * Moves a list down a min-heap of cursors until no child is on a smaller
+		 * document.
+		 * 
+		 * @param heap     The heap of list numbers.
+		 * @param count    The number of lists in the heap.
+		 * @param position The position of the list to move.
+		 * @param lists    The postings being merged.
+		 * @param cursors  The current position in each posting.
+		 */
+		private static void siftDown(int[] heap, int count, int position, Posting[] lists, int[] cursors) {
+			int list = heap[position];
+			int doc = current(lists, cursors, list);
+			while (true) {
+				int child = 2 * position + 1;
+				if (child >= count) {
+					break;
+				}
+				if (child + 1 < count && current(lists, cursors, heap[child + 1]) < current(lists, cursors, heap[child])) {
+					child++;
+				}
+				if (doc <= current(lists, cursors, heap[child])) {
+					break;
+				}
+				heap[position] = heap[child];
+				position = child;
+			}
+			heap[position] = list;
+		}
+
+		/**
+		 * Returns the document under the cursor of one of the postings being merged.
+		 * 
+		 * @param lists   The postings being merged.
+		 * @param cursors The current position in each posting.
+		 * @param list    The number of the posting.
+		 * @return The document number.
+		 */
+		private static int current(Posting[] lists, int[] cursors, int list) {
+			return lists[list].docs[cursors[list]];
+		}
+	}
+
+	/**
+	 * Keeps the best scored documents offered to it in a bounded heap, so ranking
+	 * costs the number of documents times the logarithm of the limit instead of a
+	 * sort of every match.
+	 */
+	private static final class TopDocs {
+
+		// Max-heap of packed entries, worst on top; an entry packs the score so that
+		// a smaller entry is a better document
+		private final long[] heap;
+
+		// Number of entries in the heap
+		private int count;
+
+		/**
+		 * Creates an empty selection.
+		 * 
+		 * @param limit The number of documents to keep.
+		 */
+		TopDocs(int limit) {
+			heap = new long[Math.max(0, limit)];
+		}
+
+		/**
+		 * Offers a document, which is kept if it is among the best seen so far.
+		 * 
+		 * @param doc   The document number.
+		 * @param score The score of the document.
+		 */
+		void offer(int doc, int score) {
+			if (heap.length == 0) {
+				return;
+			}
+			// Ascending entries give descending score, then increasing document
+			long entry = ((long) (Integer.MAX_VALUE - score) << 32) | doc;
+			if (count < heap.length) {
+				int position = count++;
+				while (position > 0) {
+					int parent = (position - 1) >>> 1;
+					if (heap[parent] >= entry) {
+						break;
+					}
+					heap[position] = heap[parent];
+					position = parent;
+				}
+				heap[position] = entry;
+			} else if (entry < heap[0]) {
+				heap[0] = entry;
+				siftDown(count);
+			}
+		}
+
+		/**
+		 * Empties the selection into an array.
+		 * 
+		 * @return The document numbers, highest score first.
+		 */
+		int[] toArray() {
+			int[] ranked = new int[count];
+			for (int i = count - 1; i >= 0; i--) {
+				ranked[i] = (int) heap[0];
+				heap[0] = heap[i];
+				siftDown(i);
+			}
+			count = 0;
+			return ranked;
+		}
+
+		/**
+		 * Moves the top entry down until no child is larger.
+		 * 
+		 * @param size The number of entries in the heap.
+		 */
+		private void siftDown(int size) {
+			long entry = heap[0];
+			int position = 0;
+			while (true) {
+				int child = 2 * position + 1;
+				if (child >= size) {
+					break;
+				}
+				if (child + 1 < size && heap[child + 1] > heap[child]) {
+					child++;
+				}
+				if (entry >= heap[child]) {
+					break;
+				}
+				heap[position] = heap[child];
+				position = child;
+			}
+			heap[position] = entry;
+		}
+	}
+}
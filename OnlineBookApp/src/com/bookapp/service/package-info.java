@@ -7,6 +7,15 @@
  * various attributes (e.g., ID, title, author, category, price), and sorting
  * books based on different fields. The interface {@link IBook} defines these
  * methods, and {@link BookImpl} is a concrete implementation of this interface.
+ * {@link ColumnarBookImpl} is an alternative implementation that stores the
+ * books column by column for very large catalogs.
+ * {@link ConcurrentBookImpl} is a thread-safe implementation for catalogs that
+ * are shared between threads and mostly read. {@link StripedBookImpl} splits
+ * the books into independently locked shards for catalogs that many threads
+ * write to at once. {@link CachingBookImpl} puts a bounded result cache in
+ * front of any implementation, and {@link DurableBookImpl} records every added
+ * book in a write-ahead log so that the catalog survives a restart.
+ * {@link BookSnapshot} saves and loads a catalog as a binary file.
  * 
  * <p>
  * The service methods may throw custom exceptions if the requested operations
@@ -16,6 +25,12 @@
  * 
  * @see IBook
  * @see BookImpl
+ * @see ColumnarBookImpl
+ * @see ConcurrentBookImpl
+ * @see StripedBookImpl
+ * @see CachingBookImpl
+ * @see DurableBookImpl
+ * @see BookSnapshot
  * @see com.bookapp.bean.Book
  * @see com.bookapp.exceptions.IdNotFoundException
  * @see com.bookapp.exceptions.TitleNotFoundException
@@ -0,0 +1,149 @@
+package com.bookapp.util;
+
+/**
+ * {@code BloomFilter} is a compact set of 64-bit hashes that answers "maybe
+ * present" or "definitely absent". A key that was added is always reported as
+ * maybe present; a key that was not added is reported as maybe present only
+ * with a small, configurable probability. It is used to answer lookups of
+ * keys that do not exist without touching the larger index behind the filter.
+ * 
+ * <p>
+ * The filter is sized from the number of keys it is expected to hold and the
+ * false-positive rate wanted at that size. Adding more keys than expected
+ * still never gives a wrong "definitely absent", but the false-positive rate
+ * rises. Keys cannot be removed.
+ * </p>
+ * 
+ * <p>
+ * Callers hash their keys themselves, so that equal keys, such as titles that
+ * differ only in case, can be given equal hashes. The filter derives its bit
+ * positions from the one hash by double hashing.
+ * </p>
+ * 
+ * <p>
+ * Example usage:
+ * </p>
+ * 
+ * <pre>
+ * BloomFilter filter = new BloomFilter(100_000, 0.01);
+ * filter.add(hash("Java"));
+ * if (!filter.mightContain(hash("Python"))) {
+ * 	// Definitely not present
+ * }
+ * </pre>
+ * 
+ * @author MonigaBalasubramanian
+ */
+public class BloomFilter {
+
+	// The bits of the filter
+	private final long[] bits;
+
+	// Number of usable bits
+	private final long bitCount;
+
+	// Number of bits set per key
+	private final int hashCount;
+
+	/**
+	 * Creates an empty filter.
+	 * 
+	 * @param expectedKeys      The number of keys the filter is expected to
+	 *                          hold.
+	 * @param falsePositiveRate The rate of false positives wanted once the
+	 *                          expected number of keys has been added, between
+	 *                          0 and 1.
+	 * @throws IllegalArgumentException If the number of keys is not positive or
+	 *                                  the rate is not between 0 and 1.
+	 */
+	public BloomFilter(long expectedKeys, double falsePositiveRate) {
+		super();
+		if (expectedKeys <= 0) {
+			throw new IllegalArgumentException("Expected keys must be positive: " + expectedKeys);
+		}
+		if (!(falsePositiveRate > 0 && falsePositiveRate < 1)) {
+			throw new IllegalArgumentException("False-positive rate must be between 0 and 1: " + falsePositiveRate);
+		}
+		// The optimal size is -n ln p / (ln 2)^2 bits, with (m / n) ln 2 hashes
+		double optimalBits = -expectedKeys * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2));
+		int words = (int) Math.min(Integer.MAX_VALUE - 8, Math.max(1, (long) Math.ceil(optimalBits / Long.SIZE)));
+		this.bits = new long[words];
+		this.bitCount = (long) words * Long.SIZE;
+		this.hashCount = (int) Math.max(1, Math.min(30, Math.round(optimalBits / expectedKeys * Math.log(2))));
+	}
+
+	/**
+	 * Creates a copy of another filter that can be changed independently.
+	 * 
+	 * @param source The filter to copy.
+	 */
+	public BloomFilter(BloomFilter source) {
+		super();
+		this.bits = source.bits.clone();
+		this.bitCount = source.bitCount;
+		this.hashCount = source.hashCount;
+	}
+
+	/**
+	 * This method adds a key to the filter.
+	 * 
+	 * @param hash The 64-bit hash of the key.
+	 */
+	public void add(long hash) {
+		long step = step(hash);
+		for (int i = 0; i < hashCount; i++) {
+			long bit = Math.floorMod(hash, bitCount);
+			bits[(int) (bit >>> 6)] |= 1L << bit;
+			hash += step;
+		}
+	}
+
+	/**
+	 * This method reports whether a key may have been added.
+	 * 
+	 * @param hash The 64-bit hash of the key.
+	 * @return {@code false} if the key was definitely never added, {@code true}
+	 *         if it may have been.
+	 */
+	public boolean mightContain(long hash) {
+		long step = step(hash);
+		for (int i = 0; i < hashCount; i++) {
+			long bit = Math.floorMod(hash, bitCount);
+			if ((bits[(int) (bit >>> 6)] & (1L << bit)) == 0) {
+				return false;
+			}
+			hash += step;
+		}
+		return true;
+	}
+
+	/**
+	 * This method gets the number of bits of the filter.
+	 * 
+	 * @return the number of bits
+	 */
+	public long getBitCount() {
+		return bitCount;
+	}
+
+	/**
+	 * This method gets the number of bits set for each key.
+	 * 
+	 * @return the number of hash functions
+	 */
+	public int getHashCount() {
+		return hashCount;
+	}
+
+	/**
+	 * Derives the second hash used for double hashing from the first one. The
+	 * step is odd, so it never stays on the same bit.
+	 * 
+	 * @param hash The hash of the key.
+	 * @return The distance between the bits of the key.
+	 */
+	private static long step(long hash) {
+		long mixed = Long.rotateLeft(hash, 32) * 0x9E3779B97F4A7C15L;
+		return (mixed ^ (mixed >>> 29)) | 1;
+	}
+}
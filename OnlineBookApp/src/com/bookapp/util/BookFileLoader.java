@@ -0,0 +1,301 @@
+package com.bookapp.util;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import com.bookapp.bean.Book;
+import com.bookapp.service.IBook;
+
+/**
+ * {@code BookFileLoader} loads books in bulk from a delimited text file, such
+ * as a CSV or TSV export, into an {@link IBook} implementation.
+ * 
+ * <p>
+ * Each line holds one book with the fields in this order: book ID, title,
+ * author, category and price. With a comma delimiter, fields may be enclosed
+ * in double quotes to contain the delimiter, and a doubled quote inside a
+ * quoted field stands for one quote. Fields must not contain line breaks.
+ * </p>
+ * 
+ * <p>
+ * The file is split into chunks that end on line boundaries. The chunks are
+ * parsed in parallel on a {@link ForkJoinPool}, while the parsed books are
+ * handed to {@link IBook#addBooks(java.util.Collection)} one chunk at a time
+ * and in file order. Only a bounded number of chunks is in flight, so memory
+ * use does not depend on the size of the file.
+ * </p>
+ * 
+ * <p>
+ * Example usage:
+ * </p>
+ * 
+ * <pre>
+ * IBook bookInstance = new BookImpl();
+ * long count = new BookFileLoader(',', true).load(Paths.get("books.csv"), bookInstance);
+ * </pre>
+ * 
+ * @author MonigaBalasubramanian
+ * @see IBook#addBooks(java.util.Collection)
+ */
+public class BookFileLoader {
+
+	// Size of the chunks handed to the parser threads
+	private static final int CHUNK_SIZE = 4 * 1024 * 1024;
+
+	// Number of fields of a book
+	private static final int FIELD_COUNT = 5;
+
+	// Separates the fields of a line
+	private final char delimiter;
+
+	// Whether the first line of the file holds column names
+	private final boolean hasHeader;
+
+	// Pool running the parser tasks
+	private final ForkJoinPool pool;
+
+	/**
+	 * Creates a loader that parses on the common fork-join pool.
+	 * 
+	 * @param delimiter The character that separates fields, such as {@code ','}
+	 *                  or {@code '\t'}.
+	 * @param hasHeader {@code true} if the first line holds column names and must
+	 *                  be skipped.
+	 */
+	public BookFileLoader(char delimiter, boolean hasHeader) {
+		this(delimiter, hasHeader, ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * Creates a loader that parses on the given fork-join pool.
+	 * 
+	 * @param delimiter The character that separates fields.
+	 * @param hasHeader {@code true} if the first line holds column names and must
+	 *                  be skipped.
+	 * @param pool      The pool that runs the parser tasks.
+	 */
+	public BookFileLoader(char delimiter, boolean hasHeader, ForkJoinPool pool) {
+		super();
+		this.delimiter = delimiter;
+		this.hasHeader = hasHeader;
+		this.pool = pool;
+	}
+
+	/**
+	 * Loads every book of a file into the given {@link IBook}. The books are added
+	 * in file order.
+	 * 
+	 * @param file   The file to load.
+	 * @param target The {@link IBook} that receives the books.
+	 * @return The number of books loaded.
+	 * @throws IOException If the file cannot be read or contains a malformed line.
+	 *                     Books of the chunks before the malformed line may
+	 *                     already have been added.
+	 */
+	public long load(Path file, IBook target) throws IOException {
+		long loaded = 0;
+		Deque<ForkJoinTask<List<Book>>> inFlight = new ArrayDeque<>();
+		int window = Math.max(2, pool.getParallelism() * 2);
+
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			long fileSize = channel.size();
+			long start = 0;
+			boolean first = true;
+			while (start < fileSize) {
+				long end = chunkEnd(channel, start, fileSize);
+				long chunkStart = start;
+				boolean skipHeader = first && hasHeader;
+				inFlight.add(pool.submit(() -> parseChunk(channel, chunkStart, end, skipHeader)));
+				start = end;
+				first = false;
+
+				if (inFlight.size() >= window) {
+					loaded += addNext(inFlight, target);
+				}
+			}
+			while (!inFlight.isEmpty()) {
+				loaded += addNext(inFlight, target);
+			}
+		} finally {
+			for (ForkJoinTask<List<Book>> task : inFlight) {
+				task.cancel(true);
+			}
+		}
+		return loaded;
+	}
+
+	/**
+	 * Waits for the oldest chunk and adds its books to the target.
+	 * 
+	 * @param inFlight The chunks being parsed, oldest first.
+	 * @param target   The {@link IBook} that receives the books.
+	 * @return The number of books added.
+	 * @throws IOException If the chunk could not be parsed.
+	 */
+	private static int addNext(Deque<ForkJoinTask<List<Book>>> inFlight, IBook target) throws IOException {
+		List<Book> books;
+		try {
+			books = inFlight.poll().get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IOException("Interrupted while loading books", e);
+		} catch (ExecutionException e) {
+			// The pool wraps checked exceptions, so look for the original one
+			for (Throwable cause = e.getCause(); cause != null; cause = cause.getCause()) {
+				if (cause instanceof IOException) {
+					throw (IOException) cause;
+				}
+			}
+			throw new IOException(e.getCause());
+		}
+		target.addBooks(books);
+		return books.size();
+	}
+
+	/**
+	 * Finds the end of the chunk that starts at the given position: the first
+	 * position after a line break at least {@link #CHUNK_SIZE} bytes further on,
+	 * or the end of the file.
+	 * 
+	 * @param channel  The file.
+	 * @param start    The start of the chunk.
+	 * @param fileSize The size of the file.
+	 * @return The end of the chunk, exclusive.
+	 * @throws IOException If the file cannot be read.
+	 */
+	private static long chunkEnd(FileChannel channel, long start, long fileSize) throws IOException {
+		long position = start + CHUNK_SIZE;
+		ByteBuffer buffer = ByteBuffer.allocate(8192);
+		while (position < fileSize) {
+			buffer.clear();
+			int read = channel.read(buffer, position);
+			if (read <= 0) {
+				break;
+			}
+			for (int i = 0; i < read; i++) {
+				if (buffer.get(i) == '\n') {
+					return position + i + 1;
+				}
+			}
+			position += read;
+		}
+		return fileSize;
+	}
+
+	/**
+	 * Reads and parses one chunk of the file. A chunk always starts at the
+	 * beginning of a line and ends after a line break or at the end of the file.
+	 * 
+	 * @param channel    The file.
+	 * @param start      The start of the chunk.
+	 * @param end        The end of the chunk, exclusive.
+	 * @param skipHeader {@code true} to skip the first line of the chunk.
+	 * @return The books of the chunk, in file order.
+	 * @throws IOException If the chunk cannot be read or contains a malformed
+	 *                     line.
+	 */
+	private List<Book> parseChunk(FileChannel channel, long start, long end, boolean skipHeader)
+			throws IOException {
+		ByteBuffer buffer = ByteBuffer.allocate((int) (end - start));
+		while (buffer.hasRemaining()) {
+			if (channel.read(buffer, start + buffer.position()) < 0) {
+				break;
+			}
+		}
+		String text = new String(buffer.array(), 0, buffer.position(), StandardCharsets.UTF_8);
+
+		List<Book> books = new ArrayList<>();
+		List<String> fields = new ArrayList<>(FIELD_COUNT);
+		int lineStart = 0;
+		boolean skip = skipHeader;
+		while (lineStart < text.length()) {
+			int lineEnd = text.indexOf('\n', lineStart);
+			if (lineEnd < 0) {
+				lineEnd = text.length();
+			}
+			int contentEnd = lineEnd > lineStart && text.charAt(lineEnd - 1) == '\r' ? lineEnd - 1 : lineEnd;
+			if (skip) {
+				skip = false;
+			} else if (contentEnd > lineStart) {
+				books.add(parseLine(text, lineStart, contentEnd, fields, start));
+			}
+			lineStart = lineEnd + 1;
+		}
+		return books;
+	}
+
+	/**
+	 * Parses one line into a {@link Book}.
+	 * 
+	 * @param text        The text of the chunk.
+	 * @param start       The start of the line in the text.
+	 * @param end         The end of the line in the text, exclusive.
+	 * @param fields      A list reused to collect the fields.
+	 * @param chunkOffset The position of the chunk in the file, used in error
+	 *                    messages.
+	 * @return The book described by the line.
+	 * @throws IOException If the line does not hold a valid book.
+	 */
+	private Book parseLine(String text, int start, int end, List<String> fields, long chunkOffset)
+			throws IOException {
+		fields.clear();
+		StringBuilder field = new StringBuilder();
+		boolean quoted = false;
+		for (int i = start; i < end; i++) {
+			char ch = text.charAt(i);
+			if (quoted) {
+				if (ch == '"' && i + 1 < end && text.charAt(i + 1) == '"') {
+					field.append('"');
+					i++;
+				} else if (ch == '"') {
+					quoted = false;
+				} else {
+					field.append(ch);
+				}
+			} else if (ch == delimiter) {
+				fields.add(field.toString());
+				field.setLength(0);
+			} else if (ch == '"' && field.length() == 0) {
+				quoted = true;
+			} else {
+				field.append(ch);
+			}
+		}
+		fields.add(field.toString());
+
+		if (fields.size() != FIELD_COUNT) {
+			throw malformed(text, start, end, chunkOffset, "expected " + FIELD_COUNT + " fields");
+		}
+		try {
+			return new Book(Integer.parseInt(fields.get(0).trim()), fields.get(1), fields.get(2), fields.get(3),
+					Double.parseDouble(fields.get(4).trim()));
+		} catch (NumberFormatException e) {
+			throw malformed(text, start, end, chunkOffset, e.getMessage());
+		}
+	}
+
+	/**
+	 * Builds the exception reported for a malformed line.
+	 * 
+	 * @param text        The text of the chunk.
+	 * @param start       The start of the line in the text.
+	 * @param end         The end of the line in the text, exclusive.
+	 * @param chunkOffset The position of the chunk in the file.
+	 * @param reason      Why the line is malformed.
+	 * @return The exception to throw.
+	 */
+	private static IOException malformed(String text, int start, int end, long chunkOffset, String reason) {
+		return new IOException("Malformed line in chunk at byte " + chunkOffset + " (" + reason + "): "
+				+ text.substring(start, end));
+	}
+}
@@ -0,0 +1,92 @@
+package com.bookapp.util;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * {@code StringPool} maps equal strings to one shared instance. Values that
+ * repeat across many books, such as authors and categories, can be passed
+ * through a pool so that the books hold references to one copy of each value
+ * instead of a copy each. This saves memory, and comparing two pooled values
+ * with {@link String#equals(Object)} is decided by its identity check when
+ * they are equal.
+ * 
+ * <p>
+ * Unlike {@link String#intern()}, the pool belongs to whoever creates it and
+ * is reclaimed with it. The pool holds at most a fixed number of values; once
+ * it is full, new values are returned unchanged, so a field with unbounded
+ * distinct values cannot make it grow without limit. A pool can be shared by
+ * any number of threads.
+ * </p>
+ * 
+ * <p>
+ * Example usage:
+ * </p>
+ * 
+ * <pre>
+ * StringPool authors = new StringPool();
+ * book.setAuthor(authors.intern(book.getAuthor()));
+ * </pre>
+ * 
+ * @author MonigaBalasubramanian
+ */
+public class StringPool {
+
+	// Number of values held by a pool created without a limit
+	private static final int DEFAULT_MAX_SIZE = 1 << 20;
+
+	// Pooled values, each mapped to itself
+	private final ConcurrentHashMap<String, String> values = new ConcurrentHashMap<>();
+
+	// Largest number of values the pool holds
+	private final int maxSize;
+
+	/**
+	 * Creates an empty pool that holds up to about a million values.
+	 */
+	public StringPool() {
+		this(DEFAULT_MAX_SIZE);
+	}
+
+	/**
+	 * Creates an empty pool that holds up to the given number of values.
+	 * 
+	 * @param maxSize The largest number of values to hold.
+	 */
+	public StringPool(int maxSize) {
+		super();
+		this.maxSize = maxSize;
+	}
+
+	/**
+	 * This method returns the pooled instance of a string. If the pool holds no
+	 * equal string yet, the given one is added, unless the pool is full.
+	 * 
+	 * @param value the string, may be {@code null}
+	 * @return an equal string, shared with every other caller that passed an
+	 *         equal value while there was room; {@code null} if {@code value} is
+	 *         {@code null}
+	 */
+	public String intern(String value) {
+		if (value == null) {
+			return null;
+		}
+		String pooled = values.get(value);
+		if (pooled != null) {
+			return pooled;
+		}
+		if (values.size() >= maxSize) {
+			return value;
+		}
+		pooled = values.putIfAbsent(value, value);
+		return pooled == null ? value : pooled;
+	}
+
+	/**
+	 * This method gets the number of values in the pool.
+	 * 
+	 * @return the number of pooled values
+	 */
+	public int size() {
+		return values.size();
+	}
+}
@@ -0,0 +1,21 @@
+/**
+ * Provides utility classes for the Book application.
+ * 
+ * <p>
+ * This package includes helper classes that work with the service layer but
+ * are not part of it. Key classes in this package include:
+ * </p>
+ * <ul>
+ * <li>{@link com.bookapp.util.BookFileLoader} - Loads books in bulk from
+ * delimited text files, such as CSV or TSV exports, parsing the file in
+ * parallel.</li>
+ * <li>{@link com.bookapp.util.BloomFilter} - A compact probabilistic set that
+ * tells keys which are definitely absent from keys which may be present.</li>
+ * <li>{@link com.bookapp.util.StringPool} - Maps equal strings, such as
+ * repeated authors and categories, to one shared instance.</li>
+ * </ul>
+ * 
+ * @see com.bookapp.service.IBook
+ * @author MonigaBalasubramanian
+ */
+package com.bookapp.util;
@@ -0,0 +1,127 @@
+package com.onlinebookapp.bean;
+
+import java.sql.SQLException;
+import java.util.Arrays;
+
+/**
+ * Represents the outcome of a bulk operation on book records, one entry per
+ * row in the order the rows were given.
+ * <p>
+ * Each row is either applied, not found (an update or delete that matched no
+ * record), or failed. A failed row carries the {@link SQLException} that the
+ * database reported for it.
+ * </p>
+ * 
+ * @author MonigaBalasubramanian
+ * @version 1.0
+ * @since 1.0
+ */
+public class BatchResult {
+
+	/**
+	 * The outcome of one row of a bulk operation.
+	 */
+	public enum Outcome {
+
+		/**
+		 * The row was written to the database.
+		 */
+		APPLIED,
+
+		/**
+		 * The row matched no book record, so nothing was changed.
+		 */
+		NOT_FOUND,
+
+		/**
+		 * The database rejected the row, or the row could not be attempted.
+		 */
+		FAILED
+	}
+
+	private final Outcome[] outcomes;
+	private final SQLException[] errors;
+
+	/**
+	 * Creates a result for the given number of rows, with every row marked as
+	 * failed until its outcome is known.
+	 * 
+	 * @param size the number of rows in the bulk operation
+	 */
+	public BatchResult(int size) {
+		super();
+		this.outcomes = new Outcome[size];
+		this.errors = new SQLException[size];
+		Arrays.fill(outcomes, Outcome.FAILED);
+	}
+
+	/**
+	 * This method records the outcome of a row.
+	 * 
+	 * @param row     the index of the row
+	 * @param outcome the outcome of the row
+	 * @param error   the error reported for a failed row, or {@code null}
+	 */
+	public void setOutcome(int row, Outcome outcome, SQLException error) {
+		outcomes[row] = outcome;
+		errors[row] = error;
+	}
+
+	/**
+	 * This method gets the number of rows in the bulk operation.
+	 * 
+	 * @return the number of rows
+	 */
+	public int size() {
+		return outcomes.length;
+	}
+
+	/**
+	 * This method gets the outcome of a row.
+	 * 
+	 * @param row the index of the row
+	 * @return the outcome of the row
+	 */
+	public Outcome getOutcome(int row) {
+		return outcomes[row];
+	}
+
+	/**
+	 * This method gets the error reported for a failed row.
+	 * 
+	 * @param row the index of the row
+	 * @return the error, or {@code null} if the row did not fail or no error was
+	 *         reported
+	 */
+	public SQLException getError(int row) {
+		return errors[row];
+	}
+
+	/**
+	 * This method counts the rows with the given outcome.
+	 * 
+	 * @param outcome the outcome to count
+	 * @return the number of rows with that outcome
+	 */
+	public int count(Outcome outcome) {
+		int count = 0;
+		for (Outcome each : outcomes) {
+			if (each == outcome) {
+				count++;
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * Returns a string representation of the result, giving the number of rows
+	 * with each outcome.
+	 * 
+	 * @return a string representation of the result
+	 */
+	@Override
+	public String toString() {
+		return "BatchResult [applied=" + count(Outcome.APPLIED) + ", notFound=" + count(Outcome.NOT_FOUND)
+				+ ", failed=" + count(Outcome.FAILED) + "]";
+	}
+}
@@ -0,0 +1,100 @@
+package com.onlinebookapp.bean;
+
+import java.util.List;
+
+/**
+ * Represents one page of a paged book listing or search.
+ * <p>
+ * Besides the books of the page, a page carries an opaque token that is passed
+ * back to the same listing or search to get the next page. The token records
+ * where the page ended, so the next page starts right after it even if books
+ * have been added or removed in between. The last page has no token.
+ * </p>
+ * 
+ * @author MonigaBalasubramanian
+ * @version 1.0
+ * @since 1.0
+ */
+public class BookPage {
+
+	/**
+	 * The order in which a paged listing returns books. Books with equal values
+	 * are ordered by their ID.
+	 */
+	public enum SortKey {
+
+		/**
+		 * Orders books by their ID.
+		 */
+		BOOK_ID,
+
+		/**
+		 * Orders books by title.
+		 */
+		TITLE,
+
+		/**
+		 * Orders books by author.
+		 */
+		AUTHOR,
+
+		/**
+		 * Orders books by price.
+		 */
+		PRICE
+	}
+
+	private final List<Book> books;
+	private final String nextPageToken;
+
+	/**
+	 * Parameterized constructor that initializes a new page.
+	 * 
+	 * @param books         the books of the page
+	 * @param nextPageToken the token of the next page, or {@code null} if this is
+	 *                      the last page
+	 */
+	public BookPage(List<Book> books, String nextPageToken) {
+		super();
+		this.books = books;
+		this.nextPageToken = nextPageToken;
+	}
+
+	/**
+	 * This method gets the books of the page.
+	 * 
+	 * @return the books of the page, in the order of the listing
+	 */
+	public List<Book> getBooks() {
+		return books;
+	}
+
+	/**
+	 * This method gets the token to pass back for the next page.
+	 * 
+	 * @return the token of the next page, or {@code null} if this is the last
+	 *         page
+	 */
+	public String getNextPageToken() {
+		return nextPageToken;
+	}
+
+	/**
+	 * This method tells whether there is a page after this one.
+	 * 
+	 * @return {@code true} if {@link #getNextPageToken()} is not {@code null}
+	 */
+	public boolean hasNextPage() {
+		return nextPageToken != null;
+	}
+
+	/**
+	 * Returns a string representation of the page.
+	 * 
+	 * @return a string representation of the page
+	 */
+	@Override
+	public String toString() {
+		return "BookPage [books=" + books + ", nextPageToken=" + nextPageToken + "]";
+	}
+}
@@ -8,6 +8,10 @@
  * <ul>
  * <li>{@link com.onlinebookapp.bean.Book} - Represents a book with details such
  * as ID, title, author, category, and price.</li>
+ * <li>{@link com.onlinebookapp.bean.BatchResult} - Holds the outcome of each row
+ * of a bulk add, update or delete.</li>
+ * <li>{@link com.onlinebookapp.bean.BookPage} - Holds one page of a paged
+ * listing and the token of the next page.</li>
  * </ul>
  * </p>
  * 
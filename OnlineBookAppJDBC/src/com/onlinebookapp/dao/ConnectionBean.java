@@ -3,7 +3,6 @@ package com.onlinebookapp.dao;
 import java.io.FileReader;
 import java.io.IOException;
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.SQLException;
 import java.util.Properties;
 
@@ -11,9 +10,10 @@ import java.util.Properties;
  * A utility class for managing database connections in the Online Book
  * Application.
  * <p>
- * This class provides static methods for establishing and closing JDBC
- * connections to the database. It uses a properties file to load connection
- * parameters and manages the connection lifecycle.
+ * This class provides static methods for borrowing and returning JDBC
+ * connections. The connection parameters are read from a properties file once,
+ * when the first connection is requested, and the connections are taken from a
+ * shared {@link ConnectionPool} instead of being opened for every call.
  * </p>
  * 
  * @author MonigaBalasubramanian
@@ -21,19 +21,25 @@ import java.util.Properties;
 public class ConnectionBean {
 
 	/**
-	 * The JDBC connection object. This field is used to store the current
-	 * connection to the database.
+	 * Holds the shared connection pool. The pool is created when this class is
+	 * first used, which the JVM does exactly once even if several threads ask for
+	 * a connection at the same time.
 	 */
-	static Connection connection;
+	private static final class PoolHolder {
+
+		/**
+		 * The connection pool built from {@code jdbc.properties}.
+		 */
+		static final ConnectionPool POOL = new ConnectionPool(loadProperties());
+	}
 
 	/**
-	 * Establishes a connection to the database using parameters specified in a
-	 * properties file.
+	 * Borrows a connection to the database from the shared connection pool.
 	 * <p>
-	 * This method reads the database connection properties from the
-	 * {@code jdbc.properties} file, which includes the database URL, username, and
-	 * password. It then attempts to load the JDBC driver and establish a connection
-	 * to the database using the provided parameters.
+	 * On first use, this method reads the database connection properties from
+	 * the {@code jdbc.properties} file, which includes the database URL, username,
+	 * and password, and loads the JDBC driver. The connection must be handed back
+	 * with {@link #closeConnection(Connection)} once the caller is done with it.
 	 * </p>
 	 * 
 	 * @return the {@code Connection} object representing the established connection
@@ -41,36 +47,26 @@ public class ConnectionBean {
 	 *         {@code null} is returned.
 	 */
 	public static Connection openConnection() {
-		Properties properties = new Properties();
 		try {
-			properties.load(new FileReader("jdbc.properties"));
-		} catch (IOException e) {
+			return PoolHolder.POOL.getConnection();
+		} catch (SQLException | RuntimeException | LinkageError e) {
 			e.printStackTrace();
+			return null;
 		}
-
-		String url = (String) properties.getProperty("url");
-		String username = (String) properties.getProperty("username");
-		String password = (String) properties.getProperty("password");
-
-		connection = null;
-		try {
-			Class.forName("com.mysql.cj.jdbc.Driver");
-			connection = DriverManager.getConnection(url, username, password);
-		} catch (ClassNotFoundException | SQLException e) {
-			e.printStackTrace();
-		}
-		return connection;
 	}
 
 	/**
-	 * Closes the current database connection if it is not {@code null}.
+	 * Returns a connection to the shared connection pool if it is not
+	 * {@code null}.
 	 * <p>
-	 * This method checks if the {@code connection} field is not {@code null} and,
-	 * if so, closes the connection to free up resources. Any {@code SQLException}
-	 * that occurs during the closing process is caught and printed.
+	 * Any transaction the caller left open is rolled back, and the connection is
+	 * kept open for the next caller. Any {@code SQLException} that occurs during
+	 * the process is caught and printed.
 	 * </p>
+	 * 
+	 * @param connection the connection obtained from {@link #openConnection()}.
 	 */
-	public static void closeConnection() {
+	public static void closeConnection(Connection connection) {
 		try {
 			if (connection != null) {
 				connection.close();
@@ -79,4 +75,42 @@ public class ConnectionBean {
 			e.printStackTrace();
 		}
 	}
+
+	/**
+	 * Returns the shared connection pool, for example to read its statement
+	 * cache hit rate.
+	 * 
+	 * @return the pool that {@link #openConnection()} borrows from.
+	 */
+	public static ConnectionPool getConnectionPool() {
+		return PoolHolder.POOL;
+	}
+
+	/**
+	 * Reads the connection properties and loads the JDBC driver.
+	 * <p>
+	 * The database URL is read from the {@code url} property. Older property
+	 * files hold it under the {@code driver} key instead, which is also accepted.
+	 * </p>
+	 * 
+	 * @return the connection and pool properties.
+	 */
+	private static Properties loadProperties() {
+		Properties properties = new Properties();
+		try (FileReader reader = new FileReader("jdbc.properties")) {
+			properties.load(reader);
+		} catch (IOException e) {
+			e.printStackTrace();
+		}
+		if (properties.getProperty("url") == null && properties.getProperty("driver") != null) {
+			properties.setProperty("url", properties.getProperty("driver"));
+		}
+
+		try {
+			Class.forName("com.mysql.cj.jdbc.Driver");
+		} catch (ClassNotFoundException e) {
+			e.printStackTrace();
+		}
+		return properties;
+	}
 }
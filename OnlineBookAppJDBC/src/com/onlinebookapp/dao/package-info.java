@@ -3,12 +3,18 @@
  * the Online Book Application.
  * <p>
  * This package contains utility classes responsible for handling database
- * connections and executing SQL queries. The primary class in this package is:
+ * connections and executing SQL queries. The primary classes in this package
+ * are:
  * <ul>
  * <li>{@link com.onlinebookapp.dao.ConnectionBean} - Manages database
- * connections by providing methods to establish and close connections using
- * JDBC. It loads connection parameters from a properties file and handles the
- * connection lifecycle.</li>
+ * connections by providing methods to borrow and return connections using
+ * JDBC. It loads connection parameters from a properties file once and hands
+ * out connections from a shared pool.</li>
+ * <li>{@link com.onlinebookapp.dao.ConnectionPool} - Keeps a bounded number of
+ * connections open and lends them out, validating them on borrow, closing
+ * connections that stay idle too long and timing out borrowers when every
+ * connection is in use. Each connection keeps the statements prepared on it,
+ * so that preparing the same query again reuses them.</li>
  * </ul>
  * </p>
  * 
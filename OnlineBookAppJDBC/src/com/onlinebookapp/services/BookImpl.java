@@ -4,10 +4,21 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
+import com.onlinebookapp.bean.BatchResult;
+import com.onlinebookapp.bean.BatchResult.Outcome;
 import com.onlinebookapp.bean.Book;
+import com.onlinebookapp.bean.BookPage;
+import com.onlinebookapp.bean.BookPage.SortKey;
 import com.onlinebookapp.dao.ConnectionBean;
 import com.onlinebookapp.exceptions.AuthorNotFoundException;
 import com.onlinebookapp.exceptions.BookNotFoundException;
@@ -15,6 +26,7 @@ import com.onlinebookapp.exceptions.CategoryNotFoundException;
 import com.onlinebookapp.exceptions.IdNotFoundException;
 import com.onlinebookapp.exceptions.PriceNotAvailableException;
 import com.onlinebookapp.util.Queries;
+import com.onlinebookapp.util.StringPool;
 
 /**
  * Implementation of the {@link BookInterface} that provides methods for
@@ -31,6 +43,95 @@ import com.onlinebookapp.util.Queries;
  */
 public class BookImpl implements BookInterface {
 
+	/**
+	 * The pool of authors and categories shared by all books read from the
+	 * database, so that equal values are held once.
+	 */
+	private static final StringPool STRINGS = new StringPool();
+
+	/**
+	 * The number of rows sent in one batch, and written in one transaction, by
+	 * the bulk operations when no other size is given.
+	 */
+	public static final int DEFAULT_BATCH_SIZE = 1000;
+
+	/**
+	 * The number of rows sent in one batch by the bulk operations.
+	 */
+	private final int batchSize;
+
+	/**
+	 * The number of rows the driver is asked to fetch per round trip when a
+	 * query result is streamed.
+	 */
+	private static final int STREAM_FETCH_SIZE = 500;
+
+	/**
+	 * The largest number of books on one page of a paged listing.
+	 */
+	public static final int MAX_PAGE_SIZE = 1000;
+
+	/**
+	 * Sets the parameters of a query before it is executed.
+	 */
+	@FunctionalInterface
+	private interface QueryBinder {
+
+		/**
+		 * Sets the parameters of the statement.
+		 * 
+		 * @param preparedStatement the statement to bind.
+		 * @throws SQLException if a parameter cannot be set.
+		 */
+		void bind(PreparedStatement preparedStatement) throws SQLException;
+	}
+
+	/**
+	 * Binds the values of one row of a bulk operation to the parameters of a
+	 * prepared statement.
+	 * 
+	 * @param <T> the type of the rows.
+	 */
+	@FunctionalInterface
+	private interface RowBinder<T> {
+
+		/**
+		 * Sets the parameters of the statement from a row.
+		 * 
+		 * @param preparedStatement the statement to bind.
+		 * @param row               the row.
+		 * @throws SQLException if a parameter cannot be set.
+		 */
+		void bind(PreparedStatement preparedStatement, T row) throws SQLException;
+	}
+
+	/**
+	 * Creates a book service whose bulk operations send
+	 * {@value #DEFAULT_BATCH_SIZE} rows per batch.
+	 */
+	public BookImpl() {
+		this(DEFAULT_BATCH_SIZE);
+	}
+
+	/**
+	 * Creates a book service whose bulk operations send the given number of rows
+	 * per batch.
+	 * <p>
+	 * Larger batches need fewer round trips and commits, but a failed batch is
+	 * retried one row at a time, which costs more for a larger batch.
+	 * </p>
+	 * 
+	 * @param batchSize the number of rows per batch and per transaction.
+	 * @throws IllegalArgumentException if the batch size is not positive.
+	 */
+	public BookImpl(int batchSize) {
+		super();
+		if (batchSize < 1) {
+			throw new IllegalArgumentException("Batch size must be positive: " + batchSize);
+		}
+		this.batchSize = batchSize;
+	}
+
 	/**
 	 * Adds a new book record to the database.
 	 * <p>
@@ -67,7 +168,7 @@ public class BookImpl implements BookInterface {
 			} catch (SQLException e) {
 				e.printStackTrace();
 			}
-			ConnectionBean.closeConnection();
+			ConnectionBean.closeConnection(connection);
 		}
 	}
 
@@ -109,7 +210,7 @@ public class BookImpl implements BookInterface {
 			} catch (SQLException e) {
 				e.printStackTrace();
 			}
-			ConnectionBean.closeConnection();
+			ConnectionBean.closeConnection(connection);
 		}
 		return value;
 	}
@@ -153,7 +254,7 @@ public class BookImpl implements BookInterface {
 			} catch (SQLException e) {
 				e.printStackTrace();
 			}
-			ConnectionBean.closeConnection();
+			ConnectionBean.closeConnection(connection);
 		}
 		return result;
 	}
@@ -184,13 +285,7 @@ public class BookImpl implements BookInterface {
 			resultset = preparedStatement.executeQuery();
 			resultset.beforeFirst();
 			while (resultset.next()) {
-				Book book = new Book();
-				book.setBookId(resultset.getInt(1));
-				book.setTitle(resultset.getString(2));
-				book.setAuthor(resultset.getString(3));
-				book.setCategory(resultset.getString(4));
-				book.setPrice(resultset.getDouble(5));
-				bookList.add(book);
+				bookList.add(toBook(resultset));
 			}
 		} catch (SQLException e) {
 			e.printStackTrace();
@@ -202,7 +297,7 @@ public class BookImpl implements BookInterface {
 			} catch (SQLException e) {
 				e.printStackTrace();
 			}
-			ConnectionBean.closeConnection();
+			ConnectionBean.closeConnection(connection);
 		}
 		if (bookList.isEmpty()) {
 			throw new BookNotFoundException("No books found in the database.");
@@ -240,12 +335,7 @@ public class BookImpl implements BookInterface {
 			}
 			resultset.beforeFirst();
 			while (resultset.next()) {
-				book = new Book();
-				book.setBookId(resultset.getInt(1));
-				book.setTitle(resultset.getString(2));
-				book.setAuthor(resultset.getString(3));
-				book.setCategory(resultset.getString(4));
-				book.setPrice(resultset.getDouble(5));
+				book = toBook(resultset);
 			}
 		} catch (SQLException e) {
 			e.printStackTrace();
@@ -257,7 +347,7 @@ public class BookImpl implements BookInterface {
 			} catch (SQLException e) {
 				e.printStackTrace();
 			}
-			ConnectionBean.closeConnection();
+			ConnectionBean.closeConnection(connection);
 		}
 		if (book == null) {
 			throw new IdNotFoundException("Given BookID is not found.");
@@ -297,13 +387,7 @@ public class BookImpl implements BookInterface {
 			}
 			resultset.beforeFirst();
 			while (resultset.next()) {
-				Book book = new Book();
-				book.setBookId(resultset.getInt(1));
-				book.setTitle(resultset.getString(2));
-				book.setAuthor(resultset.getString(3));
-				book.setCategory(resultset.getString(4));
-				book.setPrice(resultset.getDouble(5));
-				bookList.add(book);
+				bookList.add(toBook(resultset));
 			}
 		} catch (SQLException e) {
 			e.printStackTrace();
@@ -315,7 +399,7 @@ public class BookImpl implements BookInterface {
 			} catch (SQLException e) {
 				e.printStackTrace();
 			}
-			ConnectionBean.closeConnection();
+			ConnectionBean.closeConnection(connection);
 		}
 		if (bookList.isEmpty()) {
 			throw new AuthorNotFoundException("No books found for the specified author.");
@@ -355,13 +439,7 @@ public class BookImpl implements BookInterface {
 			}
 			resultset.beforeFirst();
 			while (resultset.next()) {
-				Book book = new Book();
-				book.setBookId(resultset.getInt(1));
-				book.setTitle(resultset.getString(2));
-				book.setAuthor(resultset.getString(3));
-				book.setCategory(resultset.getString(4));
-				book.setPrice(resultset.getDouble(5));
-				bookList.add(book);
+				bookList.add(toBook(resultset));
 			}
 		} catch (SQLException e) {
 			e.printStackTrace();
@@ -373,7 +451,7 @@ public class BookImpl implements BookInterface {
 			} catch (SQLException e) {
 				e.printStackTrace();
 			}
-			ConnectionBean.closeConnection();
+			ConnectionBean.closeConnection(connection);
 		}
 		if (bookList.isEmpty()) {
 			throw new CategoryNotFoundException("No books found in the specified category.");
@@ -413,13 +491,7 @@ public class BookImpl implements BookInterface {
 			}
 			resultset.beforeFirst();
 			while (resultset.next()) {
-				Book book = new Book();
-				book.setBookId(resultset.getInt(1));
-				book.setTitle(resultset.getString(2));
-				book.setAuthor(resultset.getString(3));
-				book.setCategory(resultset.getString(4));
-				book.setPrice(resultset.getDouble(5));
-				bookList.add(book);
+				bookList.add(toBook(resultset));
 			}
 		} catch (SQLException e) {
 			e.printStackTrace();
@@ -431,11 +503,569 @@ public class BookImpl implements BookInterface {
 			} catch (SQLException e) {
 				e.printStackTrace();
 			}
-			ConnectionBean.closeConnection();
+			ConnectionBean.closeConnection(connection);
 		}
 		if (bookList.isEmpty()) {
 			throw new PriceNotAvailableException("No books found at the specified price.");
 		}
 		return bookList;
 	}
+
+	/**
+	 * Adds many book records to the database in batches.
+	 * <p>
+	 * With the MySQL driver, setting {@code rewriteBatchedStatements=true} in
+	 * {@code jdbc.properties} lets the driver send each batch as a single
+	 * multi-row INSERT statement.
+	 * </p>
+	 * 
+	 * @param books the {@link Book} objects to be added.
+	 * @return the outcome for each book, in the order the books were given.
+	 */
+	@Override
+	public BatchResult addBooks(Collection<Book> books) {
+		return executeInBatches(Queries.INSERT_QUERY, new ArrayList<>(books), (preparedStatement, book) -> {
+			preparedStatement.setInt(1, book.getBookId());
+			preparedStatement.setString(2, book.getTitle());
+			preparedStatement.setString(3, book.getAuthor());
+			preparedStatement.setString(4, book.getCategory());
+			preparedStatement.setDouble(5, book.getPrice());
+		});
+	}
+
+	/**
+	 * Updates many book records in the database in batches.
+	 * 
+	 * @param books the {@link Book} objects holding the new values.
+	 * @return the outcome for each book, in the order the books were given.
+	 */
+	@Override
+	public BatchResult updateBooks(Collection<Book> books) {
+		return executeInBatches(Queries.UPDATE_QUERY, new ArrayList<>(books), (preparedStatement, book) -> {
+			preparedStatement.setString(1, book.getTitle());
+			preparedStatement.setString(2, book.getAuthor());
+			preparedStatement.setString(3, book.getCategory());
+			preparedStatement.setDouble(4, book.getPrice());
+			preparedStatement.setInt(5, book.getBookId());
+		});
+	}
+
+	/**
+	 * Deletes many book records from the database in batches.
+	 * 
+	 * @param bookIds the IDs of the books to be deleted.
+	 * @return the outcome for each ID, in the order the IDs were given.
+	 */
+	@Override
+	public BatchResult deleteBooks(Collection<Integer> bookIds) {
+		return executeInBatches(Queries.DELETE_QUERY, new ArrayList<>(bookIds),
+				(preparedStatement, bookId) -> preparedStatement.setInt(1, bookId));
+	}
+
+	/**
+	 * Runs a statement once for each row, in batches of {@link #batchSize} rows.
+	 * <p>
+	 * All rows are sent on one connection. Each batch is committed as one
+	 * transaction. If a batch fails, it is rolled back and its rows are run again
+	 * one at a time, each committed on its own, so that the rows the database
+	 * accepts are applied and each rejected row is reported with its own error.
+	 * </p>
+	 * <p>
+	 * If the commit of a batch fails, the rows are not run again, as the database
+	 * may have applied them; they are reported as failed with the commit error. If
+	 * the connection itself fails, every row that was not finished is reported
+	 * with that error.
+	 * </p>
+	 * 
+	 * @param <T>    the type of the rows.
+	 * @param sql    the statement to run for each row.
+	 * @param rows   the rows.
+	 * @param binder sets the parameters of the statement from a row.
+	 * @return the outcome for each row.
+	 */
+	private <T> BatchResult executeInBatches(String sql, List<T> rows, RowBinder<T> binder) {
+		BatchResult result = new BatchResult(rows.size());
+		if (rows.isEmpty()) {
+			return result;
+		}
+		Connection connection = ConnectionBean.openConnection();
+		if (connection == null) {
+			failRows(result, 0, rows.size(), new SQLException("No database connection"));
+			return result;
+		}
+		PreparedStatement preparedStatement = null;
+		// The first row of the batch being run; earlier rows are finished
+		int next = 0;
+		try {
+			connection.setAutoCommit(false);
+			preparedStatement = connection.prepareStatement(sql);
+			for (int start = 0; start < rows.size(); start += batchSize) {
+				next = start;
+				int end = Math.min(start + batchSize, rows.size());
+				int[] counts;
+				try {
+					for (int row = start; row < end; row++) {
+						binder.bind(preparedStatement, rows.get(row));
+						preparedStatement.addBatch();
+					}
+					counts = preparedStatement.executeBatch();
+				} catch (SQLException e) {
+					connection.rollback();
+					preparedStatement.clearBatch();
+					executeOneByOne(connection, preparedStatement, rows, start, end, binder, result);
+					continue;
+				}
+				try {
+					connection.commit();
+				} catch (SQLException e) {
+					failRows(result, start, end, e);
+					continue;
+				}
+				for (int row = start; row < end; row++) {
+					// A rewritten batch may report fewer counts than rows
+					int count = counts.length == end - start ? counts[row - start] : Statement.SUCCESS_NO_INFO;
+					result.setOutcome(row, toOutcome(count), null);
+				}
+			}
+		} catch (SQLException e) {
+			e.printStackTrace();
+			// Rows that were not finished have no outcome yet; report why
+			for (int row = next; row < rows.size(); row++) {
+				if (result.getOutcome(row) == Outcome.FAILED && result.getError(row) == null) {
+					result.setOutcome(row, Outcome.FAILED, e);
+				}
+			}
+		} finally {
+			try {
+				if (preparedStatement != null) {
+					preparedStatement.close();
+				}
+			} catch (SQLException e) {
+				e.printStackTrace();
+			}
+			ConnectionBean.closeConnection(connection);
+		}
+		System.out.println(result);
+		return result;
+	}
+
+	/**
+	 * Runs a statement for each row of a failed batch, committing each row on its
+	 * own.
+	 * 
+	 * @param <T>               the type of the rows.
+	 * @param connection        the connection, with auto-commit off.
+	 * @param preparedStatement the statement to run for each row.
+	 * @param rows              all rows of the bulk operation.
+	 * @param start             the index of the first row of the batch.
+	 * @param end               the index after the last row of the batch.
+	 * @param binder            sets the parameters of the statement from a row.
+	 * @param result            receives the outcome of each row.
+	 * @throws SQLException if a failed row cannot be rolled back.
+	 */
+	private static <T> void executeOneByOne(Connection connection, PreparedStatement preparedStatement, List<T> rows,
+			int start, int end, RowBinder<T> binder, BatchResult result) throws SQLException {
+		for (int row = start; row < end; row++) {
+			try {
+				binder.bind(preparedStatement, rows.get(row));
+				int count = preparedStatement.executeUpdate();
+				connection.commit();
+				result.setOutcome(row, toOutcome(count), null);
+			} catch (SQLException e) {
+				connection.rollback();
+				result.setOutcome(row, Outcome.FAILED, e);
+			}
+		}
+	}
+
+	/**
+	 * Reports a range of rows as failed with the same error.
+	 * 
+	 * @param result receives the outcome of each row.
+	 * @param start  the index of the first row.
+	 * @param end    the index after the last row.
+	 * @param error  the error to report.
+	 */
+	private static void failRows(BatchResult result, int start, int end, SQLException error) {
+		for (int row = start; row < end; row++) {
+			result.setOutcome(row, Outcome.FAILED, error);
+		}
+	}
+
+	/**
+	 * Maps the update count reported for a row to its outcome.
+	 * 
+	 * @param count the update count, or one of the {@link Statement} constants
+	 *              {@code SUCCESS_NO_INFO} and {@code EXECUTE_FAILED}.
+	 * @return the outcome of the row.
+	 */
+	private static Outcome toOutcome(int count) {
+		if (count == Statement.EXECUTE_FAILED) {
+			return Outcome.FAILED;
+		}
+		return count == 0 ? Outcome.NOT_FOUND : Outcome.APPLIED;
+	}
+
+	/**
+	 * Streams all book records from the database with a forward-only cursor.
+	 * 
+	 * @return a {@link Stream} of all book records.
+	 */
+	@Override
+	public Stream<Book> streamAllBooks() {
+		return streamQuery(Queries.SELECT_QUERY, preparedStatement -> {
+		});
+	}
+
+	/**
+	 * Streams the books by a specific author with a forward-only cursor.
+	 * 
+	 * @param author the name of the author whose books are to be retrieved.
+	 * @return a {@link Stream} of the books by the author.
+	 */
+	@Override
+	public Stream<Book> streamBooksByAuthor(String author) {
+		return streamQuery(Queries.SELECT_BY_AUTHOR, preparedStatement -> preparedStatement.setString(1, author));
+	}
+
+	/**
+	 * Streams the books in a specific category with a forward-only cursor.
+	 * 
+	 * @param category the category of the books to be retrieved.
+	 * @return a {@link Stream} of the books in the category.
+	 */
+	@Override
+	public Stream<Book> streamBooksByCategory(String category) {
+		return streamQuery(Queries.SELECT_BY_CATEGORY, preparedStatement -> preparedStatement.setString(1, category));
+	}
+
+	/**
+	 * Streams the books at a specific price with a forward-only cursor.
+	 * 
+	 * @param price the price of the books to be retrieved.
+	 * @return a {@link Stream} of the books at the price.
+	 */
+	@Override
+	public Stream<Book> streamBooksByPrice(double price) {
+		return streamQuery(Queries.SELECT_BY_PRICE, preparedStatement -> preparedStatement.setDouble(1, price));
+	}
+
+	/**
+	 * Retrieves one page of all books, seeking past the last book of the
+	 * previous page on the sort key and bookId.
+	 * 
+	 * @param sortKey   the order of the listing.
+	 * @param pageSize  the largest number of books on the page.
+	 * @param pageToken the token from the previous page, or {@code null} for the
+	 *                  first page.
+	 * @return the page of books.
+	 * @throws BookNotFoundException if there are no books in the database.
+	 */
+	@Override
+	public BookPage getBooksPage(SortKey sortKey, int pageSize, String pageToken) throws BookNotFoundException {
+		checkPageSize(pageSize);
+		PageToken after = pageToken == null ? null
+				: PageToken.decode(pageToken, PageToken.Listing.ALL, sortKey);
+		String sql;
+		QueryBinder binder;
+		if (sortKey == SortKey.BOOK_ID) {
+			sql = Queries.PAGE_BY_ID;
+			int lastBookId = after == null ? Integer.MIN_VALUE : after.lastBookId;
+			binder = preparedStatement -> {
+				preparedStatement.setInt(1, lastBookId);
+				preparedStatement.setInt(2, pageSize + 1);
+			};
+		} else if (after == null) {
+			sql = sortKey == SortKey.TITLE ? Queries.FIRST_PAGE_BY_TITLE
+					: sortKey == SortKey.AUTHOR ? Queries.FIRST_PAGE_BY_AUTHOR : Queries.FIRST_PAGE_BY_PRICE;
+			binder = preparedStatement -> preparedStatement.setInt(1, pageSize + 1);
+		} else if (sortKey != SortKey.PRICE && after.lastText == null) {
+			// NULL sorts first and compares to nothing, so seek past it separately
+			sql = sortKey == SortKey.TITLE ? Queries.PAGE_BY_TITLE_AFTER_NULL : Queries.PAGE_BY_AUTHOR_AFTER_NULL;
+			binder = preparedStatement -> {
+				preparedStatement.setInt(1, after.lastBookId);
+				preparedStatement.setInt(2, pageSize + 1);
+			};
+		} else {
+			sql = sortKey == SortKey.TITLE ? Queries.PAGE_BY_TITLE
+					: sortKey == SortKey.AUTHOR ? Queries.PAGE_BY_AUTHOR : Queries.PAGE_BY_PRICE;
+			binder = preparedStatement -> {
+				if (sortKey == SortKey.PRICE) {
+					preparedStatement.setDouble(1, after.lastPrice);
+					preparedStatement.setDouble(2, after.lastPrice);
+				} else {
+					preparedStatement.setString(1, after.lastText);
+					preparedStatement.setString(2, after.lastText);
+				}
+				preparedStatement.setInt(3, after.lastBookId);
+				preparedStatement.setInt(4, pageSize + 1);
+			};
+		}
+		BookPage page = fetchPage(sql, binder, pageSize, PageToken.Listing.ALL, sortKey);
+		if (after == null && page.getBooks().isEmpty()) {
+			throw new BookNotFoundException("No books found in the database.");
+		}
+		return page;
+	}
+
+	/**
+	 * Retrieves one page of the books by a specific author, seeking past the
+	 * last book of the previous page on bookId.
+	 * 
+	 * @param author    the name of the author whose books are to be retrieved.
+	 * @param pageSize  the largest number of books on the page.
+	 * @param pageToken the token from the previous page, or {@code null} for the
+	 *                  first page.
+	 * @return the page of books.
+	 * @throws AuthorNotFoundException if there are no books by the author.
+	 */
+	@Override
+	public BookPage getBooksByAuthorPage(String author, int pageSize, String pageToken)
+			throws AuthorNotFoundException {
+		checkPageSize(pageSize);
+		int lastBookId = pageToken == null ? Integer.MIN_VALUE
+				: PageToken.decode(pageToken, PageToken.Listing.AUTHOR, SortKey.BOOK_ID).lastBookId;
+		BookPage page = fetchPage(Queries.PAGE_BY_ID_FOR_AUTHOR, preparedStatement -> {
+			preparedStatement.setString(1, author);
+			preparedStatement.setInt(2, lastBookId);
+			preparedStatement.setInt(3, pageSize + 1);
+		}, pageSize, PageToken.Listing.AUTHOR, SortKey.BOOK_ID);
+		if (pageToken == null && page.getBooks().isEmpty()) {
+			throw new AuthorNotFoundException("No books found for the specified author.");
+		}
+		return page;
+	}
+
+	/**
+	 * Retrieves one page of the books in a specific category, seeking past the
+	 * last book of the previous page on bookId.
+	 * 
+	 * @param category  the category of the books to be retrieved.
+	 * @param pageSize  the largest number of books on the page.
+	 * @param pageToken the token from the previous page, or {@code null} for the
+	 *                  first page.
+	 * @return the page of books.
+	 * @throws CategoryNotFoundException if there are no books in the category.
+	 */
+	@Override
+	public BookPage getBooksByCategoryPage(String category, int pageSize, String pageToken)
+			throws CategoryNotFoundException {
+		checkPageSize(pageSize);
+		int lastBookId = pageToken == null ? Integer.MIN_VALUE
+				: PageToken.decode(pageToken, PageToken.Listing.CATEGORY, SortKey.BOOK_ID).lastBookId;
+		BookPage page = fetchPage(Queries.PAGE_BY_ID_FOR_CATEGORY, preparedStatement -> {
+			preparedStatement.setString(1, category);
+			preparedStatement.setInt(2, lastBookId);
+			preparedStatement.setInt(3, pageSize + 1);
+		}, pageSize, PageToken.Listing.CATEGORY, SortKey.BOOK_ID);
+		if (pageToken == null && page.getBooks().isEmpty()) {
+			throw new CategoryNotFoundException("No books found for the specified category.");
+		}
+		return page;
+	}
+
+	/**
+	 * Checks the page size of a paged listing.
+	 * 
+	 * @param pageSize the largest number of books on the page.
+	 * @throws IllegalArgumentException if the page size is not between 1 and
+	 *                                  {@link #MAX_PAGE_SIZE}.
+	 */
+	private static void checkPageSize(int pageSize) {
+		if (pageSize < 1 || pageSize > MAX_PAGE_SIZE) {
+			throw new IllegalArgumentException("Page size must be between 1 and " + MAX_PAGE_SIZE + ": " + pageSize);
+		}
+	}
+
+	/**
+	 * Executes a page query and builds the page.
+	 * <p>
+	 * The query is bound to fetch one book more than the page size. If that extra
+	 * book is returned, there is a next page, and its token is made from the last
+	 * book of this page.
+	 * </p>
+	 * 
+	 * @param sql      the page query.
+	 * @param binder   sets the parameters of the query, with a limit of
+	 *                 {@code pageSize + 1}.
+	 * @param pageSize the largest number of books on the page.
+	 * @param listing  the listing the page belongs to.
+	 * @param sortKey  the order of the listing.
+	 * @return the page of books.
+	 * @throws RuntimeException if the query cannot be executed. An empty page
+	 *                          would wrongly tell the caller that the listing has
+	 *                          ended.
+	 */
+	private static BookPage fetchPage(String sql, QueryBinder binder, int pageSize, PageToken.Listing listing,
+			SortKey sortKey) {
+		List<Book> bookList = new ArrayList<>(pageSize + 1);
+		PreparedStatement preparedStatement = null;
+		Connection connection = ConnectionBean.openConnection();
+		if (connection == null) {
+			throw new RuntimeException("Database error occurred: no connection.");
+		}
+		try {
+			preparedStatement = connection.prepareStatement(sql);
+			binder.bind(preparedStatement);
+			ResultSet resultset = preparedStatement.executeQuery();
+			while (resultset.next()) {
+				bookList.add(toBook(resultset));
+			}
+		} catch (SQLException e) {
+			e.printStackTrace();
+			throw new RuntimeException("Database error occurred.", e);
+		} finally {
+			try {
+				if (preparedStatement != null) {
+					preparedStatement.close();
+				}
+			} catch (SQLException e) {
+				e.printStackTrace();
+			}
+			ConnectionBean.closeConnection(connection);
+		}
+		if (bookList.size() <= pageSize) {
+			return new BookPage(bookList, null);
+		}
+		bookList.remove(pageSize);
+		String nextPageToken = new PageToken(listing, sortKey, bookList.get(pageSize - 1)).encode();
+		return new BookPage(bookList, nextPageToken);
+	}
+
+	/**
+	 * Executes a query with a forward-only, read-only cursor and returns its rows
+	 * as a stream of books.
+	 * <p>
+	 * The driver is asked to fetch {@link #STREAM_FETCH_SIZE} rows per round trip
+	 * instead of the whole result. With the MySQL driver this needs
+	 * {@code useCursorFetch=true} in {@code jdbc.properties}; otherwise the
+	 * driver still reads the whole result before the first row is returned. The
+	 * connection, statement and result set are released when the stream is
+	 * closed or its last row has been read.
+	 * </p>
+	 * 
+	 * @param sql    the query to execute.
+	 * @param binder sets the parameters of the query.
+	 * @return a {@link Stream} of the books returned by the query.
+	 * @throws RuntimeException if the query cannot be executed.
+	 */
+	private static Stream<Book> streamQuery(String sql, QueryBinder binder) {
+		Connection connection = ConnectionBean.openConnection();
+		if (connection == null) {
+			throw new RuntimeException("Database error occurred: no connection.");
+		}
+		PreparedStatement preparedStatement = null;
+		try {
+			preparedStatement = connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY,
+					ResultSet.CONCUR_READ_ONLY);
+			preparedStatement.setFetchSize(STREAM_FETCH_SIZE);
+			binder.bind(preparedStatement);
+			BookCursor cursor = new BookCursor(connection, preparedStatement, preparedStatement.executeQuery());
+			return StreamSupport.stream(cursor, false).onClose(cursor::release);
+		} catch (SQLException e) {
+			e.printStackTrace();
+			try {
+				if (preparedStatement != null) {
+					preparedStatement.close();
+				}
+			} catch (SQLException closeException) {
+				e.addSuppressed(closeException);
+			}
+			ConnectionBean.closeConnection(connection);
+			throw new RuntimeException("Database error occurred.", e);
+		}
+	}
+
+	/**
+	 * Reads books one row at a time from an open result set for a stream, and
+	 * releases the result set, its statement and its connection once the last
+	 * row has been read or the stream is closed.
+	 */
+	private static final class BookCursor extends Spliterators.AbstractSpliterator<Book> {
+
+		/**
+		 * The connection the query runs on.
+		 */
+		private final Connection connection;
+
+		/**
+		 * The executed query.
+		 */
+		private final PreparedStatement preparedStatement;
+
+		/**
+		 * The rows of the query.
+		 */
+		private final ResultSet resultset;
+
+		/**
+		 * Whether the resources have been released.
+		 */
+		private boolean released;
+
+		BookCursor(Connection connection, PreparedStatement preparedStatement, ResultSet resultset) {
+			super(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL);
+			this.connection = connection;
+			this.preparedStatement = preparedStatement;
+			this.resultset = resultset;
+		}
+
+		@Override
+		public boolean tryAdvance(Consumer<? super Book> action) {
+			if (released) {
+				return false;
+			}
+			try {
+				if (!resultset.next()) {
+					release();
+					return false;
+				}
+				action.accept(toBook(resultset));
+				return true;
+			} catch (SQLException e) {
+				release();
+				throw new RuntimeException("Database error occurred while reading books.", e);
+			}
+		}
+
+		/**
+		 * Closes the result set and the statement and returns the connection to
+		 * the pool. Calling it again has no effect.
+		 */
+		void release() {
+			if (released) {
+				return;
+			}
+			released = true;
+			try {
+				resultset.close();
+				preparedStatement.close();
+			} catch (SQLException e) {
+				e.printStackTrace();
+			}
+			ConnectionBean.closeConnection(connection);
+		}
+	}
+
+	/**
+	 * Maps the current row of a result set to a {@link Book}.
+	 * <p>
+	 * The author and category are taken from {@link #STRINGS}, so books that
+	 * share an author or a category also share the {@code String} instance.
+	 * </p>
+	 * 
+	 * @param resultset the result set, positioned on a row of the
+	 *                  {@code onlinebookapp} table.
+	 * @return the {@link Book} object for the row.
+	 * @throws SQLException if a column cannot be read.
+	 */
+	private static Book toBook(ResultSet resultset) throws SQLException {
+		Book book = new Book();
+		book.setBookId(resultset.getInt(1));
+		book.setTitle(resultset.getString(2));
+		book.setAuthor(STRINGS.intern(resultset.getString(3)));
+		book.setCategory(STRINGS.intern(resultset.getString(4)));
+		book.setPrice(resultset.getDouble(5));
+		return book;
+	}
 }
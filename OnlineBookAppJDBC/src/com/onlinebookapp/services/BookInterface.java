@@ -1,8 +1,13 @@
 package com.onlinebookapp.services;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
+import com.onlinebookapp.bean.BatchResult;
 import com.onlinebookapp.bean.Book;
+import com.onlinebookapp.bean.BookPage;
+import com.onlinebookapp.bean.BookPage.SortKey;
 import com.onlinebookapp.exceptions.AuthorNotFoundException;
 import com.onlinebookapp.exceptions.BookNotFoundException;
 import com.onlinebookapp.exceptions.CategoryNotFoundException;
@@ -163,4 +168,158 @@ public interface BookInterface {
 	 *                                    SQL statement is invalid.
 	 */
 	List<Book> getBookByPrice(double price) throws PriceNotAvailableException;
+
+	/**
+	 * Adds many book records to the database.
+	 * <p>
+	 * The books are sent to the database in batches, each written in one
+	 * transaction, instead of one round trip per book. A batch that fails is
+	 * rolled back and its books are retried one at a time, so that one rejected
+	 * book does not keep the others out.
+	 * </p>
+	 * 
+	 * @param books the {@link Book} objects to be added.
+	 * @return the outcome for each book, in the order the books were given.
+	 */
+	BatchResult addBooks(Collection<Book> books);
+
+	/**
+	 * Updates many book records in the database.
+	 * <p>
+	 * The title, author, category and price of each record are replaced with
+	 * those of the {@link Book} with the same ID. The updates are sent in batches
+	 * as described for {@link #addBooks(Collection)}. A book whose ID matches no
+	 * record is reported as {@link BatchResult.Outcome#NOT_FOUND}.
+	 * </p>
+	 * 
+	 * @param books the {@link Book} objects holding the new values.
+	 * @return the outcome for each book, in the order the books were given.
+	 */
+	BatchResult updateBooks(Collection<Book> books);
+
+	/**
+	 * Deletes many book records from the database.
+	 * <p>
+	 * The deletes are sent in batches as described for
+	 * {@link #addBooks(Collection)}. An ID that matches no record is reported as
+	 * {@link BatchResult.Outcome#NOT_FOUND}.
+	 * </p>
+	 * 
+	 * @param bookIds the IDs of the books to be deleted.
+	 * @return the outcome for each ID, in the order the IDs were given.
+	 */
+	BatchResult deleteBooks(Collection<Integer> bookIds);
+
+	/**
+	 * Streams all book records from the database.
+	 * <p>
+	 * Unlike {@link #getAllBooks()}, the records are read from the database while
+	 * the stream is consumed, so the first book is available at once and memory
+	 * use does not grow with the number of records. The stream holds a database
+	 * connection until it is closed or fully consumed, so it should be used in a
+	 * try-with-resources statement:
+	 * </p>
+	 * 
+	 * <pre>
+	 * try (Stream&lt;Book&gt; books = bookImpl.streamAllBooks()) {
+	 * 	books.forEach(book -&gt; export(book));
+	 * }
+	 * </pre>
+	 * 
+	 * @return a {@link Stream} of all book records, empty if there are none.
+	 * @throws RuntimeException if a database access error occurs, also while
+	 *                          the stream is consumed.
+	 */
+	Stream<Book> streamAllBooks();
+
+	/**
+	 * Streams the book records by the specified author, as described for
+	 * {@link #streamAllBooks()}.
+	 * 
+	 * @param author the name of the author whose books are to be retrieved.
+	 * @return a {@link Stream} of the books by the author, empty if there are
+	 *         none.
+	 * @throws RuntimeException if a database access error occurs, also while
+	 *                          the stream is consumed.
+	 */
+	Stream<Book> streamBooksByAuthor(String author);
+
+	/**
+	 * Streams the book records in the specified category, as described for
+	 * {@link #streamAllBooks()}.
+	 * 
+	 * @param category the category of the books to be retrieved.
+	 * @return a {@link Stream} of the books in the category, empty if there are
+	 *         none.
+	 * @throws RuntimeException if a database access error occurs, also while
+	 *                          the stream is consumed.
+	 */
+	Stream<Book> streamBooksByCategory(String category);
+
+	/**
+	 * Streams the book records at the specified price, as described for
+	 * {@link #streamAllBooks()}.
+	 * 
+	 * @param price the price of the books to be retrieved.
+	 * @return a {@link Stream} of the books at the price, empty if there are
+	 *         none.
+	 * @throws RuntimeException if a database access error occurs, also while
+	 *                          the stream is consumed.
+	 */
+	Stream<Book> streamBooksByPrice(double price);
+
+	/**
+	 * Retrieves one page of all book records in the given order.
+	 * <p>
+	 * The first page is requested without a token. Each page carries the token of
+	 * the next page, which is passed back with the same sort key to continue. A
+	 * page is found by seeking past the last book of the previous page rather
+	 * than by counting rows from the start, so every page costs about the same,
+	 * however deep into the listing it is.
+	 * </p>
+	 * 
+	 * @param sortKey   the order of the listing.
+	 * @param pageSize  the largest number of books on the page.
+	 * @param pageToken the token from the previous page, or {@code null} for the
+	 *                  first page.
+	 * @return the page, with the token of the next page if there is one.
+	 * @throws BookNotFoundException    if there are no books in the database.
+	 * @throws IllegalArgumentException if the page size is out of range or the
+	 *                                  token does not belong to this listing.
+	 * @throws RuntimeException         if a database access error occurs.
+	 */
+	BookPage getBooksPage(SortKey sortKey, int pageSize, String pageToken) throws BookNotFoundException;
+
+	/**
+	 * Retrieves one page of the book records by the specified author, in ID
+	 * order, as described for {@link #getBooksPage(SortKey, int, String)}.
+	 * 
+	 * @param author    the name of the author whose books are to be retrieved.
+	 * @param pageSize  the largest number of books on the page.
+	 * @param pageToken the token from the previous page, or {@code null} for the
+	 *                  first page.
+	 * @return the page, with the token of the next page if there is one.
+	 * @throws AuthorNotFoundException  if there are no books by the author.
+	 * @throws IllegalArgumentException if the page size is out of range or the
+	 *                                  token does not belong to this listing.
+	 * @throws RuntimeException         if a database access error occurs.
+	 */
+	BookPage getBooksByAuthorPage(String author, int pageSize, String pageToken) throws AuthorNotFoundException;
+
+	/**
+	 * Retrieves one page of the book records in the specified category, in ID
+	 * order, as described for {@link #getBooksPage(SortKey, int, String)}.
+	 * 
+	 * @param category  the category of the books to be retrieved.
+	 * @param pageSize  the largest number of books on the page.
+	 * @param pageToken the token from the previous page, or {@code null} for the
+	 *                  first page.
+	 * @return the page, with the token of the next page if there is one.
+	 * @throws CategoryNotFoundException if there are no books in the category.
+	 * @throws IllegalArgumentException  if the page size is out of range or the
+	 *                                   token does not belong to this listing.
+	 * @throws RuntimeException          if a database access error occurs.
+	 */
+	BookPage getBooksByCategoryPage(String category, int pageSize, String pageToken)
+			throws CategoryNotFoundException;
 }
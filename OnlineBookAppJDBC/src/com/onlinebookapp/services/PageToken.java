@@ -0,0 +1,166 @@
+package com.onlinebookapp.services;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Base64;
+
+import com.onlinebookapp.bean.Book;
+import com.onlinebookapp.bean.BookPage.SortKey;
+
+/**
+ * The position at which a paged listing or search continues, and its encoding
+ * as the opaque token handed to callers.
+ * <p>
+ * A token holds the kind of listing it belongs to, the sort key, and the sort
+ * value and ID of the last book of the page. A missing title or author is
+ * recorded as such, not as an empty string, since the database sorts NULL
+ * before the empty string. The token is encoded as URL-safe Base64, so it can
+ * be passed in a query string. A token given to a different kind of listing,
+ * or one that cannot be decoded, is rejected.
+ * </p>
+ * 
+ * @author MonigaBalasubramanian
+ */
+final class PageToken {
+
+	/**
+	 * The kind of listing a token belongs to.
+	 */
+	enum Listing {
+
+		/**
+		 * All books, in the order of a {@link SortKey}.
+		 */
+		ALL,
+
+		/**
+		 * The books by one author, in ID order.
+		 */
+		AUTHOR,
+
+		/**
+		 * The books in one category, in ID order.
+		 */
+		CATEGORY
+	}
+
+	/**
+	 * The version of the token format, so that the format can change later.
+	 */
+	private static final int VERSION = 2;
+
+	/**
+	 * The listing the token belongs to.
+	 */
+	final Listing listing;
+
+	/**
+	 * The sort key of the listing.
+	 */
+	final SortKey sortKey;
+
+	/**
+	 * The sort value of the last book of the page, when sorting by title or
+	 * author; {@code null} if the book has none.
+	 */
+	final String lastText;
+
+	/**
+	 * The sort value of the last book of the page, when sorting by price.
+	 */
+	final double lastPrice;
+
+	/**
+	 * The ID of the last book of the page.
+	 */
+	final int lastBookId;
+
+	/**
+	 * Creates the position after a book.
+	 * 
+	 * @param listing the listing the token belongs to.
+	 * @param sortKey the sort key of the listing.
+	 * @param last    the last book of the page.
+	 */
+	PageToken(Listing listing, SortKey sortKey, Book last) {
+		this(listing, sortKey, sortKey == SortKey.TITLE ? last.getTitle()
+				: sortKey == SortKey.AUTHOR ? last.getAuthor() : null, last.getPrice(), last.getBookId());
+	}
+
+	private PageToken(Listing listing, SortKey sortKey, String lastText, double lastPrice, int lastBookId) {
+		this.listing = listing;
+		this.sortKey = sortKey;
+		this.lastText = lastText;
+		this.lastPrice = lastPrice;
+		this.lastBookId = lastBookId;
+	}
+
+	/**
+	 * Encodes the position as an opaque token.
+	 * 
+	 * @return the token.
+	 */
+	String encode() {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (DataOutputStream out = new DataOutputStream(bytes)) {
+			out.writeByte(VERSION);
+			out.writeByte(listing.ordinal());
+			out.writeByte(sortKey.ordinal());
+			out.writeInt(lastBookId);
+			if (sortKey == SortKey.PRICE) {
+				out.writeDouble(lastPrice);
+			} else if (sortKey != SortKey.BOOK_ID) {
+				out.writeBoolean(lastText != null);
+				if (lastText != null) {
+					out.writeUTF(lastText);
+				}
+			}
+		} catch (IOException e) {
+			// Writing to memory does not fail
+			throw new IllegalStateException(e);
+		}
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes.toByteArray());
+	}
+
+	/**
+	 * Decodes a token given back by a caller.
+	 * 
+	 * @param token   the token.
+	 * @param listing the listing the token is given to.
+	 * @param sortKey the sort key of the listing.
+	 * @return the position the token holds.
+	 * @throws IllegalArgumentException if the token cannot be decoded or belongs
+	 *                                  to a different listing or sort key.
+	 */
+	static PageToken decode(String token, Listing listing, SortKey sortKey) {
+		byte[] bytes;
+		try {
+			bytes = Base64.getUrlDecoder().decode(token);
+		} catch (IllegalArgumentException e) {
+			throw new IllegalArgumentException("Invalid page token: " + token, e);
+		}
+		try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes))) {
+			if (in.readUnsignedByte() != VERSION || in.readUnsignedByte() != listing.ordinal()
+					|| in.readUnsignedByte() != sortKey.ordinal()) {
+				throw new IllegalArgumentException("Page token does not belong to this listing: " + token);
+			}
+			int lastBookId = in.readInt();
+			String lastText = null;
+			double lastPrice = 0;
+			if (sortKey == SortKey.PRICE) {
+				lastPrice = in.readDouble();
+			} else if (sortKey != SortKey.BOOK_ID && in.readBoolean()) {
+				lastText = in.readUTF();
+			}
+			if (in.available() != 0) {
+				throw new IllegalArgumentException("Invalid page token: " + token);
+			}
+			return new PageToken(listing, sortKey, lastText, lastPrice, lastBookId);
+		} catch (IOException e) {
+			throw new IllegalArgumentException("Invalid page token: " + token, e);
+		}
+	}
+}
@@ -29,6 +29,9 @@ package com.onlinebookapp.util;
  * table based on the category.</li>
  * <li>{@link #SELECT_BY_PRICE} - Retrieves records from the onlinebookapp table
  * based on the price.</li>
+ * <li>{@link #PAGE_BY_ID} and the other {@code PAGE_} queries - Retrieve one
+ * page of records from the onlinebookapp table, starting after the last record
+ * of the previous page.</li>
  * </ul>
  * </p>
  * 
@@ -114,4 +117,123 @@ public class Queries {
 	 * </p>
 	 */
 	public static final String SELECT_BY_PRICE = "SELECT * FROM onlinebookapp WHERE price=?;";
+
+	/**
+	 * SQL query string to select one page of records from the
+	 * {@code onlinebookapp} table in bookId order.
+	 * <p>
+	 * This query expects two parameters: the bookId of the last record of the
+	 * previous page, and the page size. Because it seeks past the previous page
+	 * instead of skipping rows with OFFSET, a page deep in the table costs the
+	 * same as the first page when bookId is indexed.
+	 * </p>
+	 */
+	public static final String PAGE_BY_ID = "SELECT * FROM onlinebookapp WHERE bookId > ? ORDER BY bookId LIMIT ?";
+
+	/**
+	 * SQL query string to select the first page of records from the
+	 * {@code onlinebookapp} table in title order.
+	 * <p>
+	 * This query expects one parameter: the page size.
+	 * </p>
+	 */
+	public static final String FIRST_PAGE_BY_TITLE = "SELECT * FROM onlinebookapp ORDER BY title, bookId LIMIT ?";
+
+	/**
+	 * SQL query string to select a following page of records from the
+	 * {@code onlinebookapp} table in title order.
+	 * <p>
+	 * This query expects four parameters: the title, the title again and the
+	 * bookId of the last record of the previous page, and the page size. Records
+	 * with the same title are ordered by bookId.
+	 * </p>
+	 */
+	public static final String PAGE_BY_TITLE = "SELECT * FROM onlinebookapp WHERE title > ? OR (title = ? AND bookId > ?) ORDER BY title, bookId LIMIT ?";
+
+	/**
+	 * SQL query string to select a following page of records from the
+	 * {@code onlinebookapp} table in title order, when the last record of the
+	 * previous page has no title.
+	 * <p>
+	 * This query expects two parameters: the bookId of the last record of the
+	 * previous page, and the page size. Records without a title sort before all
+	 * others, so the page holds the remaining records without a title and then
+	 * every record with one. {@link #PAGE_BY_TITLE} cannot be used, as no title
+	 * compares equal to or greater than NULL.
+	 * </p>
+	 */
+	public static final String PAGE_BY_TITLE_AFTER_NULL = "SELECT * FROM onlinebookapp WHERE (title IS NULL AND bookId > ?) OR title IS NOT NULL ORDER BY title, bookId LIMIT ?";
+
+	/**
+	 * SQL query string to select the first page of records from the
+	 * {@code onlinebookapp} table in author order.
+	 * <p>
+	 * This query expects one parameter: the page size.
+	 * </p>
+	 */
+	public static final String FIRST_PAGE_BY_AUTHOR = "SELECT * FROM onlinebookapp ORDER BY author, bookId LIMIT ?";
+
+	/**
+	 * SQL query string to select a following page of records from the
+	 * {@code onlinebookapp} table in author order.
+	 * <p>
+	 * This query expects four parameters: the author, the author again and the
+	 * bookId of the last record of the previous page, and the page size. Records
+	 * with the same author are ordered by bookId.
+	 * </p>
+	 */
+	public static final String PAGE_BY_AUTHOR = "SELECT * FROM onlinebookapp WHERE author > ? OR (author = ? AND bookId > ?) ORDER BY author, bookId LIMIT ?";
+
+	/**
+	 * SQL query string to select a following page of records from the
+	 * {@code onlinebookapp} table in author order, when the last record of the
+	 * previous page has no author.
+	 * <p>
+	 * This query expects two parameters: the bookId of the last record of the
+	 * previous page, and the page size. Records without an author sort before
+	 * all others, so the page holds the remaining records without an author and
+	 * then every record with one.
+	 * </p>
+	 */
+	public static final String PAGE_BY_AUTHOR_AFTER_NULL = "SELECT * FROM onlinebookapp WHERE (author IS NULL AND bookId > ?) OR author IS NOT NULL ORDER BY author, bookId LIMIT ?";
+
+	/**
+	 * SQL query string to select the first page of records from the
+	 * {@code onlinebookapp} table in price order.
+	 * <p>
+	 * This query expects one parameter: the page size.
+	 * </p>
+	 */
+	public static final String FIRST_PAGE_BY_PRICE = "SELECT * FROM onlinebookapp ORDER BY price, bookId LIMIT ?";
+
+	/**
+	 * SQL query string to select a following page of records from the
+	 * {@code onlinebookapp} table in price order.
+	 * <p>
+	 * This query expects four parameters: the price, the price again and the
+	 * bookId of the last record of the previous page, and the page size. Records
+	 * with the same price are ordered by bookId.
+	 * </p>
+	 */
+	public static final String PAGE_BY_PRICE = "SELECT * FROM onlinebookapp WHERE price > ? OR (price = ? AND bookId > ?) ORDER BY price, bookId LIMIT ?";
+
+	/**
+	 * SQL query string to select one page of the records by an author from the
+	 * {@code onlinebookapp} table in bookId order.
+	 * <p>
+	 * This query expects three parameters: author, the bookId of the last record
+	 * of the previous page, and the page size.
+	 * </p>
+	 */
+	public static final String PAGE_BY_ID_FOR_AUTHOR = "SELECT * FROM onlinebookapp WHERE author = ? AND bookId > ? ORDER BY bookId LIMIT ?";
+
+	/**
+	 * SQL query string to select one page of the records in a category from the
+	 * {@code onlinebookapp} table in bookId order.
+	 * <p>
+	 * This query expects three parameters: category, the bookId of the last
+	 * record of the previous page, and the page size.
+	 * </p>
+	 */
+	public static final String PAGE_BY_ID_FOR_CATEGORY = "SELECT * FROM onlinebookapp WHERE category = ? AND bookId > ? ORDER BY bookId LIMIT ?";
 }
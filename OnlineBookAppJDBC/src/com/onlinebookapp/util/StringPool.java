@@ -0,0 +1,92 @@
+package com.onlinebookapp.util;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A utility class that maps equal strings to one shared instance.
+ * <p>
+ * Authors and categories repeat across many book records, but every row read
+ * from the database creates new {@code String} objects for them. Passing the
+ * values through a pool when a row is mapped to a
+ * {@link com.onlinebookapp.bean.Book} lets all books with the same author or
+ * category share one instance, which saves memory when many books are held at
+ * once.
+ * </p>
+ * 
+ * <p>
+ * The pool holds at most a fixed number of values. Once it is full, new values
+ * are returned unchanged, so it cannot grow without limit. A pool can be shared
+ * by any number of threads.
+ * </p>
+ * 
+ * @author MonigaBalasubramanian
+ */
+public class StringPool {
+
+	/**
+	 * The number of values held by a pool created without a limit.
+	 */
+	private static final int DEFAULT_MAX_SIZE = 1 << 20;
+
+	/**
+	 * The pooled values, each mapped to itself.
+	 */
+	private final ConcurrentHashMap<String, String> values = new ConcurrentHashMap<>();
+
+	/**
+	 * The largest number of values the pool holds.
+	 */
+	private final int maxSize;
+
+	/**
+	 * Creates an empty pool that holds up to about a million values.
+	 */
+	public StringPool() {
+		this(DEFAULT_MAX_SIZE);
+	}
+
+	/**
+	 * Creates an empty pool that holds up to the given number of values.
+	 * 
+	 * @param maxSize the largest number of values to hold.
+	 */
+	public StringPool(int maxSize) {
+		super();
+		this.maxSize = maxSize;
+	}
+
+	/**
+	 * Returns the pooled instance of a string.
+	 * <p>
+	 * If the pool holds no equal string yet, the given one is added, unless the
+	 * pool is full.
+	 * </p>
+	 * 
+	 * @param value the string, may be {@code null}.
+	 * @return an equal string shared with other callers, or {@code null} if
+	 *         {@code value} is {@code null}.
+	 */
+	public String intern(String value) {
+		if (value == null) {
+			return null;
+		}
+		String pooled = values.get(value);
+		if (pooled != null) {
+			return pooled;
+		}
+		if (values.size() >= maxSize) {
+			return value;
+		}
+		pooled = values.putIfAbsent(value, value);
+		return pooled == null ? value : pooled;
+	}
+
+	/**
+	 * Returns the number of values in the pool.
+	 * 
+	 * @return the number of pooled values.
+	 */
+	public int size() {
+		return values.size();
+	}
+}
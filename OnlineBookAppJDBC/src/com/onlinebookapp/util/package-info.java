@@ -8,6 +8,8 @@
  * <li>{@link com.onlinebookapp.util.Queries} - Contains SQL query strings for
  * database operations. These queries cover standard operations such as
  * selecting, inserting, updating, and deleting records.</li>
+ * <li>{@link com.onlinebookapp.util.StringPool} - Maps equal strings, such as
+ * the authors and categories of book records, to one shared instance.</li>
  * </ul>
  * </p>
  * 
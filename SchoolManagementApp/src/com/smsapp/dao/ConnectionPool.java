@@ -0,0 +1,780 @@
+package com.smsapp.dao;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A bounded pool of JDBC connections for the School Management System application.
+ * <p>
+ * Opening a connection costs a network round trip and a login. The pool keeps
+ * connections open and lends them out, so a database call only pays for its
+ * statements. Each caller gets a connection of its own for as long as it holds
+ * it, so concurrent callers never share one.
+ * </p>
+ * 
+ * <p>
+ * A borrowed connection is returned to the pool by calling its
+ * {@code close()} method. Any transaction left open is rolled back and
+ * auto-commit is switched back on first. The pool works as follows:
+ * <ul>
+ * <li>It holds at most {@code maxSize} connections. When all of them are lent
+ * out, {@link #getConnection()} waits up to the borrow timeout for one to be
+ * returned, then fails with an {@link SQLTimeoutException}.</li>
+ * <li>A connection that has been idle for longer than a second is checked with
+ * {@link Connection#isValid(int)} before it is lent out. Broken connections are
+ * discarded and replaced.</li>
+ * <li>A background thread closes connections that have been idle for longer
+ * than the idle timeout, keeping at least {@code minSize} connections open, and
+ * opens connections up to {@code minSize}.</li>
+ * <li>Each connection keeps the statements prepared on it in a
+ * {@link StatementCache}. Closing a prepared statement puts it back in the
+ * cache, and preparing the same SQL text on the same connection again reuses
+ * it, up to {@code statementCacheSize} statements per connection.</li>
+ * </ul>
+ * </p>
+ * 
+ * <p>
+ * The pool is configured with the connection properties {@code url},
+ * {@code username} and {@code password}, and optionally:
+ * <ul>
+ * <li>{@code pool.minSize} - connections kept open when idle (default 1).</li>
+ * <li>{@code pool.maxSize} - most connections open at once (default 10).</li>
+ * <li>{@code pool.borrowTimeoutMillis} - longest wait for a free connection
+ * (default 30000).</li>
+ * <li>{@code pool.idleTimeoutMillis} - idle time after which a connection above
+ * the minimum is closed (default 600000).</li>
+ * <li>{@code pool.validationTimeoutSeconds} - longest wait for the validity
+ * check of a connection (default 5).</li>
+ * <li>{@code pool.statementCacheSize} - prepared statements kept per
+ * connection, 0 to keep none (default 50).</li>
+ * </ul>
+ * Any other property, such as {@code useServerPrepStmts} for the MySQL
+ * driver, is passed to the driver when a connection is opened.
+ * </p>
+ * 
+ * @author MonigaBalasubramanian
+ * @see ConnectionBean
+ */
+public class ConnectionPool implements AutoCloseable {
+
+	/**
+	 * Connections used more recently than this are lent out without being
+	 * validated, in milliseconds.
+	 */
+	private static final long VALIDATION_BYPASS_MILLIS = 1000;
+
+	/**
+	 * The JDBC URL of the database.
+	 */
+	private final String url;
+
+	/**
+	 * The login properties passed to the driver.
+	 */
+	private final Properties login;
+
+	/**
+	 * The number of connections kept open when idle.
+	 */
+	private final int minSize;
+
+	/**
+	 * The largest number of connections open at once.
+	 */
+	private final int maxSize;
+
+	/**
+	 * The longest wait for a free connection, in nanoseconds.
+	 */
+	private final long borrowTimeoutNanos;
+
+	/**
+	 * The idle time after which a connection above the minimum is closed, in
+	 * milliseconds.
+	 */
+	private final long idleTimeoutMillis;
+
+	/**
+	 * The longest wait for the validity check of a connection, in seconds.
+	 */
+	private final int validationTimeoutSeconds;
+
+	/**
+	 * The largest number of prepared statements kept per connection.
+	 */
+	private final int statementCacheSize;
+
+	/**
+	 * The number of prepared statements taken from a statement cache, and the
+	 * number that had to be prepared by the driver.
+	 */
+	private final LongAdder statementCacheHits = new LongAdder();
+	private final LongAdder statementCacheMisses = new LongAdder();
+
+	/**
+	 * Guards the fields below. Borrowers wait on {@link #available}.
+	 */
+	private final ReentrantLock lock = new ReentrantLock();
+	private final Condition available = lock.newCondition();
+
+	/**
+	 * The idle connections, most recently returned first.
+	 */
+	private final Deque<PooledConnection> idle = new ArrayDeque<>();
+
+	/**
+	 * The number of open connections, whether idle, lent out or being opened.
+	 */
+	private int openCount;
+
+	/**
+	 * Whether the pool has been closed.
+	 */
+	private boolean closed;
+
+	/**
+	 * Runs the idle eviction and keeps the minimum number of connections open.
+	 */
+	private final ScheduledExecutorService maintenance;
+
+	/**
+	 * A connection owned by the pool, together with its prepared statements and
+	 * the time it was last returned.
+	 */
+	private static final class PooledConnection {
+
+		/**
+		 * The connection opened by the driver.
+		 */
+		final Connection connection;
+
+		/**
+		 * The prepared statements kept open on the connection.
+		 */
+		final StatementCache statements;
+
+		/**
+		 * The time the connection was last returned to the pool, in milliseconds.
+		 */
+		long lastUsedMillis = System.currentTimeMillis();
+
+		PooledConnection(Connection connection, int statementCacheSize) {
+			this.connection = connection;
+			this.statements = new StatementCache(statementCacheSize);
+		}
+	}
+
+	/**
+	 * Creates a pool from connection properties, as described in the class
+	 * comment. No connection is opened until one is needed or the background
+	 * thread opens the minimum number.
+	 * 
+	 * @param properties the connection and pool properties.
+	 * @throws IllegalArgumentException if {@code url} is missing or the sizes are
+	 *                                  invalid.
+	 */
+	public ConnectionPool(Properties properties) {
+		super();
+		this.url = properties.getProperty("url");
+		if (url == null) {
+			throw new IllegalArgumentException("Missing connection property: url");
+		}
+		this.login = new Properties();
+		for (String name : properties.stringPropertyNames()) {
+			if (!name.equals("url") && !name.equals("driver") && !name.equals("username")
+					&& !name.startsWith("pool.")) {
+				login.setProperty(name, properties.getProperty(name));
+			}
+		}
+		if (properties.getProperty("username") != null) {
+			login.setProperty("user", properties.getProperty("username"));
+		}
+		this.minSize = intProperty(properties, "pool.minSize", 1);
+		this.maxSize = intProperty(properties, "pool.maxSize", 10);
+		if (minSize < 0 || maxSize < 1 || minSize > maxSize) {
+			throw new IllegalArgumentException("Invalid pool size: min " + minSize + ", max " + maxSize);
+		}
+		this.borrowTimeoutNanos = TimeUnit.MILLISECONDS
+				.toNanos(intProperty(properties, "pool.borrowTimeoutMillis", 30_000));
+		this.idleTimeoutMillis = intProperty(properties, "pool.idleTimeoutMillis", 600_000);
+		this.validationTimeoutSeconds = intProperty(properties, "pool.validationTimeoutSeconds", 5);
+		this.statementCacheSize = intProperty(properties, "pool.statementCacheSize", 50);
+		if (statementCacheSize < 0) {
+			throw new IllegalArgumentException("Invalid statement cache size: " + statementCacheSize);
+		}
+
+		this.maintenance = Executors.newSingleThreadScheduledExecutor(task -> {
+			Thread thread = new Thread(task, "connection-pool-maintenance");
+			thread.setDaemon(true);
+			return thread;
+		});
+		long period = Math.max(1000, idleTimeoutMillis / 2);
+		maintenance.scheduleWithFixedDelay(this::maintain, 0, period, TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * Borrows a connection from the pool.
+	 * <p>
+	 * An idle connection is reused if there is one. Otherwise a new connection is
+	 * opened if the pool is not full, or the call waits for a connection to be
+	 * returned. Closing the returned connection gives it back to the pool.
+	 * </p>
+	 * 
+	 * @return a connection for the exclusive use of the caller until it is
+	 *         closed.
+	 * @throws SQLTimeoutException if no connection becomes free within the borrow
+	 *                             timeout.
+	 * @throws SQLException        if the pool is closed or a new connection cannot
+	 *                             be opened.
+	 */
+	public Connection getConnection() throws SQLException {
+		long deadline = System.nanoTime() + borrowTimeoutNanos;
+		lock.lock();
+		try {
+			while (true) {
+				if (closed) {
+					throw new SQLException("Connection pool is closed");
+				}
+				PooledConnection pooled = idle.pollFirst();
+				if (pooled != null) {
+					lock.unlock();
+					try {
+						if (isUsable(pooled)) {
+							return lend(pooled);
+						}
+						closeQuietly(pooled.connection);
+					} finally {
+						lock.lock();
+					}
+					// The broken connection no longer counts; try again
+					openCount--;
+					continue;
+				}
+				if (openCount < maxSize) {
+					openCount++;
+					lock.unlock();
+					try {
+						return lend(open());
+					} catch (SQLException | RuntimeException e) {
+						lock.lock();
+						openCount--;
+						available.signal();
+						lock.unlock();
+						throw e;
+					} finally {
+						if (!lock.isHeldByCurrentThread()) {
+							lock.lock();
+						}
+					}
+				}
+				long remaining = deadline - System.nanoTime();
+				if (remaining <= 0) {
+					throw new SQLTimeoutException("Timed out after "
+							+ TimeUnit.NANOSECONDS.toMillis(borrowTimeoutNanos) + " ms waiting for a connection");
+				}
+				try {
+					available.awaitNanos(remaining);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					throw new SQLException("Interrupted while waiting for a connection", e);
+				}
+			}
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Returns the number of open connections, whether idle or lent out.
+	 * 
+	 * @return the number of open connections.
+	 */
+	public int getOpenCount() {
+		lock.lock();
+		try {
+			return openCount;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Returns the number of idle connections.
+	 * 
+	 * @return the number of connections waiting to be borrowed.
+	 */
+	public int getIdleCount() {
+		lock.lock();
+		try {
+			return idle.size();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Returns the number of prepared statements that were taken from a
+	 * statement cache instead of being prepared by the driver.
+	 * 
+	 * @return the number of statement cache hits.
+	 */
+	public long getStatementCacheHits() {
+		return statementCacheHits.sum();
+	}
+
+	/**
+	 * Returns the number of prepared statements that had to be prepared by the
+	 * driver.
+	 * 
+	 * @return the number of statement cache misses.
+	 */
+	public long getStatementCacheMisses() {
+		return statementCacheMisses.sum();
+	}
+
+	/**
+	 * Returns the share of prepared statements that were taken from a statement
+	 * cache.
+	 * 
+	 * @return the hit rate between 0 and 1, or 0 if no statement has been
+	 *         prepared yet.
+	 */
+	public double getStatementCacheHitRate() {
+		long hits = statementCacheHits.sum();
+		long total = hits + statementCacheMisses.sum();
+		return total == 0 ? 0 : (double) hits / total;
+	}
+
+	/**
+	 * Closes the pool and its idle connections. Connections that are lent out
+	 * are closed when they are returned. Waiting borrowers fail.
+	 */
+	@Override
+	public void close() {
+		maintenance.shutdownNow();
+		Deque<PooledConnection> toClose;
+		lock.lock();
+		try {
+			closed = true;
+			toClose = new ArrayDeque<>(idle);
+			openCount -= idle.size();
+			idle.clear();
+			available.signalAll();
+		} finally {
+			lock.unlock();
+		}
+		for (PooledConnection pooled : toClose) {
+			closeQuietly(pooled.connection);
+		}
+	}
+
+	/**
+	 * Opens a new connection with the driver.
+	 * 
+	 * @return the new connection.
+	 * @throws SQLException if the connection cannot be opened.
+	 */
+	private PooledConnection open() throws SQLException {
+		return new PooledConnection(DriverManager.getConnection(url, login), statementCacheSize);
+	}
+
+	/**
+	 * Checks an idle connection before it is lent out. Connections used within
+	 * the last second are trusted without a round trip to the database.
+	 * 
+	 * @param pooled the idle connection.
+	 * @return {@code true} if the connection can be used.
+	 */
+	private boolean isUsable(PooledConnection pooled) {
+		try {
+			if (System.currentTimeMillis() - pooled.lastUsedMillis < VALIDATION_BYPASS_MILLIS) {
+				return !pooled.connection.isClosed();
+			}
+			return pooled.connection.isValid(validationTimeoutSeconds);
+		} catch (SQLException e) {
+			return false;
+		}
+	}
+
+	/**
+	 * Wraps a pooled connection in a proxy whose {@code close()} method returns
+	 * the connection to the pool.
+	 * 
+	 * @param pooled the connection to lend.
+	 * @return the proxy given to the borrower.
+	 */
+	private Connection lend(PooledConnection pooled) {
+		return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+				new Class<?>[] { Connection.class }, new Loan(pooled));
+	}
+
+	/**
+	 * Takes back a connection that a borrower has closed.
+	 * 
+	 * @param pooled the returned connection.
+	 */
+	private void giveBack(PooledConnection pooled) {
+		boolean reusable;
+		try {
+			Connection connection = pooled.connection;
+			reusable = !connection.isClosed();
+			if (reusable && !connection.getAutoCommit()) {
+				connection.rollback();
+				connection.setAutoCommit(true);
+			}
+		} catch (SQLException e) {
+			reusable = false;
+		}
+
+		lock.lock();
+		try {
+			if (reusable && !closed) {
+				pooled.lastUsedMillis = System.currentTimeMillis();
+				idle.addFirst(pooled);
+			} else {
+				openCount--;
+			}
+			available.signal();
+		} finally {
+			lock.unlock();
+		}
+		if (!reusable || closed) {
+			closeQuietly(pooled.connection);
+		}
+	}
+
+	/**
+	 * Closes connections that have been idle too long, above the minimum size,
+	 * and opens connections up to the minimum size. Runs on the maintenance
+	 * thread.
+	 */
+	private void maintain() {
+		Deque<PooledConnection> expired = new ArrayDeque<>();
+		int missing;
+		lock.lock();
+		try {
+			long now = System.currentTimeMillis();
+			// The oldest idle connections are at the end of the deque
+			Iterator<PooledConnection> oldestFirst = idle.descendingIterator();
+			while (oldestFirst.hasNext() && openCount - expired.size() > minSize) {
+				PooledConnection pooled = oldestFirst.next();
+				if (now - pooled.lastUsedMillis < idleTimeoutMillis) {
+					break;
+				}
+				oldestFirst.remove();
+				expired.add(pooled);
+			}
+			openCount -= expired.size();
+			missing = closed ? 0 : minSize - openCount;
+			openCount += Math.max(0, missing);
+		} finally {
+			lock.unlock();
+		}
+		for (PooledConnection pooled : expired) {
+			closeQuietly(pooled.connection);
+		}
+		for (int i = 0; i < missing; i++) {
+			PooledConnection opened = null;
+			try {
+				opened = open();
+			} catch (SQLException e) {
+				// The database may be down; try again on the next run
+			}
+			lock.lock();
+			try {
+				if (opened == null || closed) {
+					openCount--;
+				} else {
+					idle.addLast(opened);
+				}
+				available.signal();
+			} finally {
+				lock.unlock();
+			}
+			if (opened != null && closed) {
+				closeQuietly(opened.connection);
+			}
+		}
+	}
+
+	/**
+	 * Reads a whole-number property.
+	 * 
+	 * @param properties   the properties.
+	 * @param name         the name of the property.
+	 * @param defaultValue the value used if the property is not set.
+	 * @return the value of the property.
+	 * @throws IllegalArgumentException if the property is not a whole number.
+	 */
+	private static int intProperty(Properties properties, String name, int defaultValue) {
+		String value = properties.getProperty(name);
+		if (value == null) {
+			return defaultValue;
+		}
+		try {
+			return Integer.parseInt(value.trim());
+		} catch (NumberFormatException e) {
+			throw new IllegalArgumentException("Invalid value of " + name + ": " + value, e);
+		}
+	}
+
+	/**
+	 * Closes a connection, ignoring any error.
+	 * 
+	 * @param connection the connection to close.
+	 */
+	private static void closeQuietly(Connection connection) {
+		try {
+			connection.close();
+		} catch (SQLException e) {
+			// The connection is discarded either way
+		}
+	}
+
+	/**
+	 * The behaviour of a lent connection. Every method is passed to the pooled
+	 * connection, except {@code close()}, which returns it to the pool,
+	 * {@code isClosed()}, which reports whether the loan has ended, and
+	 * {@code prepareStatement}, which goes through the statement cache.
+	 */
+	private final class Loan implements InvocationHandler {
+
+		/**
+		 * The lent connection, or {@code null} once it has been returned.
+		 */
+		private PooledConnection pooled;
+
+		/**
+		 * The cached statements handed out during the loan and not yet closed.
+		 */
+		private final List<CachedStatement> openStatements = new ArrayList<>();
+
+		Loan(PooledConnection pooled) {
+			this.pooled = pooled;
+		}
+
+		@Override
+		public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+			switch (method.getName()) {
+			case "close":
+				if (pooled != null) {
+					// Statements the borrower left open go back to the cache
+					for (CachedStatement statement : new ArrayList<>(openStatements)) {
+						statement.release();
+					}
+					PooledConnection returned = pooled;
+					pooled = null;
+					giveBack(returned);
+				}
+				return null;
+			case "prepareStatement":
+				StatementCache.Key key = cacheKey(method, args);
+				if (key != null && pooled != null) {
+					return prepare((Connection) proxy, key, method, args);
+				}
+				break;
+			case "isClosed":
+				return pooled == null || pooled.connection.isClosed();
+			case "equals":
+				return proxy == args[0];
+			case "hashCode":
+				return System.identityHashCode(proxy);
+			case "toString":
+				return "Pooled connection " + (pooled == null ? "(returned)" : pooled.connection);
+			default:
+				break;
+			}
+			if (pooled == null) {
+				throw new SQLException("Connection has been returned to the pool");
+			}
+			try {
+				return method.invoke(pooled.connection, args);
+			} catch (InvocationTargetException e) {
+				throw e.getCause();
+			}
+		}
+
+		/**
+		 * Takes a prepared statement from the cache, or prepares it with the driver
+		 * if none is kept, and wraps it so that closing it puts it back.
+		 * 
+		 * @param proxy  the lent connection.
+		 * @param key    the SQL text and options of the statement.
+		 * @param method the {@code prepareStatement} method called.
+		 * @param args   the arguments of the call.
+		 * @return the statement given to the borrower.
+		 * @throws Throwable if the driver cannot prepare the statement.
+		 */
+		private PreparedStatement prepare(Connection proxy, StatementCache.Key key, Method method, Object[] args)
+				throws Throwable {
+			PreparedStatement statement = pooled.statements.take(key);
+			if (statement != null) {
+				statementCacheHits.increment();
+			} else {
+				statementCacheMisses.increment();
+				try {
+					statement = (PreparedStatement) method.invoke(pooled.connection, args);
+				} catch (InvocationTargetException e) {
+					throw e.getCause();
+				}
+			}
+			CachedStatement handler = new CachedStatement(this, proxy, pooled, key, statement);
+			openStatements.add(handler);
+			return (PreparedStatement) Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(),
+					new Class<?>[] { PreparedStatement.class }, handler);
+		}
+	}
+
+	/**
+	 * Returns the cache key of a {@code prepareStatement} call, for the forms
+	 * that take the SQL text alone, with a generated keys flag, or with a result
+	 * set type and concurrency.
+	 * 
+	 * @param method the {@code prepareStatement} method called.
+	 * @param args   the arguments of the call.
+	 * @return the key, or {@code null} if the statement is not cached.
+	 */
+	private static StatementCache.Key cacheKey(Method method, Object[] args) {
+		Class<?>[] types = method.getParameterTypes();
+		if (types.length == 1) {
+			return new StatementCache.Key((String) args[0], -1, -1, -1);
+		}
+		if (types.length == 2 && types[1] == int.class) {
+			return new StatementCache.Key((String) args[0], -1, -1, (Integer) args[1]);
+		}
+		if (types.length == 3) {
+			return new StatementCache.Key((String) args[0], (Integer) args[1], (Integer) args[2], -1);
+		}
+		return null;
+	}
+
+	/**
+	 * The behaviour of a prepared statement taken from a statement cache. Every
+	 * method is passed to the statement, except {@code close()}, which puts it
+	 * back in the cache, and {@code getConnection()}, which returns the lent
+	 * connection rather than the one owned by the pool.
+	 */
+	private static final class CachedStatement implements InvocationHandler {
+
+		/**
+		 * The loan during which the statement was handed out.
+		 */
+		private final Loan loan;
+
+		/**
+		 * The lent connection the statement was prepared on.
+		 */
+		private final Connection connection;
+
+		/**
+		 * The pooled connection whose cache the statement belongs to.
+		 */
+		private final PooledConnection owner;
+
+		/**
+		 * The SQL text and options of the statement.
+		 */
+		private final StatementCache.Key key;
+
+		/**
+		 * The statement, or {@code null} once it has been closed.
+		 */
+		private PreparedStatement statement;
+
+		CachedStatement(Loan loan, Connection connection, PooledConnection owner, StatementCache.Key key,
+				PreparedStatement statement) {
+			this.loan = loan;
+			this.connection = connection;
+			this.owner = owner;
+			this.key = key;
+			this.statement = statement;
+		}
+
+		@Override
+		public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+			switch (method.getName()) {
+			case "close":
+				release();
+				return null;
+			case "isClosed":
+				return statement == null || statement.isClosed();
+			case "getConnection":
+				return connection;
+			case "equals":
+				return proxy == args[0];
+			case "hashCode":
+				return System.identityHashCode(proxy);
+			case "toString":
+				return "Cached statement " + (statement == null ? "(closed)" : statement);
+			default:
+				if (statement == null) {
+					throw new SQLException("Statement is closed");
+				}
+				try {
+					return method.invoke(statement, args);
+				} catch (InvocationTargetException e) {
+					throw e.getCause();
+				}
+			}
+		}
+
+		/**
+		 * Resets the statement and puts it back in the cache of its connection. A
+		 * statement that cannot be reset is closed instead.
+		 */
+		void release() {
+			if (statement == null) {
+				return;
+			}
+			PreparedStatement released = statement;
+			statement = null;
+			loan.openStatements.remove(this);
+			try {
+				ResultSet resultSet = released.getResultSet();
+				if (resultSet != null) {
+					resultSet.close();
+				}
+				released.clearParameters();
+				released.clearBatch();
+				released.clearWarnings();
+			} catch (SQLException e) {
+				closeQuietly(released);
+				return;
+			}
+			owner.statements.put(key, released);
+		}
+
+		/**
+		 * Closes a statement, ignoring any error.
+		 * 
+		 * @param statement the statement to close.
+		 */
+		private static void closeQuietly(PreparedStatement statement) {
+			try {
+				statement.close();
+			} catch (SQLException e) {
+				// The statement is discarded either way
+			}
+		}
+	}
+}
@@ -0,0 +1,173 @@
+package com.smsapp.dao;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * The prepared statements kept open on one pooled connection.
+ * <p>
+ * Preparing a statement costs a round trip to the database, which parses the
+ * SQL text. The service classes prepare the same few queries from
+ * {@code Queries} again and again, so a statement closed by its caller is kept
+ * here, and the next request for the same SQL text on the same connection is
+ * given the kept statement instead of a new one.
+ * </p>
+ * 
+ * <p>
+ * A statement is removed from the cache while it is in use and put back when
+ * it is closed, so two callers never share one. The cache holds at most a fixed
+ * number of statements; when it is full, the least recently used statement is
+ * closed. A cache is only used by the borrower of its connection and is not
+ * thread-safe.
+ * </p>
+ * 
+ * @author MonigaBalasubramanian
+ */
+final class StatementCache {
+
+	/**
+	 * Identifies a prepared statement by its SQL text and the options it was
+	 * prepared with.
+	 */
+	static final class Key {
+
+		/**
+		 * The SQL text of the statement.
+		 */
+		private final String sql;
+
+		/**
+		 * The result set type, or -1 if the default was used.
+		 */
+		private final int resultSetType;
+
+		/**
+		 * The result set concurrency, or -1 if the default was used.
+		 */
+		private final int resultSetConcurrency;
+
+		/**
+		 * Whether generated keys are returned, or -1 if the default was used.
+		 */
+		private final int autoGeneratedKeys;
+
+		/**
+		 * Creates a key.
+		 * 
+		 * @param sql                  the SQL text of the statement.
+		 * @param resultSetType        the result set type, or -1 for the default.
+		 * @param resultSetConcurrency the result set concurrency, or -1 for the
+		 *                             default.
+		 * @param autoGeneratedKeys    whether generated keys are returned, or -1 for
+		 *                             the default.
+		 */
+		Key(String sql, int resultSetType, int resultSetConcurrency, int autoGeneratedKeys) {
+			this.sql = sql;
+			this.resultSetType = resultSetType;
+			this.resultSetConcurrency = resultSetConcurrency;
+			this.autoGeneratedKeys = autoGeneratedKeys;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj) {
+				return true;
+			}
+			if (!(obj instanceof Key)) {
+				return false;
+			}
+			Key other = (Key) obj;
+			return resultSetType == other.resultSetType && resultSetConcurrency == other.resultSetConcurrency
+					&& autoGeneratedKeys == other.autoGeneratedKeys && sql.equals(other.sql);
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(sql, resultSetType, resultSetConcurrency, autoGeneratedKeys);
+		}
+	}
+
+	/**
+	 * The statements not in use, least recently used first.
+	 */
+	private final LinkedHashMap<Key, PreparedStatement> statements = new LinkedHashMap<>(16, 0.75f, true);
+
+	/**
+	 * The largest number of statements kept.
+	 */
+	private final int maxSize;
+
+	/**
+	 * Creates an empty cache.
+	 * 
+	 * @param maxSize the largest number of statements to keep; 0 keeps none.
+	 */
+	StatementCache(int maxSize) {
+		this.maxSize = maxSize;
+	}
+
+	/**
+	 * Takes a kept statement out of the cache.
+	 * 
+	 * @param key the SQL text and options of the statement.
+	 * @return the statement, or {@code null} if none is kept for the key.
+	 */
+	PreparedStatement take(Key key) {
+		PreparedStatement statement = statements.remove(key);
+		try {
+			if (statement != null && statement.isClosed()) {
+				return null;
+			}
+		} catch (SQLException e) {
+			return null;
+		}
+		return statement;
+	}
+
+	/**
+	 * Keeps a statement that its caller has closed. If the cache is full, the
+	 * least recently used statement is closed. If a statement is already kept for
+	 * the key, the given one is closed instead.
+	 * 
+	 * @param key       the SQL text and options of the statement.
+	 * @param statement the statement to keep.
+	 */
+	void put(Key key, PreparedStatement statement) {
+		if (maxSize == 0 || statements.containsKey(key)) {
+			closeQuietly(statement);
+			return;
+		}
+		statements.put(key, statement);
+		Iterator<Map.Entry<Key, PreparedStatement>> eldest = statements.entrySet().iterator();
+		while (statements.size() > maxSize) {
+			closeQuietly(eldest.next().getValue());
+			eldest.remove();
+		}
+	}
+
+	/**
+	 * Returns the number of kept statements.
+	 * 
+	 * @return the number of statements not in use.
+	 */
+	int size() {
+		return statements.size();
+	}
+
+	/**
+	 * Closes a statement, ignoring any error.
+	 * 
+	 * @param statement the statement to close.
+	 */
+	private static void closeQuietly(PreparedStatement statement) {
+		try {
+			statement.close();
+		} catch (SQLException e) {
+			// The statement is discarded either way
+		}
+	}
+}
@@ -3,9 +3,11 @@
  * School Management System application.
  * <p>
  * This package includes the {@link com.smsapp.dao.ConnectionBean} class, which
- * provides static methods for establishing and closing JDBC connections to the
- * database. The {@code ConnectionBean} class uses a properties file to load
- * connection parameters and manages the connection lifecycle.
+ * provides static methods for borrowing and returning JDBC connections. The
+ * {@code ConnectionBean} class uses a properties file to load connection
+ * parameters once and hands out connections from a shared
+ * {@link com.smsapp.dao.ConnectionPool}, which keeps a bounded number of
+ * connections open and caches the statements prepared on each of them.
  * </p>
  * <p>
  * Example usage:
@@ -13,7 +15,7 @@
  * <pre>{@code
  * Connection conn = ConnectionBean.openConnection();
  * // Use the connection
- * ConnectionBean.closeConnection();
+ * ConnectionBean.closeConnection(conn);
  * }</pre>
  * </p>
  * 
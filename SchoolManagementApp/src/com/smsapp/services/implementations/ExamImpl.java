@@ -125,9 +125,10 @@ public class ExamImpl implements IExam {
 						exam.setSubject(Subject.UNKNOWN); // Set a default or handle as needed
 					}
 
-					// Set associated students and teachers
-					exam.setStudents(getStudentsByExamId(examId));
-					exam.setTeachers(getTeachersByExamId(examId));
+					// Set associated students and teachers, reading them on the same
+					// connection instead of borrowing more from the pool
+					exam.setStudents(getStudentsByExamId(conn, examId));
+					exam.setTeachers(getTeachersByExamId(conn, examId));
 
 					return exam;
 				} else {
@@ -173,12 +174,14 @@ public class ExamImpl implements IExam {
 					exam.setSubject(Subject.UNKNOWN); // Set a default or handle as needed
 				}
 
-				// Retrieve and set associated students and teachers
-				exam.setStudents(getStudentsByExamId(exam.getExamId()));
-				exam.setTeachers(getTeachersByExamId(exam.getExamId()));
-
 				exams.add(exam);
 			}
+
+			// Retrieve and set associated students and teachers on the same connection
+			for (Exam exam : exams) {
+				exam.setStudents(getStudentsByExamId(conn, exam.getExamId()));
+				exam.setTeachers(getTeachersByExamId(conn, exam.getExamId()));
+			}
 		} catch (SQLException e) {
 			e.printStackTrace();
 		}
@@ -297,10 +300,7 @@ public class ExamImpl implements IExam {
 			conn.setAutoCommit(false); // Start transaction
 
 			// Check if the exam exists
-			Exam exam = getExamById(examId);
-			if (exam == null) {
-				throw new ExamNotFoundException("Exam not found with ID: " + examId);
-			}
+			checkExamExists(conn, examId);
 
 			// Delete existing student-exam relations
 			try (PreparedStatement pstmt = conn.prepareStatement(Queries.DELETE_STUDENT_EXAM_RELATIONS)) {
@@ -370,7 +370,7 @@ public class ExamImpl implements IExam {
 	public void assignTeachersToExam(int examId, List<Integer> teacherIds) throws ExamNotFoundException {
 		try (Connection conn = ConnectionBean.openConnection()) {
 			// Check if the exam exists
-			getExamById(examId);
+			checkExamExists(conn, examId);
 
 			// Delete existing teacher-exam relations
 			try (PreparedStatement pstmt = conn.prepareStatement(Queries.DELETE_TEACHER_EXAM_RELATIONS)) {
@@ -409,10 +409,28 @@ public class ExamImpl implements IExam {
 	 */
 	@Override
 	public List<Student> getStudentsByExamId(int examId) {
+		try (Connection conn = ConnectionBean.openConnection()) {
+			return getStudentsByExamId(conn, examId);
+		} catch (SQLException e) {
+			e.printStackTrace();
+			throw new RuntimeException("Error retrieving students for exam ID: " + examId, e);
+		}
+	}
+
+	/**
+	 * Retrieves the students associated with a specific exam using a connection
+	 * the caller already holds, so that no second pooled connection is borrowed.
+	 *
+	 * @param conn   The connection to run the query on.
+	 * @param examId The ID of the exam whose associated students are to be
+	 *               retrieved.
+	 * @return A list of {@link Student} objects associated with the specified exam.
+	 * @throws SQLException If there is an error during database access.
+	 */
+	private List<Student> getStudentsByExamId(Connection conn, int examId) throws SQLException {
 		List<Student> students = new ArrayList<>();
 
-		try (Connection conn = ConnectionBean.openConnection();
-				PreparedStatement pstmt = conn.prepareStatement(Queries.GET_STUDENTS_BY_EXAM_ID)) {
+		try (PreparedStatement pstmt = conn.prepareStatement(Queries.GET_STUDENTS_BY_EXAM_ID)) {
 			pstmt.setInt(1, examId);
 			try (ResultSet rs = pstmt.executeQuery()) {
 				while (rs.next()) {
@@ -448,9 +466,6 @@ public class ExamImpl implements IExam {
 					students.add(student);
 				}
 			}
-		} catch (SQLException e) {
-			e.printStackTrace();
-			throw new RuntimeException("Error retrieving students for exam ID: " + examId, e);
 		}
 		return students;
 	}
@@ -471,12 +486,30 @@ public class ExamImpl implements IExam {
 	 */
 	@Override
 	public List<Teacher> getTeachersByExamId(int examId) throws ExamNotFoundException {
+		try (Connection conn = ConnectionBean.openConnection()) {
+			return getTeachersByExamId(conn, examId);
+		} catch (SQLException e) {
+			e.printStackTrace();
+			throw new RuntimeException("Error retrieving teachers for exam ID: " + examId, e);
+		}
+	}
+
+	/**
+	 * Retrieves the teachers associated with a specific exam using a connection
+	 * the caller already holds.
+	 *
+	 * @param conn   The connection to run the query on.
+	 * @param examId The ID of the exam whose associated teachers are to be
+	 *               retrieved.
+	 * @return A list of {@link Teacher} objects associated with the specified exam.
+	 * @throws SQLException If there is an error during database access.
+	 */
+	private List<Teacher> getTeachersByExamId(Connection conn, int examId) throws SQLException {
 		String sql = "SELECT t.teacher_id, t.teacher_name, t.subject FROM teacher t "
 				+ "JOIN teacher_exam et ON t.teacher_id = et.teacher_id " + "WHERE et.exam_id = ?";
 		List<Teacher> teachers = new ArrayList<>();
 
-		try (Connection conn = ConnectionBean.openConnection(); PreparedStatement pstmt = conn.prepareStatement(sql)) {
-
+		try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
 			pstmt.setInt(1, examId);
 			try (ResultSet rs = pstmt.executeQuery()) {
 				while (rs.next()) {
@@ -488,13 +521,35 @@ public class ExamImpl implements IExam {
 					teachers.add(teacher);
 				}
 			}
-		} catch (SQLException e) {
-			e.printStackTrace();
-			throw new RuntimeException("Error retrieving teachers for exam ID: " + examId, e);
 		}
 		return teachers;
 	}
 
+	/**
+	 * Checks that an exam exists, using a connection the caller already holds.
+	 *
+	 * <p>
+	 * Methods that keep a pooled connection open for a transaction use this
+	 * instead of {@link #getExamById(int)}, which would borrow further connections
+	 * and could wait on the pool while holding one.
+	 * </p>
+	 *
+	 * @param conn   The connection to run the query on.
+	 * @param examId The ID of the exam to look for.
+	 * @throws ExamNotFoundException If no exam is found with the given ID.
+	 * @throws SQLException          If there is an error during database access.
+	 */
+	private void checkExamExists(Connection conn, int examId) throws ExamNotFoundException, SQLException {
+		try (PreparedStatement pstmt = conn.prepareStatement(Queries.SELECT_EXAM_BY_ID)) {
+			pstmt.setInt(1, examId);
+			try (ResultSet rs = pstmt.executeQuery()) {
+				if (!rs.next()) {
+					throw new ExamNotFoundException("Exam not found with ID: " + examId);
+				}
+			}
+		}
+	}
+
 	/**
 	 * Deletes all relationships associated with a specific exam.
 	 *
@@ -417,10 +417,15 @@ public class TeacherImpl implements ITeacher {
 	public void updateTeacher(Teacher teacher) throws TeacherNotFoundException {
 		try (Connection connection = ConnectionBean.openConnection()) {
 
-			// Check if the teacher exists
-			Teacher existingTeacher = getTeacherById(teacher.getTeacherId());
-			if (existingTeacher == null) {
-				throw new TeacherNotFoundException("Teacher with ID " + teacher.getTeacherId() + " not found.");
+			// Check if the teacher exists on this connection, without borrowing a
+			// second one from the pool through getTeacherById
+			try (PreparedStatement existsPs = connection.prepareStatement(Queries.GET_TEACHER_BY_ID)) {
+				existsPs.setInt(1, teacher.getTeacherId());
+				try (ResultSet rs = existsPs.executeQuery()) {
+					if (!rs.next()) {
+						throw new TeacherNotFoundException("Teacher with ID " + teacher.getTeacherId() + " not found.");
+					}
+				}
 			}
 
 			// Insert or update the address
@@ -599,7 +604,7 @@ public class TeacherImpl implements ITeacher {
 			}
 		} finally {
 			if (connection != null) {
-				ConnectionBean.closeConnection(); // Close connection
+				ConnectionBean.closeConnection(connection); // Return connection to the pool
 			}
 		}
 	}